@@ -0,0 +1,30 @@
+package ir.msob.jima.security.grpc.api;
+
+import io.grpc.Context;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Holds the {@link Authentication} of the current gRPC call in {@link Context}, which follows the call
+ * across the threads its listener callbacks run on.
+ *
+ * @author Yaqub Abdi
+ */
+public class GrpcSecurityContext {
+
+    /**
+     * Key of the authenticated principal of the current call.
+     */
+    public static final Context.Key<Authentication> AUTHENTICATION_KEY = Context.key("jima-authentication");
+
+    private GrpcSecurityContext() {
+    }
+
+    /**
+     * Returns the authentication attached to the current gRPC context.
+     *
+     * @return the authentication, or {@code null} for unauthenticated calls
+     */
+    public static Authentication current() {
+        return AUTHENTICATION_KEY.get();
+    }
+}
@@ -0,0 +1,55 @@
+package ir.msob.jima.security.grpc.autoconfigure;
+
+import io.grpc.CallCredentials;
+import io.grpc.Metadata;
+import io.grpc.Status;
+import ir.msob.jima.platform.api.security.BaseTokenService;
+import ir.msob.jima.security.reactive.token.CachedTokenSource;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+/**
+ * {@link CallCredentials} that attach the service token of a {@link BaseTokenService} as the
+ * {@code authorization} metadata of outgoing calls.
+ * <p>
+ * The metadata is cached in a {@link CachedTokenSource}: while the token is valid it is applied on the
+ * calling thread without blocking, and only calls made without any valid token wait, asynchronously,
+ * for the shared refresh.
+ *
+ * @author Yaqub Abdi
+ */
+public class BearerTokenCallCredentials extends CallCredentials {
+
+    private static final Metadata.Key<String> AUTHORIZATION_KEY =
+            Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final CachedTokenSource<Metadata> tokenSource;
+
+    public BearerTokenCallCredentials(BaseTokenService tokenService, Duration refreshBefore) {
+        this.tokenSource = new CachedTokenSource<>(tokenService, refreshBefore, token -> {
+            Metadata metadata = new Metadata();
+            metadata.put(AUTHORIZATION_KEY, "Bearer " + token);
+            return metadata;
+        });
+    }
+
+    @Override
+    public void applyRequestMetadata(RequestInfo requestInfo, Executor appExecutor, MetadataApplier applier) {
+        Metadata metadata = tokenSource.getIfValid();
+        if (metadata != null) {
+            applier.apply(metadata);
+            return;
+        }
+
+        tokenSource.refresh().whenCompleteAsync((refreshed, e) -> {
+            if (e != null) {
+                applier.fail(Status.UNAUTHENTICATED
+                        .withDescription("Service token could not be obtained")
+                        .withCause(e));
+            } else {
+                applier.apply(refreshed);
+            }
+        }, appExecutor);
+    }
+}
@@ -0,0 +1,250 @@
+package ir.msob.jima.security.grpc.autoconfigure;
+
+import io.grpc.*;
+import ir.msob.jima.platform.api.logger.Logger;
+import ir.msob.jima.platform.api.logger.LoggerFactory;
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.api.util.BearerTokenExtractorUtil;
+import ir.msob.jima.security.grpc.api.AuthenticationReader;
+import ir.msob.jima.security.grpc.api.GrpcSecurityContext;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * gRPC server interceptor that carries the authenticated principal in {@link io.grpc.Context}.
+ * <p>
+ * The {@link Authentication} is attached to the call context under {@link GrpcSecurityContext#AUTHENTICATION_KEY},
+ * and the {@link SecurityContextHolder} is populated around every listener callback and cleared afterwards,
+ * whichever executor thread gRPC delivers the callback on.
+ * <p>
+ * When verification threads are configured, tokens are verified on a bounded pool instead of the transport
+ * thread; callbacks arriving meanwhile are buffered and replayed in order once the call is started.
+ * Calls that find the pool's queue full are rejected with {@code RESOURCE_EXHAUSTED}.
+ *
+ * @author Yaqub Abdi
+ */
+public class ContextAuthenticatingServerInterceptor implements ServerInterceptor, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContextAuthenticatingServerInterceptor.class);
+    /**
+     * Authorization header; the bearer token is located in place and only the token itself is copied out.
+     */
+    static final Metadata.Key<String> AUTHORIZATION_KEY = Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final AuthenticationReader authenticationReader;
+    private final ThreadPoolExecutor executor;
+
+    public ContextAuthenticatingServerInterceptor(AuthenticationReader authenticationReader
+            , SecurityProperties.GrpcProperties properties) {
+        this.authenticationReader = authenticationReader;
+        this.executor = properties.getVerificationThreads() > 0
+                ? verificationExecutor(properties.getVerificationThreads(), properties.getVerificationQueueCapacity())
+                : null;
+    }
+
+    private static ThreadPoolExecutor verificationExecutor(int threads, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "jima-grpc-auth-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> serverCall,
+                                                                 Metadata metadata,
+                                                                 ServerCallHandler<ReqT, RespT> serverCallHandler) {
+        String header = metadata.get(AUTHORIZATION_KEY);
+        long token = BearerTokenExtractorUtil.locate(header);
+        if (token == BearerTokenExtractorUtil.NOT_FOUND) {
+            return serverCallHandler.startCall(serverCall, metadata);
+        }
+
+        if (executor == null) {
+            return startCall(serverCall, metadata, serverCallHandler, authenticate(header, token));
+        }
+
+        DelayedListener<ReqT> listener = new DelayedListener<>();
+        try {
+            executor.execute(Context.current().wrap(() -> {
+                try {
+                    listener.setDelegate(startCall(serverCall, metadata, serverCallHandler, authenticate(header, token)));
+                } catch (StatusRuntimeException e) {
+                    serverCall.close(e.getStatus(), new Metadata());
+                    listener.setDelegate(new ServerCall.Listener<>() {
+                    });
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            logger.warn("gRPC authentication rejected, verification queue is full");
+            throw Status.RESOURCE_EXHAUSTED
+                    .withDescription("Authentication capacity exceeded")
+                    .asRuntimeException();
+        }
+        return listener;
+    }
+
+    private Authentication authenticate(String header, long token) {
+        try {
+            Authentication authentication = authenticationReader.authenticate(
+                    header.substring(BearerTokenExtractorUtil.start(token), BearerTokenExtractorUtil.end(token)));
+            if (authentication == null || !authentication.isAuthenticated()) {
+                throw Status.UNAUTHENTICATED
+                        .withDescription("Invalid authentication")
+                        .asRuntimeException();
+            }
+            return authentication;
+        } catch (StatusRuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            logger.error("gRPC authentication failed", e);
+            throw Status.UNAUTHENTICATED
+                    .withDescription("Authentication failed")
+                    .withCause(e)
+                    .asRuntimeException();
+        }
+    }
+
+    private <ReqT, RespT> ServerCall.Listener<ReqT> startCall(ServerCall<ReqT, RespT> serverCall,
+                                                              Metadata metadata,
+                                                              ServerCallHandler<ReqT, RespT> serverCallHandler,
+                                                              Authentication authentication) {
+        Context context = Context.current().withValue(GrpcSecurityContext.AUTHENTICATION_KEY, authentication);
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(authentication);
+        return new SecurityContextListener<>(Contexts.interceptCall(context, serverCall, metadata, serverCallHandler),
+                securityContext);
+    }
+
+    /**
+     * Shuts the verification pool down, if any.
+     */
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Populates the {@link SecurityContextHolder} for the duration of each callback.
+     */
+    private static final class SecurityContextListener<ReqT>
+            extends ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT> {
+
+        private final SecurityContext securityContext;
+
+        private SecurityContextListener(ServerCall.Listener<ReqT> delegate, SecurityContext securityContext) {
+            super(delegate);
+            this.securityContext = securityContext;
+        }
+
+        private void run(Runnable callback) {
+            SecurityContext previous = SecurityContextHolder.getContext();
+            boolean hadContext = previous.getAuthentication() != null;
+            SecurityContextHolder.setContext(securityContext);
+            try {
+                callback.run();
+            } finally {
+                if (hadContext) {
+                    SecurityContextHolder.setContext(previous);
+                } else {
+                    // Pooled transport threads must not keep an empty context behind.
+                    SecurityContextHolder.clearContext();
+                }
+            }
+        }
+
+        @Override
+        public void onMessage(ReqT message) {
+            run(() -> super.onMessage(message));
+        }
+
+        @Override
+        public void onHalfClose() {
+            run(super::onHalfClose);
+        }
+
+        @Override
+        public void onCancel() {
+            run(super::onCancel);
+        }
+
+        @Override
+        public void onComplete() {
+            run(super::onComplete);
+        }
+
+        @Override
+        public void onReady() {
+            run(super::onReady);
+        }
+    }
+
+    /**
+     * Buffers callbacks until the call has been started after asynchronous verification.
+     * gRPC delivers callbacks one at a time, so replaying them under the lock keeps their order.
+     */
+    private static final class DelayedListener<ReqT> extends ServerCall.Listener<ReqT> {
+
+        private final List<Consumer<ServerCall.Listener<ReqT>>> pending = new ArrayList<>();
+        private ServerCall.Listener<ReqT> delegate;
+        private volatile boolean started;
+
+        private synchronized void setDelegate(ServerCall.Listener<ReqT> delegate) {
+            this.delegate = delegate;
+            pending.forEach(callback -> callback.accept(delegate));
+            pending.clear();
+            started = true;
+        }
+
+        private void dispatch(Consumer<ServerCall.Listener<ReqT>> callback) {
+            if (!started) {
+                synchronized (this) {
+                    if (!started) {
+                        pending.add(callback);
+                        return;
+                    }
+                }
+            }
+            callback.accept(delegate);
+        }
+
+        @Override
+        public void onMessage(ReqT message) {
+            dispatch(listener -> listener.onMessage(message));
+        }
+
+        @Override
+        public void onHalfClose() {
+            dispatch(ServerCall.Listener::onHalfClose);
+        }
+
+        @Override
+        public void onCancel() {
+            dispatch(ServerCall.Listener::onCancel);
+        }
+
+        @Override
+        public void onComplete() {
+            dispatch(ServerCall.Listener::onComplete);
+        }
+
+        @Override
+        public void onReady() {
+            dispatch(ServerCall.Listener::onReady);
+        }
+    }
+}
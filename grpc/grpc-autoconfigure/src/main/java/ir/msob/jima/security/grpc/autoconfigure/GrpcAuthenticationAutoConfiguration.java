@@ -1,16 +1,27 @@
 package ir.msob.jima.security.grpc.autoconfigure;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import ir.msob.jima.platform.api.logger.Logger;
 import ir.msob.jima.platform.api.logger.LoggerFactory;
 import ir.msob.jima.security.core.jwt.JwtRoleConverter;
+import ir.msob.jima.security.core.metrics.TimedJwtDecoder;
 import ir.msob.jima.security.grpc.api.AuthenticationReader;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.context.annotation.Bean;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.security.oauth2.core.OAuth2TokenIntrospectionClaimNames;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthentication;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.introspection.OpaqueTokenIntrospector;
+
+import java.time.Instant;
 
 /**
  * Spring configuration class for setting up gRPC JWT-based authentication.
@@ -32,27 +43,67 @@ public class GrpcAuthenticationAutoConfiguration {
      * <p>
      * The reader decodes JWT tokens using the provided {@link JwtDecoder}, extracts roles
      * using the {@link JwtRoleConverter}, and creates a fully authenticated {@link JwtAuthenticationToken}.
+     * Decoding is timed with the {@code grpc} transport tag when a {@link MeterRegistry} is available.
+     * In opaque-token mode, when an {@link OpaqueTokenIntrospector} is present, tokens are introspected instead
+     * and authenticated as a {@link BearerTokenAuthentication}.
      * </p>
      *
-     * @param jwtDecoder       the JWT decoder used to validate and decode tokens
+     * @param jwtDecoder       the JWT decoder used to validate and decode tokens, absent in opaque-token mode
      * @param jwtRoleConverter the converter used to extract roles from JWT claims
+     * @param meterRegistry    the meter registry, if any
+     * @param opaqueTokenIntrospector the introspector of opaque-token mode, if any
      * @return a configured {@link AuthenticationReader} instance
      * @throws JwtException             if the token is invalid, expired, or malformed
      * @throws IllegalArgumentException if the token is null or empty
      */
     @Bean
-    public AuthenticationReader authenticationReader(JwtDecoder jwtDecoder, JwtRoleConverter jwtRoleConverter) {
+    public AuthenticationReader authenticationReader(ObjectProvider<JwtDecoder> jwtDecoder, JwtRoleConverter jwtRoleConverter
+            , ObjectProvider<MeterRegistry> meterRegistry, ObjectProvider<OpaqueTokenIntrospector> opaqueTokenIntrospector) {
+        OpaqueTokenIntrospector introspector = opaqueTokenIntrospector.getIfAvailable();
+        if (introspector != null) {
+            logger.debug("Creating AuthenticationReader bean with opaque-token introspector");
+            return introspectingReader(introspector);
+        }
+
         logger.debug("Creating AuthenticationReader bean with JWT decoder and role converter");
+        JwtDecoder decoder = TimedJwtDecoder.wrap(jwtDecoder.getObject(), meterRegistry.getIfAvailable(), "grpc");
+
+        return new JwtAuthenticationReader(decoder, jwtRoleConverter);
+    }
 
+    private static AuthenticationReader introspectingReader(OpaqueTokenIntrospector introspector) {
         return token -> {
             if (token == null || token.trim().isEmpty()) {
                 logger.warn("Attempted to authenticate with null or empty token");
                 throw new IllegalArgumentException("Token cannot be null or empty");
             }
 
+            OAuth2AuthenticatedPrincipal principal = introspector.introspect(token);
+            Instant issuedAt = principal.getAttribute(OAuth2TokenIntrospectionClaimNames.IAT);
+            Instant expiresAt = principal.getAttribute(OAuth2TokenIntrospectionClaimNames.EXP);
+            OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, token, issuedAt, expiresAt);
+            return new BearerTokenAuthentication(principal, accessToken, principal.getAuthorities());
+        };
+    }
+
+    /**
+     * Reader decoding JWTs and converting their roles to authorities.
+     */
+    @RequiredArgsConstructor
+    private static class JwtAuthenticationReader implements AuthenticationReader {
+
+        private final JwtDecoder decoder;
+        private final JwtRoleConverter jwtRoleConverter;
+
+        @Override
+        public Authentication authenticate(String token) {
+            if (token == null || token.trim().isEmpty()) {
+                logger.warn("Attempted to authenticate with null or empty token");
+                throw new IllegalArgumentException("Token cannot be null or empty");
+            }
             try {
                 logger.debug("Decoding JWT token for authentication");
-                Jwt jwt = jwtDecoder.decode(token);
+                Jwt jwt = decoder.decode(token);
 
                 logger.debug("Converting JWT claims to authorities");
                 var authorities = jwtRoleConverter.convert(jwt);
@@ -71,6 +122,6 @@ public class GrpcAuthenticationAutoConfiguration {
                 logger.error("Unexpected error during authentication: {}", e.getMessage(), e);
                 throw new RuntimeException("Authentication processing failed", e);
             }
-        };
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,42 @@
+package ir.msob.jima.security.grpc.autoconfigure;
+
+import io.grpc.*;
+import ir.msob.jima.platform.api.security.BaseTokenService;
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Spring configuration of the credentials attached to outgoing gRPC calls.
+ * <p>
+ * Enabled by {@code jima.security.grpc.client-authentication}; register the {@link ClientInterceptor}
+ * on a channel, or pass the {@link BearerTokenCallCredentials} to a stub with {@code withCallCredentials}.
+ *
+ * @author Yaqub Abdi
+ */
+@AutoConfiguration
+@ConditionalOnProperty(prefix = "jima.security.grpc", name = "client-authentication", havingValue = "true")
+public class GrpcClientSecurityAutoConfiguration {
+
+    @Bean
+    public BearerTokenCallCredentials bearerTokenCallCredentials(BaseTokenService tokenService
+            , SecurityProperties securityProperties) {
+        return new BearerTokenCallCredentials(tokenService, securityProperties.getGrpc().getClientTokenRefreshBefore());
+    }
+
+    @Bean
+    public ClientInterceptor authenticatingClientInterceptor(BearerTokenCallCredentials bearerTokenCallCredentials) {
+        return new ClientInterceptor() {
+            @Override
+            public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                                                                       CallOptions callOptions,
+                                                                       Channel next) {
+                CallOptions options = callOptions.getCredentials() == null
+                        ? callOptions.withCallCredentials(bearerTokenCallCredentials)
+                        : callOptions;
+                return next.newCall(method, options);
+            }
+        };
+    }
+}
@@ -3,10 +3,10 @@ package ir.msob.jima.security.grpc.autoconfigure;
 import io.grpc.*;
 import ir.msob.jima.platform.api.logger.Logger;
 import ir.msob.jima.platform.api.logger.LoggerFactory;
+import ir.msob.jima.security.api.properties.SecurityProperties;
 import ir.msob.jima.security.api.util.BearerTokenExtractorUtil;
 import ir.msob.jima.security.grpc.api.AuthenticationReader;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.security.core.Authentication;
@@ -18,12 +18,22 @@ public class GrpcSecurityAutoConfiguration {
 
     private static final Logger logger =
             LoggerFactory.getLogger(GrpcSecurityAutoConfiguration.class);
-    private static final Metadata.Key<String> AUTHORIZATION_KEY =
-            Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER);
     private final AuthenticationReader authenticationReader;
 
+    /**
+     * Authenticates incoming calls from their bearer token.
+     * <p>
+     * With {@code jima.security.grpc.context-propagation} the authentication travels in {@code io.grpc.Context}
+     * (see {@link ContextAuthenticatingServerInterceptor}); otherwise it is set on the calling thread only.
+     *
+     * @param securityProperties the security properties
+     * @return the interceptor
+     */
     @Bean
-    public ServerInterceptor authenticatingServerInterceptor() {
+    public ServerInterceptor authenticatingServerInterceptor(SecurityProperties securityProperties) {
+        if (securityProperties.getGrpc().isContextPropagation()) {
+            return new ContextAuthenticatingServerInterceptor(authenticationReader, securityProperties.getGrpc());
+        }
 
         return new ServerInterceptor() {
 
@@ -35,17 +45,18 @@ public class GrpcSecurityAutoConfiguration {
 
                 logger.debug("gRPC authentication interceptor triggered");
 
-                String header = metadata.get(AUTHORIZATION_KEY);
+                String header = metadata.get(ContextAuthenticatingServerInterceptor.AUTHORIZATION_KEY);
 
-                String token = BearerTokenExtractorUtil.extract(header);
+                long token = BearerTokenExtractorUtil.locate(header);
 
-                if (StringUtils.isBlank(token)) {
+                if (token == BearerTokenExtractorUtil.NOT_FOUND) {
                     return serverCallHandler.startCall(serverCall, metadata);
                 }
 
                 try {
                     Authentication authentication =
-                            authenticationReader.authenticate(token);
+                            authenticationReader.authenticate(header.substring(
+                                    BearerTokenExtractorUtil.start(token), BearerTokenExtractorUtil.end(token)));
 
                     if (authentication == null || !authentication.isAuthenticated()) {
                         throw Status.UNAUTHENTICATED
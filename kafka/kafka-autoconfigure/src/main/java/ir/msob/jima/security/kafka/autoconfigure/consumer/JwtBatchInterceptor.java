@@ -0,0 +1,105 @@
+package ir.msob.jima.security.kafka.autoconfigure.consumer;
+
+import ir.msob.jima.platform.api.logger.Logger;
+import ir.msob.jima.platform.api.logger.LoggerFactory;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.BatchInterceptor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.*;
+
+/**
+ * {@link BatchInterceptor} that authenticates the records of a batch from their bearer tokens.
+ * <p>
+ * Each distinct token of the batch is verified once, in parallel with the others, and the result is
+ * exposed per record through {@link KafkaSecurityContext}.
+ *
+ * @author Yaqub Abdi
+ */
+public class JwtBatchInterceptor<K, V> implements BatchInterceptor<K, V> {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtBatchInterceptor.class);
+
+    private final KafkaTokenAuthenticator authenticator;
+    private final boolean rejectUnauthenticated;
+
+    public JwtBatchInterceptor(KafkaTokenAuthenticator authenticator, boolean rejectUnauthenticated) {
+        this.authenticator = authenticator;
+        this.rejectUnauthenticated = rejectUnauthenticated;
+    }
+
+    @Override
+    public ConsumerRecords<K, V> intercept(ConsumerRecords<K, V> records, Consumer<K, V> consumer) {
+        Map<ConsumerRecord<?, ?>, String> tokens = new IdentityHashMap<>(records.count());
+        for (ConsumerRecord<K, V> record : records) {
+            String token = authenticator.token(record);
+            if (token != null) {
+                tokens.put(record, token);
+            }
+        }
+        if (tokens.isEmpty()) {
+            return records;
+        }
+
+        Map<String, Authentication> authentications = authenticator.authenticateAll(new HashSet<>(tokens.values()));
+        Map<ConsumerRecord<?, ?>, Authentication> byRecord = new IdentityHashMap<>(tokens.size());
+        tokens.forEach((record, token) -> {
+            Authentication authentication = authentications.get(token);
+            if (authentication != null) {
+                byRecord.put(record, authentication);
+            }
+        });
+        KafkaSecurityContext.setBatch(byRecord);
+        if (authentications.size() == 1 && byRecord.size() == records.count()) {
+            SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+            securityContext.setAuthentication(authentications.values().iterator().next());
+            SecurityContextHolder.setContext(securityContext);
+        }
+
+        if (rejectUnauthenticated && byRecord.size() < tokens.size()) {
+            return authenticatedOnly(records, tokens, byRecord);
+        }
+        return records;
+    }
+
+    private ConsumerRecords<K, V> authenticatedOnly(ConsumerRecords<K, V> records
+            , Map<ConsumerRecord<?, ?>, String> tokens
+            , Map<ConsumerRecord<?, ?>, Authentication> byRecord) {
+        Map<TopicPartition, List<ConsumerRecord<K, V>>> accepted = new HashMap<>();
+        for (TopicPartition partition : records.partitions()) {
+            List<ConsumerRecord<K, V>> partitionRecords = new ArrayList<>();
+            for (ConsumerRecord<K, V> record : records.records(partition)) {
+                if (!tokens.containsKey(record) || byRecord.containsKey(record)) {
+                    partitionRecords.add(record);
+                } else {
+                    logger.warn("Kafka record rejected, invalid token: topic {}, partition {}, offset {}",
+                            record.topic(), record.partition(), record.offset());
+                }
+            }
+            if (!partitionRecords.isEmpty()) {
+                accepted.put(partition, partitionRecords);
+            }
+        }
+        return new ConsumerRecords<>(accepted, records.nextOffsets());
+    }
+
+    @Override
+    public void success(ConsumerRecords<K, V> records, Consumer<K, V> consumer) {
+        KafkaSecurityContext.clear();
+    }
+
+    @Override
+    public void failure(ConsumerRecords<K, V> records, Exception exception, Consumer<K, V> consumer) {
+        KafkaSecurityContext.clear();
+    }
+
+    @Override
+    public void clearThreadState(Consumer<?, ?> consumer) {
+        KafkaSecurityContext.clear();
+    }
+}
@@ -0,0 +1,91 @@
+package ir.msob.jima.security.kafka.autoconfigure.consumer;
+
+import ir.msob.jima.platform.api.logger.Logger;
+import ir.msob.jima.platform.api.logger.LoggerFactory;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.RecordInterceptor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link RecordInterceptor} that authenticates each record from its bearer token and populates the
+ * {@link SecurityContextHolder} while the listener runs.
+ * <p>
+ * Results are remembered for the records of the current poll, so a token repeated across the poll is
+ * verified once. The remembered results are dropped when the next poll starts, and a remembered
+ * authentication is checked again for expiry before each reuse.
+ *
+ * @author Yaqub Abdi
+ */
+public class JwtRecordInterceptor<K, V> implements RecordInterceptor<K, V> {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtRecordInterceptor.class);
+    /**
+     * Upper bound of remembered tokens, in case the container does not clear them after each poll.
+     */
+    private static final int MAXIMUM_POLL_TOKENS = 1_024;
+
+    private final KafkaTokenAuthenticator authenticator;
+    private final boolean rejectUnauthenticated;
+    private final ThreadLocal<Map<String, Authentication>> pollTokens = ThreadLocal.withInitial(HashMap::new);
+
+    public JwtRecordInterceptor(KafkaTokenAuthenticator authenticator, boolean rejectUnauthenticated) {
+        this.authenticator = authenticator;
+        this.rejectUnauthenticated = rejectUnauthenticated;
+    }
+
+    @Override
+    public ConsumerRecord<K, V> intercept(ConsumerRecord<K, V> record, Consumer<K, V> consumer) {
+        String token = authenticator.token(record);
+        if (token == null) {
+            return record;
+        }
+
+        Map<String, Authentication> tokens = pollTokens.get();
+        Authentication authentication;
+        if (tokens.containsKey(token) && authenticator.isStillValid(tokens.get(token))) {
+            authentication = tokens.get(token);
+        } else {
+            if (tokens.size() >= MAXIMUM_POLL_TOKENS) {
+                tokens.clear();
+            }
+            authentication = authenticator.authenticate(token);
+            tokens.put(token, authentication);
+        }
+
+        if (authentication == null) {
+            if (rejectUnauthenticated) {
+                logger.warn("Kafka record rejected, invalid token: topic {}, partition {}, offset {}",
+                        record.topic(), record.partition(), record.offset());
+                return null;
+            }
+            return record;
+        }
+
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        securityContext.setAuthentication(authentication);
+        SecurityContextHolder.setContext(securityContext);
+        return record;
+    }
+
+    @Override
+    public void setupThreadState(Consumer<?, ?> consumer) {
+        pollTokens.get().clear();
+    }
+
+    @Override
+    public void afterRecord(ConsumerRecord<K, V> record, Consumer<K, V> consumer) {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Override
+    public void clearThreadState(Consumer<?, ?> consumer) {
+        pollTokens.remove();
+        SecurityContextHolder.clearContext();
+    }
+}
@@ -0,0 +1,46 @@
+package ir.msob.jima.security.kafka.autoconfigure.consumer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.core.jwt.JwtRoleConverter;
+import ir.msob.jima.security.core.metrics.TimedJwtDecoder;
+import ir.msob.jima.security.core.revocation.RevocationList;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+/**
+ * Spring configuration of the authentication of consumed Kafka records.
+ * <p>
+ * Enabled by {@code jima.security.kafka.consumer-authentication}. Spring Boot applies the interceptors
+ * to the auto-configured listener container factory: the record interceptor to record listeners and the
+ * batch interceptor to batch listeners.
+ *
+ * @author Yaqub Abdi
+ */
+@AutoConfiguration
+@ConditionalOnProperty(prefix = "jima.security.kafka", name = "consumer-authentication", havingValue = "true")
+public class KafkaConsumerSecurityAutoConfiguration {
+
+    @Bean
+    public KafkaTokenAuthenticator kafkaTokenAuthenticator(JwtDecoder jwtDecoder, JwtRoleConverter jwtRoleConverter
+            , SecurityProperties securityProperties, ObjectProvider<MeterRegistry> meterRegistry
+            , ObjectProvider<RevocationList> revocationList) {
+        return new KafkaTokenAuthenticator(TimedJwtDecoder.wrap(jwtDecoder, meterRegistry.getIfAvailable(), "kafka")
+                , jwtRoleConverter, securityProperties.getKafka(), revocationList.getIfAvailable());
+    }
+
+    @Bean
+    public JwtRecordInterceptor<Object, Object> jwtRecordInterceptor(KafkaTokenAuthenticator kafkaTokenAuthenticator
+            , SecurityProperties securityProperties) {
+        return new JwtRecordInterceptor<>(kafkaTokenAuthenticator, securityProperties.getKafka().isRejectUnauthenticated());
+    }
+
+    @Bean
+    public JwtBatchInterceptor<Object, Object> jwtBatchInterceptor(KafkaTokenAuthenticator kafkaTokenAuthenticator
+            , SecurityProperties securityProperties) {
+        return new JwtBatchInterceptor<>(kafkaTokenAuthenticator, securityProperties.getKafka().isRejectUnauthenticated());
+    }
+}
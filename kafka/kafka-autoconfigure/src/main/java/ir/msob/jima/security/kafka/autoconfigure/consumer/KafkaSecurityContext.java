@@ -0,0 +1,47 @@
+package ir.msob.jima.security.kafka.autoconfigure.consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+
+/**
+ * Exposes the authentication of consumed records to {@code @KafkaListener} methods.
+ * <p>
+ * Record listeners find it in the {@link SecurityContextHolder}. Batch listeners look it up per record
+ * with {@link #getAuthentication(ConsumerRecord)}; the holder is also populated when every record of the
+ * batch carries the same principal.
+ *
+ * @author Yaqub Abdi
+ */
+public class KafkaSecurityContext {
+
+    private static final ThreadLocal<Map<ConsumerRecord<?, ?>, Authentication>> BATCH = new ThreadLocal<>();
+
+    private KafkaSecurityContext() {
+    }
+
+    /**
+     * Returns the authentication of a record being processed on the current thread.
+     *
+     * @param record the record
+     * @return the authentication, or {@code null} when the record is unauthenticated
+     */
+    public static Authentication getAuthentication(ConsumerRecord<?, ?> record) {
+        Map<ConsumerRecord<?, ?>, Authentication> batch = BATCH.get();
+        if (batch != null) {
+            return batch.get(record);
+        }
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    static void setBatch(Map<ConsumerRecord<?, ?>, Authentication> authentications) {
+        BATCH.set(authentications);
+    }
+
+    static void clear() {
+        BATCH.remove();
+        SecurityContextHolder.clearContext();
+    }
+}
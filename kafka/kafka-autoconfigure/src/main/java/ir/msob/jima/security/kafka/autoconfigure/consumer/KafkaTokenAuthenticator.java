@@ -0,0 +1,199 @@
+package ir.msob.jima.security.kafka.autoconfigure.consumer;
+
+import ir.msob.jima.platform.api.logger.Logger;
+import ir.msob.jima.platform.api.logger.LoggerFactory;
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.api.util.BearerTokenExtractorUtil;
+import ir.msob.jima.security.core.jwt.JwtRoleConverter;
+import ir.msob.jima.security.core.revocation.RevocationList;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Verifies the bearer tokens carried in Kafka record headers.
+ * <p>
+ * {@link #authenticateAll(Collection)} verifies each distinct token once, spreading the work of a batch
+ * across a fixed pool of verification threads. The pool's queue is bounded; when it is full the polling
+ * thread verifies the token itself. A token that fails verification for any reason, or is not verified
+ * within the verification timeout, only leaves its own records unauthenticated.
+ *
+ * @author Yaqub Abdi
+ */
+public class KafkaTokenAuthenticator implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(KafkaTokenAuthenticator.class);
+    /**
+     * Queued verifications per verification thread.
+     */
+    private static final int QUEUE_CAPACITY_PER_THREAD = 64;
+
+    private final JwtDecoder jwtDecoder;
+    private final JwtRoleConverter jwtRoleConverter;
+    private final String tokenHeader;
+    private final Duration verificationTimeout;
+    private final RevocationList revocationList;
+    private final ThreadPoolExecutor executor;
+
+    public KafkaTokenAuthenticator(JwtDecoder jwtDecoder, JwtRoleConverter jwtRoleConverter
+            , SecurityProperties.KafkaProperties properties) {
+        this(jwtDecoder, jwtRoleConverter, properties, null);
+    }
+
+    /**
+     * @param revocationList the revocation list consulted before reusing a verified authentication, may be
+     *                       {@code null}
+     */
+    public KafkaTokenAuthenticator(JwtDecoder jwtDecoder, JwtRoleConverter jwtRoleConverter
+            , SecurityProperties.KafkaProperties properties, RevocationList revocationList) {
+        this.jwtDecoder = jwtDecoder;
+        this.jwtRoleConverter = jwtRoleConverter;
+        this.tokenHeader = properties.getTokenHeader();
+        this.verificationTimeout = properties.getVerificationTimeout();
+        this.revocationList = revocationList;
+        this.executor = properties.getVerificationThreads() > 1
+                ? verificationExecutor(properties.getVerificationThreads())
+                : null;
+    }
+
+    private static ThreadPoolExecutor verificationExecutor(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS
+                , new ArrayBlockingQueue<>(threads * QUEUE_CAPACITY_PER_THREAD), runnable -> {
+            Thread thread = new Thread(runnable, "jima-kafka-auth-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Reads the bearer token of a record.
+     *
+     * @param record the record
+     * @return the token, or {@code null} when the record carries none
+     */
+    public String token(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(tokenHeader);
+        if (header == null || header.value() == null) {
+            return null;
+        }
+        byte[] value = header.value();
+        long token = BearerTokenExtractorUtil.locate(value);
+        if (token == BearerTokenExtractorUtil.NOT_FOUND) {
+            return null;
+        }
+        int start = BearerTokenExtractorUtil.start(token);
+        return new String(value, start, BearerTokenExtractorUtil.end(token) - start, StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Verifies a token.
+     *
+     * @param token the token
+     * @return the authentication, or {@code null} when the token is invalid
+     */
+    public Authentication authenticate(String token) {
+        try {
+            Jwt jwt = jwtDecoder.decode(token);
+            return new JwtAuthenticationToken(jwt, jwtRoleConverter.convert(jwt));
+        } catch (JwtException e) {
+            logger.warn("Kafka record token validation failed: {}", e.getMessage());
+            return null;
+        } catch (RuntimeException e) {
+            logger.error("Kafka record token could not be verified: {}", e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Tells whether a previously verified authentication may still be reused.
+     *
+     * @param authentication the authentication returned by {@link #authenticate(String)}
+     * @return {@code false} when it is missing, or its token has expired or been revoked
+     */
+    public boolean isStillValid(Authentication authentication) {
+        if (!(authentication instanceof JwtAuthenticationToken jwtAuthentication)) {
+            return authentication != null;
+        }
+        Jwt jwt = jwtAuthentication.getToken();
+        Instant expiresAt = jwt.getExpiresAt();
+        return (expiresAt == null || Instant.now().isBefore(expiresAt))
+                && (revocationList == null || !revocationList.isRevoked(jwt.getClaims()));
+    }
+
+    /**
+     * Verifies distinct tokens, in parallel when there are several of them.
+     *
+     * @param tokens the distinct tokens
+     * @return the authentication of every valid token
+     */
+    public Map<String, Authentication> authenticateAll(Collection<String> tokens) {
+        Map<String, Authentication> authentications = HashMap.newHashMap(tokens.size());
+        if (executor == null || tokens.size() < 2) {
+            for (String token : tokens) {
+                Authentication authentication = authenticate(token);
+                if (authentication != null) {
+                    authentications.put(token, authentication);
+                }
+            }
+            return authentications;
+        }
+
+        List<String> pending = List.copyOf(tokens);
+        List<CompletableFuture<Authentication>> futures = new ArrayList<>(pending.size());
+        for (String token : pending) {
+            futures.add(CompletableFuture.supplyAsync(() -> authenticate(token), executor));
+        }
+        long deadline = System.nanoTime() + verificationTimeout.toNanos();
+        for (int i = 0; i < pending.size(); i++) {
+            Authentication authentication = await(futures.get(i), deadline);
+            if (authentication != null) {
+                authentications.put(pending.get(i), authentication);
+            }
+        }
+        return authentications;
+    }
+
+    private static Authentication await(CompletableFuture<Authentication> future, long deadline) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            logger.warn("Kafka record token verification timed out");
+            return null;
+        } catch (ExecutionException e) {
+            logger.error("Kafka record token could not be verified: {}", e.getCause().toString());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return null;
+        }
+    }
+
+    /**
+     * Shuts the verification pool down, if any.
+     */
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package ir.msob.jima.security.kafka.autoconfigure.jwt;
 
 import ir.msob.jima.security.core.jwt.JwtRoleConverter;
+import io.micrometer.core.instrument.MeterRegistry;
+import ir.msob.jima.security.reactive.metrics.TimedReactiveJwtDecoder;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
@@ -19,16 +23,20 @@ public class JwtReactiveAuthenticationManagerAutoConfiguration {
      *
      * @param decoder          The ReactiveJwtDecoder for decoding JWTs.
      * @param jwtRoleConverter The JwtRoleConverter for converting JWT roles to authorities.
+     * @param meterRegistry    The MeterRegistry timing decoding with the {@code kafka} transport tag, if any.
      * @return An instance of JwtReactiveAuthenticationManager configured with the provided decoder and converter.
      */
     @Bean
-    public JwtReactiveAuthenticationManager jwtReactiveAuthenticationManager(ReactiveJwtDecoder decoder, JwtRoleConverter jwtRoleConverter) {
+    @ConditionalOnProperty(prefix = "jima.security.introspection", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public JwtReactiveAuthenticationManager jwtReactiveAuthenticationManager(ReactiveJwtDecoder decoder, JwtRoleConverter jwtRoleConverter
+            , ObjectProvider<MeterRegistry> meterRegistry) {
         // Configure JwtAuthenticationConverter with the provided JwtRoleConverter
         JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
         converter.setJwtGrantedAuthoritiesConverter(jwtRoleConverter);
 
         // Configure JwtReactiveAuthenticationManager with the provided decoder and converter
-        JwtReactiveAuthenticationManager manager = new JwtReactiveAuthenticationManager(decoder);
+        JwtReactiveAuthenticationManager manager = new JwtReactiveAuthenticationManager(
+                TimedReactiveJwtDecoder.wrap(decoder, meterRegistry.getIfAvailable(), "kafka"));
         manager.setJwtAuthenticationConverter(new ReactiveJwtAuthenticationConverterAdapter(converter));
 
         return manager;
@@ -0,0 +1,98 @@
+package ir.msob.jima.security.kafka.autoconfigure.producer;
+
+import ir.msob.jima.platform.api.logger.Logger;
+import ir.msob.jima.platform.api.logger.LoggerFactory;
+import ir.msob.jima.platform.api.security.BaseTokenService;
+import ir.msob.jima.security.reactive.token.CachedTokenSource;
+import org.apache.kafka.clients.producer.ProducerInterceptor;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link ProducerInterceptor} that adds the service token of a {@link BaseTokenService} as a bearer
+ * header of outgoing records.
+ * <p>
+ * The header is built once per token and the same instance, with the same value bytes, is added to
+ * every record until the token changes. The token comes from a {@link CachedTokenSource} refreshed in
+ * the background, so sending never waits for the token endpoint. Records sent while no token is available
+ * either go out without the header, with a warning at most every {@value #WARNING_INTERVAL_SECONDS}
+ * seconds, or, when rejecting unauthenticated records, fail with an {@link IllegalStateException}.
+ * Records that already carry the header are left untouched.
+ *
+ * @author Yaqub Abdi
+ */
+public class BearerTokenProducerInterceptor<K, V> implements ProducerInterceptor<K, V> {
+
+    private static final Logger logger = LoggerFactory.getLogger(BearerTokenProducerInterceptor.class);
+    static final long WARNING_INTERVAL_SECONDS = 10;
+    private static final long WARNING_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(WARNING_INTERVAL_SECONDS);
+
+    private final String tokenHeader;
+    private final boolean rejectUnauthenticated;
+    private final CachedTokenSource<Header> tokenSource;
+    private final AtomicLong unauthenticated = new AtomicLong();
+    private final AtomicLong nextWarning = new AtomicLong(System.nanoTime());
+
+    public BearerTokenProducerInterceptor(BaseTokenService tokenService, String tokenHeader, Duration refreshBefore) {
+        this(tokenService, tokenHeader, refreshBefore, false);
+    }
+
+    /**
+     * @param rejectUnauthenticated whether records are refused instead of sent without a token
+     */
+    public BearerTokenProducerInterceptor(BaseTokenService tokenService, String tokenHeader, Duration refreshBefore
+            , boolean rejectUnauthenticated) {
+        this.tokenHeader = tokenHeader;
+        this.rejectUnauthenticated = rejectUnauthenticated;
+        this.tokenSource = new CachedTokenSource<>(tokenService, refreshBefore,
+                token -> new RecordHeader(tokenHeader, ("Bearer " + token).getBytes(StandardCharsets.US_ASCII)));
+        this.tokenSource.refresh();
+    }
+
+    @Override
+    public ProducerRecord<K, V> onSend(ProducerRecord<K, V> record) {
+        if (record.headers().lastHeader(tokenHeader) != null) {
+            return record;
+        }
+        Header header = tokenSource.getIfValid();
+        if (header == null) {
+            if (rejectUnauthenticated) {
+                throw new IllegalStateException("No service token available, record to " + record.topic() + " refused");
+            }
+            warnUnauthenticated(record.topic());
+            return record;
+        }
+        record.headers().add(header);
+        return record;
+    }
+
+    private void warnUnauthenticated(String topic) {
+        long count = unauthenticated.incrementAndGet();
+        long now = System.nanoTime();
+        long next = nextWarning.get();
+        if (now - next >= 0 && nextWarning.compareAndSet(next, now + WARNING_INTERVAL_NANOS)) {
+            unauthenticated.addAndGet(-count);
+            logger.warn("No service token available, {} record(s) sent without {} header, last to {}", count, tokenHeader, topic);
+        }
+    }
+
+    @Override
+    public void onAcknowledgement(RecordMetadata metadata, Exception exception) {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+    }
+}
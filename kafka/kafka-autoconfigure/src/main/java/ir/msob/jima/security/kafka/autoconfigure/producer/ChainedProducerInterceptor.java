@@ -0,0 +1,49 @@
+package ir.msob.jima.security.kafka.autoconfigure.producer;
+
+import org.apache.kafka.clients.producer.ProducerInterceptor;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+
+import java.util.Map;
+
+/**
+ * Runs the producer interceptor a {@code KafkaTemplate} already had, then the bearer token interceptor.
+ * <p>
+ * Unlike Spring Kafka's {@code CompositeProducerInterceptor}, exceptions of {@code onSend} are not
+ * swallowed, so a bearer token interceptor rejecting unauthenticated records still fails the send.
+ *
+ * @author Yaqub Abdi
+ */
+class ChainedProducerInterceptor<K, V> implements ProducerInterceptor<K, V> {
+
+    private final ProducerInterceptor<K, V> first;
+    private final ProducerInterceptor<K, V> second;
+
+    ChainedProducerInterceptor(ProducerInterceptor<K, V> first, ProducerInterceptor<K, V> second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    @Override
+    public ProducerRecord<K, V> onSend(ProducerRecord<K, V> record) {
+        return second.onSend(first.onSend(record));
+    }
+
+    @Override
+    public void onAcknowledgement(RecordMetadata metadata, Exception exception) {
+        first.onAcknowledgement(metadata, exception);
+        second.onAcknowledgement(metadata, exception);
+    }
+
+    @Override
+    public void close() {
+        first.close();
+        second.close();
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+        first.configure(configs);
+        second.configure(configs);
+    }
+}
@@ -0,0 +1,74 @@
+package ir.msob.jima.security.kafka.autoconfigure.producer;
+
+import ir.msob.jima.platform.api.logger.Logger;
+import ir.msob.jima.platform.api.logger.LoggerFactory;
+import ir.msob.jima.platform.api.security.BaseTokenService;
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import org.apache.kafka.clients.producer.ProducerInterceptor;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.core.KafkaTemplate;
+
+/**
+ * Spring configuration of the service token stamped on produced Kafka records.
+ * <p>
+ * Enabled by {@code jima.security.kafka.producer-authentication}; the interceptor is installed on every
+ * {@link KafkaTemplate} bean, after any producer interceptor already set on it, or replacing it when the
+ * template's interceptor cannot be read.
+ *
+ * @author Yaqub Abdi
+ */
+@AutoConfiguration
+@ConditionalOnProperty(prefix = "jima.security.kafka", name = "producer-authentication", havingValue = "true")
+public class KafkaProducerSecurityAutoConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(KafkaProducerSecurityAutoConfiguration.class);
+
+    @Bean
+    static BeanPostProcessor bearerTokenKafkaTemplatePostProcessor(ObjectProvider<BearerTokenProducerInterceptor<Object, Object>> interceptor) {
+        return new BeanPostProcessor() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof KafkaTemplate<?, ?> kafkaTemplate) {
+                    ProducerInterceptor<Object, Object> bearerToken = interceptor.getObject();
+                    ProducerInterceptor<Object, Object> existing = existingInterceptor(kafkaTemplate, beanName);
+                    if (existing != null && existing != bearerToken) {
+                        logger.info("KafkaTemplate {} already has a producer interceptor, chaining the bearer token interceptor after it", beanName);
+                        bearerToken = new ChainedProducerInterceptor<>(existing, bearerToken);
+                    }
+                    ((KafkaTemplate<Object, Object>) kafkaTemplate).setProducerInterceptor(bearerToken);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * KafkaTemplate has no getter for its interceptor, so the field is read directly. If a spring-kafka
+     * version renames it, the bearer token interceptor is installed without chaining.
+     */
+    @SuppressWarnings("unchecked")
+    private static ProducerInterceptor<Object, Object> existingInterceptor(KafkaTemplate<?, ?> kafkaTemplate, String beanName) {
+        try {
+            return (ProducerInterceptor<Object, Object>) new DirectFieldAccessor(kafkaTemplate).getPropertyValue("producerInterceptor");
+        } catch (BeansException | ClassCastException e) {
+            logger.warn("Cannot read the producer interceptor of KafkaTemplate {}, installing the bearer token interceptor"
+                    + " without chaining; an interceptor set before will be replaced: {}", beanName, e.getMessage());
+            return null;
+        }
+    }
+
+    @Bean
+    public BearerTokenProducerInterceptor<Object, Object> bearerTokenProducerInterceptor(BaseTokenService tokenService
+            , SecurityProperties securityProperties) {
+        return new BearerTokenProducerInterceptor<>(tokenService, securityProperties.getKafka().getTokenHeader()
+                , securityProperties.getKafka().getProducerTokenRefreshBefore()
+                , securityProperties.getKafka().isProducerRejectUnauthenticated());
+    }
+}
@@ -0,0 +1,106 @@
+package ir.msob.jima.security.kafka.autoconfigure.revocation;
+
+import ir.msob.jima.platform.api.logger.Logger;
+import ir.msob.jima.platform.api.logger.LoggerFactory;
+import ir.msob.jima.security.core.revocation.RevocationDelta;
+import ir.msob.jima.security.core.revocation.RevocationFeed;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.kafka.core.ConsumerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+
+/**
+ * {@link RevocationFeed} consuming revocation deltas from a Kafka topic.
+ * <p>
+ * Every instance reads the whole topic with its own consumer group, from the beginning, so the list is
+ * complete after a restart; a compacted topic keeps that replay short. A record either carries a
+ * {@code <kind>:<id>} key, where a value revokes and a tombstone lifts the revocation, or no key and a
+ * delta line as its value (see {@link RevocationDelta#parse(String)}).
+ *
+ * @author Yaqub Abdi
+ */
+public class KafkaRevocationFeed implements RevocationFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(KafkaRevocationFeed.class);
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+
+    private final ConsumerFactory<?, ?> consumerFactory;
+    private final String topic;
+    private volatile boolean running;
+    private volatile Consumer<?, ?> consumer;
+    private Thread thread;
+
+    public KafkaRevocationFeed(ConsumerFactory<?, ?> consumerFactory, String topic) {
+        this.consumerFactory = consumerFactory;
+        this.topic = topic;
+    }
+
+    private static String text(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : value.toString();
+    }
+
+    @Override
+    public synchronized void start(java.util.function.Consumer<RevocationDelta> listener) {
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        overrides.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        overrides.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        overrides.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        consumer = consumerFactory.createConsumer("jima-revocation-" + UUID.randomUUID(), null, null, overrides);
+        running = true;
+        thread = new Thread(() -> poll(listener), "jima-revocation-kafka");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void poll(java.util.function.Consumer<RevocationDelta> listener) {
+        try (Consumer<?, ?> kafkaConsumer = consumer) {
+            kafkaConsumer.subscribe(List.of(topic));
+            while (running) {
+                for (ConsumerRecord<?, ?> record : kafkaConsumer.poll(POLL_TIMEOUT)) {
+                    deliver(record, listener);
+                }
+            }
+        } catch (WakeupException e) {
+            // Closed.
+        } catch (RuntimeException e) {
+            logger.error("Revocation feed of topic {} stopped", topic, e);
+        }
+    }
+
+    private void deliver(ConsumerRecord<?, ?> record, java.util.function.Consumer<RevocationDelta> listener) {
+        try {
+            String key = text(record.key());
+            String value = text(record.value());
+            RevocationDelta delta = key != null
+                    ? RevocationDelta.of(key, value != null)
+                    : value != null ? RevocationDelta.parse(value) : null;
+            if (delta != null) {
+                listener.accept(delta);
+            }
+        } catch (IllegalArgumentException e) {
+            logger.warn("Skipping revocation record at {}-{}@{}: {}", record.topic(), record.partition(), record.offset()
+                    , e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        Consumer<?, ?> kafkaConsumer = consumer;
+        if (kafkaConsumer != null) {
+            kafkaConsumer.wakeup();
+        }
+    }
+}
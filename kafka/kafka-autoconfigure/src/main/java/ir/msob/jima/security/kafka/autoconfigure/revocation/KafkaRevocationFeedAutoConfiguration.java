@@ -0,0 +1,25 @@
+package ir.msob.jima.security.kafka.autoconfigure.revocation;
+
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.core.ConsumerFactory;
+
+/**
+ * Spring configuration of the Kafka feed of the token revocation list.
+ * <p>
+ * Active when revocation is enabled and {@code jima.security.revocation.kafka-topic} is set; the feed uses
+ * the application's {@link ConsumerFactory} with string deserializers and a private consumer group.
+ *
+ * @author Yaqub Abdi
+ */
+@AutoConfiguration
+@ConditionalOnProperty(prefix = "jima.security.revocation", name = {"enabled", "kafka-topic"})
+public class KafkaRevocationFeedAutoConfiguration {
+
+    @Bean
+    public KafkaRevocationFeed kafkaRevocationFeed(ConsumerFactory<?, ?> consumerFactory, SecurityProperties securityProperties) {
+        return new KafkaRevocationFeed(consumerFactory, securityProperties.getRevocation().getKafkaTopic());
+    }
+}
@@ -6,6 +6,7 @@ import ir.msob.jima.platform.api.security.BaseClaimKeyValue;
 import ir.msob.jima.platform.api.security.BaseUser;
 import ir.msob.jima.platform.api.security.BaseUserService;
 import ir.msob.jima.platform.testing.security.ProjectUser;
+import ir.msob.jima.security.api.token.ClaimPath;
 
 import java.util.*;
 
@@ -15,6 +16,8 @@ import java.util.*;
  */
 
 public interface BaseKeycloakProjectUserService extends BaseUserService {
+    ClaimPath REALM_ROLES = ClaimPath.compile(ProjectClaimKey.REALM_ACCESS + "." + ProjectClaimKey.KEYCLOAK_ROLES);
+
     ProjectUser SYSTEM_USER = ProjectUser.builder()
             .id("00000000-0000-0000-0000-000000000000")
             .sessionId("00000000-0000-0000-0000-000000000000")
@@ -25,7 +28,8 @@ public interface BaseKeycloakProjectUserService extends BaseUserService {
 
     @Override
     default <USER extends BaseUser> USER getUser(Map<String, Object> claims) {
-        SortedSet<String> roles = new TreeSet<>((List<String>) ((Map<String, Map<String, List<String>>>) claims.get(ProjectClaimKey.REALM_ACCESS)).get(ProjectClaimKey.KEYCLOAK_ROLES));
+        SortedSet<String> roles = new TreeSet<>();
+        REALM_ROLES.forEach(claims, roles::add);
         return (USER) ProjectUser.builder()
                 .id(String.valueOf(claims.get(BaseClaimKey.ID)))
                 .sessionId(String.valueOf(claims.get(BaseClaimKey.SESSION_ID)))
@@ -1,9 +1,12 @@
 package ir.msob.jima.security.restful.autoconfigure.client;
 
-import ir.msob.jima.platform.api.logger.Logger;
-import ir.msob.jima.platform.api.logger.LoggerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
 import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.reactive.client.ExchangeLoggingFilter;
+import ir.msob.jima.security.reactive.client.RegistrationRoutingExchangeFilter;
+import ir.msob.jima.security.reactive.token.RegistrationTokenCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.cloud.client.loadbalancer.LoadBalanced;
@@ -13,11 +16,11 @@ import org.springframework.security.oauth2.client.AuthorizedClientServiceReactiv
 import org.springframework.security.oauth2.client.web.reactive.function.client.ServerOAuth2AuthorizedClientExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Mono;
 
 /**
  * This configuration class, WebClientAutoConfiguration, is responsible for configuring and customizing the behavior of WebClient instances.
- * It sets up OAuth2 client integration, load balancing, and logging of requests.
+ * It sets up OAuth2 client integration, load balancing, and sampled logging and timing of requests
+ * (see {@link ExchangeLoggingFilter}).
  * <p>
  * Author: Yaqub Abdi
  */
@@ -26,21 +29,8 @@ import reactor.core.publisher.Mono;
 @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
 public class WebClientAutoConfiguration {
 
-    private static final Logger logger = LoggerFactory.getLogger(WebClientAutoConfiguration.class);
     private final SecurityProperties securityProperties;
 
-    /**
-     * Create an ExchangeFilterFunction for logging HTTP requests.
-     *
-     * @return The ExchangeFilterFunction that logs requests.
-     */
-    private static ExchangeFilterFunction logRequest() {
-        return ExchangeFilterFunction.ofRequestProcessor(clientRequest -> {
-            logger.info("Request: " + clientRequest.method() + " " + clientRequest.url());
-            return Mono.just(clientRequest);
-        });
-    }
-
     /**
      * Create a primary WebClient instance for making HTTP requests.
      *
@@ -56,20 +46,36 @@ public class WebClientAutoConfiguration {
     /**
      * Create a primary load-balanced WebClient.Builder with OAuth2 integration.
      *
+     * When client routing is enabled, each request is authorized with the client registration routed to
+     * its host instead of the default one.
+     *
      * @param authorizedClientManager The manager for OAuth2 authorized clients.
+     * @param meterRegistry           The meter registry request durations are recorded in, if any.
+     * @param registrationTokenCache  The per-registration token cache of client routing, if enabled.
      * @return The load-balanced WebClient.Builder instance.
      */
     @Bean
     @Primary
     @LoadBalanced
-    public WebClient.Builder webClientBuilder(AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager authorizedClientManager) {
-        // Create a ServerOAuth2AuthorizedClientExchangeFilterFunction to handle OAuth2 integration.
-        ServerOAuth2AuthorizedClientExchangeFilterFunction oauth = new ServerOAuth2AuthorizedClientExchangeFilterFunction(authorizedClientManager);
-        oauth.setDefaultOAuth2AuthorizedClient(true);
-        oauth.setDefaultClientRegistrationId(securityProperties.getDefaultClientRegistrationId());
+    public WebClient.Builder webClientBuilder(AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager authorizedClientManager
+            , ObjectProvider<MeterRegistry> meterRegistry, ObjectProvider<RegistrationTokenCache> registrationTokenCache) {
+        ExchangeFilterFunction oauth;
+        RegistrationTokenCache tokenCache = registrationTokenCache.getIfAvailable();
+        if (tokenCache != null) {
+            // Pick the client registration per target host.
+            oauth = new RegistrationRoutingExchangeFilter(tokenCache, securityProperties.getClientRouting().getRoutes()
+                    , securityProperties.getDefaultClientRegistrationId());
+        } else {
+            // Create a ServerOAuth2AuthorizedClientExchangeFilterFunction to handle OAuth2 integration.
+            ServerOAuth2AuthorizedClientExchangeFilterFunction defaultClient = new ServerOAuth2AuthorizedClientExchangeFilterFunction(authorizedClientManager);
+            defaultClient.setDefaultOAuth2AuthorizedClient(true);
+            defaultClient.setDefaultClientRegistrationId(securityProperties.getDefaultClientRegistrationId());
+            oauth = defaultClient;
+        }
 
         return WebClient.builder()
                 .filter(oauth)  // Apply OAuth2 client integration.
-                .filters(exchangeFilterFunctions -> exchangeFilterFunctions.add(logRequest()));  // Log HTTP requests.
+                .filter(new ExchangeLoggingFilter(securityProperties.getClientLogging(), meterRegistry.getIfAvailable()
+                        , "webclient"));  // Log and time HTTP requests.
     }
 }
@@ -1,8 +1,7 @@
 package ir.msob.jima.security.restful.reactive.test.client;
 
-import ir.msob.jima.platform.api.logger.Logger;
-import ir.msob.jima.platform.api.logger.LoggerFactory;
 import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.reactive.client.ExchangeLoggingFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
@@ -12,13 +11,12 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.security.oauth2.client.AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager;
 import org.springframework.security.oauth2.client.web.reactive.function.client.ServerOAuth2AuthorizedClientExchangeFilterFunction;
 import org.springframework.test.web.reactive.server.WebTestClient;
-import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
-import reactor.core.publisher.Mono;
 
 
 /**
  * This configuration class, WebTestClientAutoConfiguration, is responsible for configuring and customizing the behavior of WebClient instances.
- * It sets up OAuth2 client integration, load balancing, and logging of requests.
+ * It sets up OAuth2 client integration, load balancing, and sampled logging of requests with the
+ * authorization header redacted (see {@link ExchangeLoggingFilter}).
  * <p>
  * Author: Yaqub Abdi
  */
@@ -27,22 +25,8 @@ import reactor.core.publisher.Mono;
 @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
 public class WebTestClientAutoConfiguration {
 
-    private static final Logger logger = LoggerFactory.getLogger(WebTestClientAutoConfiguration.class);
-
     private final SecurityProperties securityProperties;
 
-    /**
-     * Create an ExchangeFilterFunction for logging HTTP requests.
-     *
-     * @return The ExchangeFilterFunction that logs requests.
-     */
-    private static ExchangeFilterFunction logRequest() {
-        return ExchangeFilterFunction.ofRequestProcessor(clientRequest -> {
-            logger.info("REQUEST Method: {}, URL: {}, Headers: {}", clientRequest.method(), clientRequest.url(), clientRequest.headers());
-            return Mono.just(clientRequest);
-        });
-    }
-
     /**
      * Create a primary WebTestClient instance for making HTTP requests.
      *
@@ -76,6 +60,6 @@ public class WebTestClientAutoConfiguration {
                 .bindToApplicationContext(applicationContext)
                 .configureClient()
                 .filter(oauth)
-                .filters(exchangeFilterFunctions -> exchangeFilterFunctions.add(logRequest()));
+                .filter(new ExchangeLoggingFilter(securityProperties.getClientLogging(), null, "webtestclient"));
     }
 }
@@ -1,6 +1,9 @@
 package ir.msob.jima.security.restful.reactive.testing.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import ir.msob.jima.security.reactive.jwt.JwtReactiveRoleConverter;
+import ir.msob.jima.security.reactive.metrics.TimedReactiveJwtDecoder;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
@@ -10,7 +13,9 @@ import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.ReactiveJwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.introspection.ReactiveOpaqueTokenIntrospector;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 import reactor.core.publisher.Mono;
 
@@ -21,7 +26,9 @@ import reactor.core.publisher.Mono;
 public class WebSecurityAutoConfiguration {
 
     @Bean
-    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtReactiveRoleConverter jwtRoleConverter) {
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtReactiveRoleConverter jwtRoleConverter
+            , ObjectProvider<ReactiveJwtDecoder> jwtDecoder, ObjectProvider<MeterRegistry> meterRegistry
+            , ObjectProvider<ReactiveOpaqueTokenIntrospector> opaqueTokenIntrospector) {
         ReactiveJwtAuthenticationConverter jwtAuthenticationConverter = new ReactiveJwtAuthenticationConverter();
         jwtAuthenticationConverter.setJwtGrantedAuthoritiesConverter(jwtRoleConverter);
 
@@ -44,11 +51,16 @@ public class WebSecurityAutoConfiguration {
                                 .permitAll()
                                 .anyExchange().authenticated()
                 )
-                .oauth2ResourceServer(oAuth2ResourceServerSpec ->
-                        oAuth2ResourceServerSpec
-                                .jwt(jwtSpec ->
-                                        jwtSpec.jwtAuthenticationConverter(jwtAuthenticationConverter))
-                );
+                .oauth2ResourceServer(oAuth2ResourceServerSpec -> {
+                    ReactiveOpaqueTokenIntrospector introspector = opaqueTokenIntrospector.getIfAvailable();
+                    if (introspector != null) {
+                        oAuth2ResourceServerSpec.opaqueToken(opaqueTokenSpec -> opaqueTokenSpec.introspector(introspector));
+                    } else {
+                        oAuth2ResourceServerSpec.jwt(jwtSpec ->
+                                jwtSpec.jwtDecoder(TimedReactiveJwtDecoder.wrap(jwtDecoder.getObject(), meterRegistry.getIfAvailable(), "webflux"))
+                                        .jwtAuthenticationConverter(jwtAuthenticationConverter));
+                    }
+                });
         return http.build();
     }
 }
@@ -1,7 +1,10 @@
 package ir.msob.jima.security.restful.testing.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import ir.msob.jima.security.core.jwt.JwtRoleConverter;
+import ir.msob.jima.security.core.metrics.TimedJwtDecoder;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
@@ -11,7 +14,9 @@ import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.introspection.OpaqueTokenIntrospector;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 
@@ -24,7 +29,10 @@ public class WebSecurityAutoConfiguration {
     @Bean
     public SecurityFilterChain securityFilterChain(
             HttpSecurity http,
-            JwtRoleConverter jwtRoleConverter
+            JwtRoleConverter jwtRoleConverter,
+            ObjectProvider<JwtDecoder> jwtDecoder,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            ObjectProvider<OpaqueTokenIntrospector> opaqueTokenIntrospector
     ) throws Exception {
 
         JwtAuthenticationConverter jwtAuthenticationConverter = new JwtAuthenticationConverter();
@@ -53,9 +61,16 @@ public class WebSecurityAutoConfiguration {
                         ).permitAll()
                         .anyRequest().authenticated()
                 )
-                .oauth2ResourceServer(oauth2 -> oauth2
-                        .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter))
-                );
+                .oauth2ResourceServer(oauth2 -> {
+                    OpaqueTokenIntrospector introspector = opaqueTokenIntrospector.getIfAvailable();
+                    if (introspector != null) {
+                        oauth2.opaqueToken(opaqueToken -> opaqueToken.introspector(introspector));
+                    } else {
+                        oauth2.jwt(jwt -> jwt
+                                .decoder(TimedJwtDecoder.wrap(jwtDecoder.getObject(), meterRegistry.getIfAvailable(), "servlet"))
+                                .jwtAuthenticationConverter(jwtAuthenticationConverter));
+                    }
+                });
 
         return http.build();
     }
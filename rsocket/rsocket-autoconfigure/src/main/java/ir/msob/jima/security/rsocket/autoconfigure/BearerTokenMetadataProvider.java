@@ -0,0 +1,35 @@
+package ir.msob.jima.security.rsocket.autoconfigure;
+
+import ir.msob.jima.platform.api.security.BaseTokenService;
+import ir.msob.jima.security.reactive.token.CachedTokenSource;
+import org.springframework.security.rsocket.metadata.BearerTokenMetadata;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Supplies the bearer authentication metadata of RSocket requests from a cached service token.
+ * <p>
+ * One {@link BearerTokenMetadata} is built per token and swapped atomically when the token is
+ * refreshed in the background, so requests made while the token is valid get it without a token
+ * lookup or allocation.
+ *
+ * @author Yaqub Abdi
+ */
+public class BearerTokenMetadataProvider {
+
+    private final CachedTokenSource<BearerTokenMetadata> tokenSource;
+
+    public BearerTokenMetadataProvider(BaseTokenService tokenService, Duration refreshBefore) {
+        this.tokenSource = new CachedTokenSource<>(tokenService, refreshBefore, BearerTokenMetadata::new);
+    }
+
+    /**
+     * Returns the current metadata, waiting for the shared refresh only when no valid token is cached.
+     *
+     * @return a Mono emitting the metadata
+     */
+    public Mono<BearerTokenMetadata> getMetadata() {
+        return tokenSource.get();
+    }
+}
@@ -1,7 +1,14 @@
 package ir.msob.jima.security.rsocket.autoconfigure;
 
 import ir.msob.jima.security.core.jwt.JwtRoleConverter;
+import ir.msob.jima.security.rsocket.autoconfigure.connection.ConnectionAuthenticationPayloadInterceptor;
+import ir.msob.jima.security.rsocket.autoconfigure.connection.ConnectionCachingAuthenticationManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import ir.msob.jima.security.core.revocation.RevocationList;
+import ir.msob.jima.security.reactive.metrics.TimedReactiveJwtDecoder;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.messaging.rsocket.RSocketStrategies;
@@ -35,21 +42,52 @@ public class RSocketAutoConfiguration {
      *
      * @param decoder          The ReactiveJwtDecoder for decoding JWTs.
      * @param jwtRoleConverter The JwtRoleConverter for converting JWT roles to authorities.
+     * @param meterRegistry    The MeterRegistry timing decoding with the {@code rsocket} transport tag, if any.
      * @return An instance of JwtReactiveAuthenticationManager configured with the provided decoder and converter.
      */
     @Bean
-    public JwtReactiveAuthenticationManager jwtReactiveAuthenticationManager(ReactiveJwtDecoder decoder, JwtRoleConverter jwtRoleConverter) {
+    public JwtReactiveAuthenticationManager jwtReactiveAuthenticationManager(ReactiveJwtDecoder decoder, JwtRoleConverter jwtRoleConverter
+            , ObjectProvider<MeterRegistry> meterRegistry) {
         // Configure JwtAuthenticationConverter with the provided JwtRoleConverter
         JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
         converter.setJwtGrantedAuthoritiesConverter(jwtRoleConverter);
 
         // Configure JwtReactiveAuthenticationManager with the provided decoder and converter
-        JwtReactiveAuthenticationManager manager = new JwtReactiveAuthenticationManager(decoder);
+        JwtReactiveAuthenticationManager manager = new JwtReactiveAuthenticationManager(
+                TimedReactiveJwtDecoder.wrap(decoder, meterRegistry.getIfAvailable(), "rsocket"));
         manager.setJwtAuthenticationConverter(new ReactiveJwtAuthenticationConverterAdapter(converter));
 
         return manager;
     }
 
+    /**
+     * Bean definition for the authentication manager that reuses the authentication of the connection.
+     * Register it with {@code RSocketSecurity.jwt(...)} together with the
+     * {@link ConnectionAuthenticationPayloadInterceptor} ({@code RSocketSecurity.addPayloadInterceptor(...)}).
+     *
+     * @param jwtReactiveAuthenticationManager The manager verifying tokens the connection has not seen.
+     * @param revocationList                   The revocation list checked before reusing a connection's authentication, if any.
+     * @return An instance of ConnectionCachingAuthenticationManager.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "jima.security.rsocket", name = "connection-authentication", havingValue = "true")
+    public ConnectionCachingAuthenticationManager connectionCachingAuthenticationManager(JwtReactiveAuthenticationManager jwtReactiveAuthenticationManager
+            , ObjectProvider<RevocationList> revocationList) {
+        return new ConnectionCachingAuthenticationManager(jwtReactiveAuthenticationManager, revocationList.getIfAvailable());
+    }
+
+    /**
+     * Bean definition for the interceptor that keeps the SETUP authentication on the connection and
+     * rejects payloads once it has expired.
+     *
+     * @return An instance of ConnectionAuthenticationPayloadInterceptor.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "jima.security.rsocket", name = "connection-authentication", havingValue = "true")
+    public ConnectionAuthenticationPayloadInterceptor connectionAuthenticationPayloadInterceptor() {
+        return new ConnectionAuthenticationPayloadInterceptor();
+    }
+
     /**
      * Bean definition for RSocketMessageHandler.
      *
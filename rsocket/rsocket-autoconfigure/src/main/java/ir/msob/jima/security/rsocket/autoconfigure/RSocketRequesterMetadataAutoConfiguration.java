@@ -3,29 +3,46 @@ package ir.msob.jima.security.rsocket.autoconfigure;
 import io.rsocket.metadata.WellKnownMimeType;
 import ir.msob.jima.platform.api.security.BaseTokenService;
 import ir.msob.jima.platform.rsocket.api.BaseRSocketRequesterMetadata;
+import ir.msob.jima.security.api.properties.SecurityProperties;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
-import org.springframework.security.rsocket.metadata.BearerTokenMetadata;
+import org.springframework.util.MimeType;
 import org.springframework.util.MimeTypeUtils;
 
 @AutoConfiguration
 public class RSocketRequesterMetadataAutoConfiguration {
 
+    private static final MimeType AUTHENTICATION_MIME_TYPE =
+            MimeTypeUtils.parseMimeType(WellKnownMimeType.MESSAGE_RSOCKET_AUTHENTICATION.getString());
+
+    /**
+     * Provides the bearer metadata built from the cached service token.
+     *
+     * @param tokenService       The service providing the token.
+     * @param securityProperties The security properties.
+     * @return The metadata provider.
+     */
     @Bean
-    @ConditionalOnMissingBean(BaseRSocketRequesterMetadata.class)
-    public BaseRSocketRequesterMetadata rSocketRequesterMetadata(BaseTokenService tokenService) {
-        return metadataSpec -> {
-            BearerTokenMetadata token =
-                    new BearerTokenMetadata(tokenService.getToken());
+    @ConditionalOnMissingBean
+    public BearerTokenMetadataProvider bearerTokenMetadataProvider(BaseTokenService tokenService
+            , SecurityProperties securityProperties) {
+        return new BearerTokenMetadataProvider(tokenService, securityProperties.getRsocket().getTokenRefreshBefore());
+    }
 
-            metadataSpec.metadata(
-                    token,
-                    MimeTypeUtils.parseMimeType(
-                            WellKnownMimeType.MESSAGE_RSOCKET_AUTHENTICATION.getString()
-                    )
-            );
-        };
+    /**
+     * Attaches the service token as bearer authentication metadata to each request.
+     * <p>
+     * The metadata is supplied as a {@link reactor.core.publisher.Mono}, which the requester resolves while
+     * encoding the request, so obtaining the token never blocks the calling thread.
+     *
+     * @param bearerTokenMetadataProvider The provider of the cached bearer metadata.
+     * @return The requester metadata customizer.
+     */
+    @Bean
+    @ConditionalOnMissingBean(BaseRSocketRequesterMetadata.class)
+    public BaseRSocketRequesterMetadata rSocketRequesterMetadata(BearerTokenMetadataProvider bearerTokenMetadataProvider) {
+        return metadataSpec -> metadataSpec.metadata(bearerTokenMetadataProvider.getMetadata(), AUTHENTICATION_MIME_TYPE);
     }
 
-}
\ No newline at end of file
+}
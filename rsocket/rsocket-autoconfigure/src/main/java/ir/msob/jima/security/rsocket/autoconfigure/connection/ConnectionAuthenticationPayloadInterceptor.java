@@ -0,0 +1,63 @@
+package ir.msob.jima.security.rsocket.autoconfigure.connection;
+
+import org.springframework.core.Ordered;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.security.config.annotation.rsocket.PayloadInterceptorOrder;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.security.rsocket.api.PayloadExchange;
+import org.springframework.security.rsocket.api.PayloadExchangeType;
+import org.springframework.security.rsocket.api.PayloadInterceptor;
+import org.springframework.security.rsocket.api.PayloadInterceptorChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * RSocket {@link PayloadInterceptor} that keeps the authentication of a connection for its lifetime.
+ * <p>
+ * On the SETUP frame it stores the authenticated principal in a per-connection holder, which Spring
+ * Security carries in the context of every later payload of the connection; together with
+ * {@link ConnectionCachingAuthenticationManager} this makes payloads repeating the connection's token
+ * skip JWT decoding. Payloads whose effective authentication has passed its {@code exp} are rejected
+ * with {@link CredentialsExpiredException}, challenging the client to present a fresh token.
+ * <p>
+ * Runs after authentication and before authorization.
+ *
+ * @author Yaqub Abdi
+ */
+public class ConnectionAuthenticationPayloadInterceptor implements PayloadInterceptor, Ordered {
+
+    /**
+     * Context key of the per-connection authentication holder.
+     */
+    public static final String CONNECTION_AUTHENTICATION_KEY = ConnectionAuthenticationPayloadInterceptor.class.getName();
+
+    @Override
+    public Mono<Void> intercept(PayloadExchange exchange, PayloadInterceptorChain chain) {
+        return ReactiveSecurityContextHolder.getContext()
+                .mapNotNull(SecurityContext::getAuthentication)
+                .filter(JwtAuthenticationToken.class::isInstance)
+                .cast(JwtAuthenticationToken.class)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(authentication -> {
+                    if (authentication.isPresent() && ConnectionCachingAuthenticationManager.isExpired(authentication.get())) {
+                        return Mono.error(new CredentialsExpiredException("Connection token has expired"));
+                    }
+                    if (exchange.getType() == PayloadExchangeType.SETUP) {
+                        AtomicReference<JwtAuthenticationToken> connection = new AtomicReference<>(authentication.orElse(null));
+                        return chain.next(exchange)
+                                .contextWrite(context -> context.put(CONNECTION_AUTHENTICATION_KEY, connection));
+                    }
+                    return chain.next(exchange);
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return PayloadInterceptorOrder.AUTHORIZATION.getOrder() - 1;
+    }
+}
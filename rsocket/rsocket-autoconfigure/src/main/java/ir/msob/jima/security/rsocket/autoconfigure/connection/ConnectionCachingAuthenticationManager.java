@@ -0,0 +1,71 @@
+package ir.msob.jima.security.rsocket.autoconfigure.connection;
+
+import ir.msob.jima.security.core.revocation.RevocationList;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@link ReactiveAuthenticationManager} that reuses the authentication cached on the RSocket connection
+ * by {@link ConnectionAuthenticationPayloadInterceptor}.
+ * <p>
+ * A payload carrying the token the connection is already authenticated with is accepted without decoding
+ * it again, unless its token or session has been revoked since. A different token is verified by the
+ * delegate and then becomes the connection's authentication.
+ *
+ * @author Yaqub Abdi
+ */
+public class ConnectionCachingAuthenticationManager implements ReactiveAuthenticationManager {
+
+    private final ReactiveAuthenticationManager delegate;
+    private final RevocationList revocationList;
+
+    public ConnectionCachingAuthenticationManager(ReactiveAuthenticationManager delegate) {
+        this(delegate, null);
+    }
+
+    /**
+     * @param delegate       the manager verifying tokens the connection has not seen
+     * @param revocationList the revocation list consulted before reusing the connection's authentication,
+     *                       may be {@code null}
+     */
+    public ConnectionCachingAuthenticationManager(ReactiveAuthenticationManager delegate, RevocationList revocationList) {
+        this.delegate = delegate;
+        this.revocationList = revocationList;
+    }
+
+    static boolean isExpired(JwtAuthenticationToken authentication) {
+        Instant expiresAt = authentication.getToken().getExpiresAt();
+        return expiresAt != null && !Instant.now().isBefore(expiresAt);
+    }
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        if (!(authentication instanceof BearerTokenAuthenticationToken bearer)) {
+            return delegate.authenticate(authentication);
+        }
+        return Mono.deferContextual(context -> {
+            AtomicReference<JwtAuthenticationToken> connection =
+                    context.getOrDefault(ConnectionAuthenticationPayloadInterceptor.CONNECTION_AUTHENTICATION_KEY, null);
+            if (connection == null) {
+                return delegate.authenticate(authentication);
+            }
+            JwtAuthenticationToken cached = connection.get();
+            if (cached != null && !isExpired(cached) && cached.getToken().getTokenValue().equals(bearer.getToken())
+                    && (revocationList == null || !revocationList.isRevoked(cached.getToken().getClaims()))) {
+                return Mono.just(cached);
+            }
+            return delegate.authenticate(authentication)
+                    .doOnNext(authenticated -> {
+                        if (authenticated instanceof JwtAuthenticationToken jwtAuthentication) {
+                            connection.set(jwtAuthentication);
+                        }
+                    });
+        });
+    }
+}
@@ -1,7 +1,11 @@
 package ir.msob.jima.security.rsocket.reactive.testing;
 
+import ir.msob.jima.security.rsocket.autoconfigure.connection.ConnectionAuthenticationPayloadInterceptor;
+import ir.msob.jima.security.rsocket.autoconfigure.connection.ConnectionCachingAuthenticationManager;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
 import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
 import org.springframework.security.config.annotation.rsocket.EnableRSocketSecurity;
 import org.springframework.security.config.annotation.rsocket.RSocketSecurity;
@@ -13,8 +17,15 @@ import org.springframework.security.rsocket.core.PayloadSocketAcceptorIntercepto
 @EnableRSocketSecurity
 public class RSocketSecurityConfiguration {
 
+    /**
+     * With {@code jima.security.rsocket.connection-authentication} enabled, payloads repeating the token of
+     * their connection are authenticated from the connection instead of decoding the JWT again.
+     */
     @Bean
-    public PayloadSocketAcceptorInterceptor authorizationToken(RSocketSecurity rSocketSecurity, JwtReactiveAuthenticationManager authenticationManager) {
+    public PayloadSocketAcceptorInterceptor authorizationToken(RSocketSecurity rSocketSecurity, JwtReactiveAuthenticationManager authenticationManager
+            , ObjectProvider<ConnectionCachingAuthenticationManager> connectionCachingAuthenticationManager
+            , ObjectProvider<ConnectionAuthenticationPayloadInterceptor> connectionAuthenticationPayloadInterceptor) {
+        ReactiveAuthenticationManager payloadAuthenticationManager = connectionCachingAuthenticationManager.getIfAvailable();
         rSocketSecurity
                 .authorizePayload(authorize ->
                         authorize
@@ -22,10 +33,11 @@ public class RSocketSecurityConfiguration {
                                 .anyExchange().permitAll()
                 )
                 .jwt(jwtSpec ->
-                        jwtSpec.authenticationManager(authenticationManager)
+                        jwtSpec.authenticationManager(payloadAuthenticationManager != null ? payloadAuthenticationManager : authenticationManager)
                 );
+        connectionAuthenticationPayloadInterceptor.ifAvailable(rSocketSecurity::addPayloadInterceptor);
 
         return rSocketSecurity.build();
     }
 
-}
\ No newline at end of file
+}
@@ -5,6 +5,8 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -29,6 +31,86 @@ public class SecurityProperties {
     private JwtProperties refreshToken = new JwtProperties();
     private JwtProperties clientCredentialsToken = new JwtProperties();
 
+    /**
+     * Settings of the in-process issuer and verifier of service tokens signed with {@link #clientCredentialsToken}.
+     */
+    private LocalTokenProperties localToken = new LocalTokenProperties();
+
+    /**
+     * Settings of the optional cache placed in front of the JWT decoders.
+     */
+    private DecoderCacheProperties decoderCache = new DecoderCacheProperties();
+
+    /**
+     * Settings of the JWK set the decoders verify signatures with.
+     */
+    private JwksProperties jwks = new JwksProperties();
+
+    /**
+     * Settings of the proactive background refresh of client-credentials tokens.
+     */
+    private TokenRefreshProperties tokenRefresh = new TokenRefreshProperties();
+
+    /**
+     * How long a caller waits for a token that another caller is already requesting.
+     */
+    private Duration tokenAcquisitionTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Settings of the gRPC server authentication.
+     */
+    private GrpcProperties grpc = new GrpcProperties();
+
+    /**
+     * Settings of the Kafka record authentication.
+     */
+    private KafkaProperties kafka = new KafkaProperties();
+
+    /**
+     * Settings of the RSocket authentication.
+     */
+    private RSocketProperties rsocket = new RSocketProperties();
+
+    /**
+     * Settings of the claim-path based role mapping.
+     */
+    private RoleMappingProperties roleMapping = new RoleMappingProperties();
+
+    /**
+     * Settings of the propagated user-info encoding and decoding.
+     */
+    private UserInfoProperties userInfo = new UserInfoProperties();
+
+    /**
+     * Settings of the opaque-token introspection mode.
+     */
+    private IntrospectionProperties introspection = new IntrospectionProperties();
+
+    /**
+     * Settings of the in-memory token revocation list.
+     */
+    private RevocationProperties revocation = new RevocationProperties();
+
+    /**
+     * Settings of the logging and timing of outbound {@code WebClient} exchanges.
+     */
+    private ClientLoggingProperties clientLogging = new ClientLoggingProperties();
+
+    /**
+     * Settings of the per-host choice of client registration for outbound {@code WebClient} requests.
+     */
+    private ClientRoutingProperties clientRouting = new ClientRoutingProperties();
+
+    /**
+     * Settings of the token exchange used to call downstreams on behalf of the authenticated user.
+     */
+    private TokenExchangeProperties tokenExchange = new TokenExchangeProperties();
+
+    /**
+     * Settings of the client-credentials token store shared by the replicas of a service.
+     */
+    private SharedTokenStoreProperties sharedTokenStore = new SharedTokenStoreProperties();
+
 
     @Setter
     @Getter
@@ -40,4 +122,491 @@ public class SecurityProperties {
         private String algorithm = "HS256";
         private Map<String, Object> claims = Map.of("sub", DEFAULT_CLIENT_ID);
     }
+
+    /**
+     * Settings of the service tokens minted and verified in-process with the HMAC secret of
+     * {@link SecurityProperties#getClientCredentialsToken()}, for hops that do not need the identity provider.
+     */
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    @ToString
+    public static class LocalTokenProperties {
+        /**
+         * Whether the token service mints local tokens instead of requesting them from the identity provider.
+         */
+        private boolean issue = false;
+        /**
+         * Whether the JWT decoders also accept local tokens, next to the identity provider's.
+         */
+        private boolean verify = false;
+        /**
+         * The issuer of local tokens, set as {@code iss} and required when verifying.
+         */
+        private String issuer = "jima-local";
+    }
+
+    /**
+     * Settings of the cache that keeps decoded JWTs keyed by the digest of the raw token,
+     * so a token presented repeatedly is parsed and verified only once until it expires.
+     */
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    @ToString
+    public static class DecoderCacheProperties {
+        /**
+         * Whether decoded tokens are cached. Disabled by default.
+         */
+        private boolean enabled = false;
+        /**
+         * Maximum number of cached tokens.
+         */
+        private long maximumSize = 10_000;
+        /**
+         * Upper bound for the time an entry is kept; entries never outlive the token's {@code exp}.
+         */
+        private Duration maximumTtl = Duration.ofMinutes(10);
+        /**
+         * Whether cached tokens are softly referenced, letting the garbage collector evict them under memory pressure.
+         */
+        private boolean softValues = true;
+    }
+
+    /**
+     * Settings of the background refresh that renews client-credentials tokens before they expire,
+     * so no request has to wait for the token endpoint.
+     */
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    @ToString
+    public static class TokenRefreshProperties {
+        /**
+         * Whether tokens are refreshed in the background. Disabled by default.
+         */
+        private boolean enabled = false;
+        /**
+         * Fraction of the token lifetime after which it is refreshed.
+         */
+        private double refreshRatio = 0.75;
+        /**
+         * Fraction of the token lifetime used as random jitter, subtracted from the refresh time
+         * so that replicas do not refresh in lockstep.
+         */
+        private double jitterRatio = 0.1;
+        /**
+         * Minimum delay between two refreshes of the same registration.
+         */
+        private Duration minimumDelay = Duration.ofSeconds(5);
+        /**
+         * Delay before retrying a failed refresh.
+         */
+        private Duration retryDelay = Duration.ofSeconds(10);
+    }
+
+    /**
+     * Settings of the JWK set source used instead of OIDC discovery at startup.
+     * <p>
+     * When enabled, the decoders are built without any network access: keys come from the local
+     * snapshot if present, and the JWK set URI (or, failing that, the issuer's discovery document)
+     * is fetched in the background or on first use.
+     */
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    @ToString
+    public static class JwksProperties {
+        /**
+         * Whether the decoders are built from the JWK set source. Disabled by default.
+         */
+        private boolean enabled = false;
+        /**
+         * The JWK set URI. When empty, it is discovered lazily from the issuer URI.
+         */
+        private String jwkSetUri;
+        /**
+         * Path of a local JWKS file used to bootstrap the keys.
+         */
+        private String snapshotLocation;
+        /**
+         * Whether every fetched JWK set is written back to the snapshot location.
+         */
+        private boolean persistSnapshot = false;
+        /**
+         * The accepted signature algorithms.
+         */
+        private List<String> jwsAlgorithms = List.of("RS256");
+        /**
+         * Connect timeout of remote fetches.
+         */
+        private Duration connectTimeout = Duration.ofSeconds(5);
+        /**
+         * Read timeout of remote fetches.
+         */
+        private Duration readTimeout = Duration.ofSeconds(5);
+        /**
+         * Interval of the background refresh of the JWK set.
+         */
+        private Duration refreshInterval = Duration.ofMinutes(5);
+        /**
+         * Minimum interval between two fetches triggered by tokens signed with an unknown key id.
+         */
+        private Duration unknownKeyRefetchInterval = Duration.ofSeconds(30);
+        /**
+         * How long a key id that is still unknown after a fetch is remembered, without fetching again for it.
+         */
+        private Duration unknownKeyCacheTtl = Duration.ofMinutes(5);
+        /**
+         * Maximum number of remembered unknown key ids.
+         */
+        private long unknownKeyCacheSize = 1_000;
+    }
+
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    @ToString
+    public static class GrpcProperties {
+        /**
+         * Carries the authentication in {@code io.grpc.Context} and restores the security context around
+         * every listener callback, instead of setting it once on the transport thread.
+         */
+        private boolean contextPropagation = false;
+        /**
+         * Number of threads that verify tokens off the transport thread; {@code 0} verifies inline.
+         * Only used with {@link #contextPropagation}.
+         */
+        private int verificationThreads = 0;
+        /**
+         * Maximum number of calls waiting for a verification thread; further calls are rejected
+         * with {@code RESOURCE_EXHAUSTED}.
+         */
+        private int verificationQueueCapacity = 1_000;
+        /**
+         * Attaches the cached service token to outgoing gRPC calls.
+         */
+        private boolean clientAuthentication = false;
+        /**
+         * How long before expiry the cached client token is refreshed in the background.
+         */
+        private Duration clientTokenRefreshBefore = Duration.ofSeconds(30);
+    }
+
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    @ToString
+    public static class KafkaProperties {
+        /**
+         * Authenticates consumed records from the bearer token in their {@link #tokenHeader}.
+         */
+        private boolean consumerAuthentication = false;
+        /**
+         * Name of the record header carrying the bearer token.
+         */
+        private String tokenHeader = "authorization";
+        /**
+         * Number of threads verifying the distinct tokens of a batch in parallel; {@code 1} verifies inline.
+         */
+        private int verificationThreads = 4;
+        /**
+         * How long a batch waits for its tokens to be verified; tokens not verified in time leave their
+         * records unauthenticated.
+         */
+        private Duration verificationTimeout = Duration.ofSeconds(5);
+        /**
+         * Drops records whose token fails verification instead of delivering them unauthenticated.
+         */
+        private boolean rejectUnauthenticated = false;
+        /**
+         * Stamps the cached service token on records sent through {@code KafkaTemplate}.
+         */
+        private boolean producerAuthentication = false;
+        /**
+         * How long before expiry the cached producer token is refreshed in the background.
+         */
+        private Duration producerTokenRefreshBefore = Duration.ofSeconds(30);
+        /**
+         * Refuses to send records while no service token is available instead of sending them without the
+         * token header.
+         */
+        private boolean producerRejectUnauthenticated = false;
+    }
+
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    @ToString
+    public static class RSocketProperties {
+        /**
+         * How long before expiry the cached requester token is refreshed in the background.
+         */
+        private Duration tokenRefreshBefore = Duration.ofSeconds(30);
+        /**
+         * Authenticates connections once in the SETUP frame and reuses that authentication for payloads
+         * carrying the same token, until it expires.
+         */
+        private boolean connectionAuthentication = false;
+    }
+
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    @ToString
+    public static class RoleMappingProperties {
+        /**
+         * Replaces the flat {@code roles} claim mapping with the configured {@link #claimPaths}.
+         */
+        private boolean enabled = false;
+        /**
+         * Dot-separated paths of the claims holding roles, e.g. {@code realm_access.roles},
+         * {@code resource_access.{client}.roles} or {@code scope}. Collections contribute their elements,
+         * strings are split on whitespace.
+         */
+        private List<String> claimPaths = List.of("roles");
+        /**
+         * Values of the {@code {name}} placeholders used in {@link #claimPaths}.
+         */
+        private Map<String, String> variables = Map.of();
+        /**
+         * Prefix added to every role, e.g. {@code ROLE_}.
+         */
+        private String prefix = "";
+        /**
+         * Case normalisation applied to every role.
+         */
+        private RoleCase roleCase = RoleCase.NONE;
+        /**
+         * Removes roles found more than once, keeping the first occurrence.
+         */
+        private boolean deduplicate = true;
+
+        public enum RoleCase {
+            NONE, UPPER, LOWER
+        }
+    }
+
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    @ToString
+    public static class UserInfoProperties {
+        /**
+         * Maximum number of decoded user-info blobs kept; {@code 0}, the default, disables the decode cache.
+         * A hit still materialises a new user, so enable it only where {@code UserInfoDecodeBenchmark} shows
+         * it beats decoding, typically for large compact blobs.
+         */
+        private long decodeCacheSize = 0;
+        /**
+         * How long a decoded user-info blob is kept.
+         */
+        private Duration decodeCacheTtl = Duration.ofMinutes(5);
+    }
+
+    /**
+     * Settings of the opaque-token mode, in which bearer tokens are validated against an RFC 7662
+     * introspection endpoint instead of being decoded as JWTs.
+     */
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    @ToString
+    public static class IntrospectionProperties {
+        /**
+         * Whether bearer tokens are introspected instead of decoded. Disabled by default.
+         */
+        private boolean enabled = false;
+        /**
+         * The introspection endpoint.
+         */
+        private String introspectionUri;
+        /**
+         * The client id the resource server authenticates to the introspection endpoint with.
+         */
+        private String clientId;
+        /**
+         * The client secret the resource server authenticates to the introspection endpoint with.
+         */
+        @ToString.Exclude
+        private String clientSecret;
+        /**
+         * Maximum number of cached introspection results; {@code 0} disables the cache.
+         */
+        private long cacheMaximumSize = 10_000;
+        /**
+         * Upper bound for the time an active result is kept; entries never outlive the token's {@code exp}.
+         */
+        private Duration maximumTtl = Duration.ofMinutes(5);
+        /**
+         * How long an inactive result is kept, so a rejected token does not reach the endpoint on every attempt.
+         */
+        private Duration negativeTtl = Duration.ofSeconds(10);
+    }
+
+    /**
+     * Settings of the in-memory list of revoked {@code jti} and {@code sid} values the JWT decoders consult,
+     * fed incrementally from a local file and/or a Kafka topic.
+     */
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    @ToString
+    public static class RevocationProperties {
+        /**
+         * Whether decoded tokens are checked against the revocation list. Disabled by default.
+         */
+        private boolean enabled = false;
+        /**
+         * Number of revoked identifiers per kind the filter is sized for; it grows beyond that when needed.
+         */
+        private int expectedEntries = 100_000;
+        /**
+         * Target false-positive rate of the filter; false positives only cost an exact lookup.
+         */
+        private double falsePositiveRate = 0.001;
+        /**
+         * File of revocation delta lines to tail, if any.
+         */
+        private String file;
+        /**
+         * How often the revocation file is polled for appended lines.
+         */
+        private Duration filePollInterval = Duration.ofSeconds(5);
+        /**
+         * Kafka topic of revocation deltas to consume, if any. The topic is read from the beginning.
+         */
+        private String kafkaTopic;
+    }
+
+    /**
+     * Settings of the exchange filter that logs and times outbound {@code WebClient} requests.
+     * Durations are always recorded when a meter registry is present; only log lines are sampled.
+     */
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    @ToString
+    public static class ClientLoggingProperties {
+        /**
+         * Whether exchanges are logged.
+         */
+        private boolean enabled = true;
+        /**
+         * The level exchanges are logged at.
+         */
+        private Level level = Level.DEBUG;
+        /**
+         * Fraction of exchanges that are logged, from {@code 0} to {@code 1}.
+         */
+        private double sampleRate = 1.0;
+        /**
+         * Whether request headers are included in the log line.
+         */
+        private boolean logHeaders = false;
+        /**
+         * Headers whose values are masked when headers are logged.
+         */
+        private List<String> redactedHeaders = List.of("Authorization", "Proxy-Authorization", "Cookie");
+
+        public enum Level {
+            DEBUG,
+            INFO
+        }
+    }
+
+    /**
+     * Settings of the routing of outbound {@code WebClient} requests to client registrations, so downstreams
+     * needing different audiences or scopes each get a token of their own registration.
+     */
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    @ToString
+    public static class ClientRoutingProperties {
+        /**
+         * Whether requests are authorized with the registration routed to their host. Disabled by default,
+         * in which case every request uses {@link SecurityProperties#getDefaultClientRegistrationId()}.
+         */
+        private boolean enabled = false;
+        /**
+         * Client registration ids by target host (the service id for load-balanced clients) or {@code *.domain}.
+         * Keys containing dots must be bracketed, e.g. {@code routes[billing.example.com]}. Unrouted hosts use
+         * the default registration.
+         */
+        private Map<String, String> routes = Map.of();
+        /**
+         * How long before expiry a registration's cached token is refreshed in the background.
+         */
+        private Duration tokenRefreshBefore = Duration.ofSeconds(30);
+    }
+
+    /**
+     * Settings of the RFC 8693 token exchange that swaps the inbound user token for a token scoped to a
+     * downstream audience, keeping the user context across hops.
+     */
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    @ToString
+    public static class TokenExchangeProperties {
+        /**
+         * Whether the token exchange services are available. Disabled by default.
+         */
+        private boolean enabled = false;
+        /**
+         * The client registration used for the exchange; its authorization grant type must be
+         * {@code urn:ietf:params:oauth:grant-type:token-exchange}.
+         */
+        private String registrationId = "token-exchange";
+        /**
+         * Maximum number of cached exchanged tokens.
+         */
+        private long cacheMaximumSize = 10_000;
+        /**
+         * Upper bound for the time an exchanged token is kept.
+         */
+        private Duration maximumTtl = Duration.ofMinutes(10);
+        /**
+         * How long before expiry an exchanged token stops being served from the cache.
+         */
+        private Duration refreshBefore = Duration.ofSeconds(30);
+    }
+
+    /**
+     * Settings of the store sharing client-credentials tokens between replicas, so one replica refreshes an
+     * expiring token under a lease and the others read its result instead of calling the token endpoint.
+     */
+    @Setter
+    @Getter
+    @NoArgsConstructor
+    @ToString
+    public static class SharedTokenStoreProperties {
+        /**
+         * Whether authorized clients are kept in the shared store. Disabled by default.
+         */
+        private boolean enabled = false;
+        /**
+         * Directory of the file-backed store, used when no other store bean is defined. Replicas sharing
+         * tokens must see the same directory, e.g. through a shared volume.
+         */
+        private String directory = System.getProperty("java.io.tmpdir") + "/jima-token-store";
+        /**
+         * How long a refresh lease is held before other replicas may take it over, bounding the effect of a
+         * replica dying mid-refresh.
+         */
+        private Duration leaseTtl = Duration.ofSeconds(30);
+        /**
+         * How long a replica without the lease waits for the holder's token before requesting one itself.
+         */
+        private Duration leaseWait = Duration.ofSeconds(10);
+        /**
+         * Interval at which a waiting replica polls the store for the refreshed token.
+         */
+        private Duration pollInterval = Duration.ofMillis(200);
+        /**
+         * Tokens expiring within this skew are treated as expired, matching the client credentials provider.
+         */
+        private Duration clockSkew = Duration.ofSeconds(60);
+    }
 }
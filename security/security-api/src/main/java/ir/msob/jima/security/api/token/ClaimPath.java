@@ -0,0 +1,133 @@
+package ir.msob.jima.security.api.token;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A dot-separated path to a claim, such as {@code realm_access.roles}, compiled once into its segments.
+ * <p>
+ * Placeholders like {@code {client}} are resolved when the path is compiled, so reading a path walks
+ * nested maps by fixed keys without parsing or allocating. The value found at the end of the path
+ * contributes each non-null element of a collection, or the whitespace-separated words of a string
+ * (as in the {@code scope} claim). Missing claims and unexpected types contribute nothing.
+ *
+ * @author Yaqub Abdi
+ */
+public final class ClaimPath {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{([^}]+)}");
+
+    private final String path;
+    private final String[] segments;
+
+    private ClaimPath(String path, String[] segments) {
+        this.path = path;
+        this.segments = segments;
+    }
+
+    /**
+     * Compiles a path without placeholders.
+     *
+     * @param path the path
+     * @return the compiled path
+     */
+    public static ClaimPath compile(String path) {
+        return compile(path, Map.of());
+    }
+
+    /**
+     * Compiles a path, replacing its {@code {name}} placeholders with the given values.
+     *
+     * @param path      the path
+     * @param variables the placeholder values
+     * @return the compiled path
+     * @throws IllegalArgumentException if the path is empty or a placeholder has no value
+     */
+    public static ClaimPath compile(String path, Map<String, String> variables) {
+        if (path == null || path.isBlank()) {
+            throw new IllegalArgumentException("Claim path must not be empty");
+        }
+        Matcher matcher = PLACEHOLDER.matcher(path);
+        StringBuilder resolved = new StringBuilder();
+        while (matcher.find()) {
+            String value = variables.get(matcher.group(1));
+            if (value == null) {
+                throw new IllegalArgumentException("No value for placeholder {" + matcher.group(1) + "} of claim path " + path);
+            }
+            matcher.appendReplacement(resolved, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(resolved);
+
+        String[] segments = resolved.toString().split("\\.");
+        for (String segment : segments) {
+            if (segment.isEmpty()) {
+                throw new IllegalArgumentException("Claim path has an empty segment: " + path);
+            }
+        }
+        return new ClaimPath(path, segments);
+    }
+
+    /**
+     * Passes every value found at the path to the consumer.
+     *
+     * @param claims   the claims
+     * @param consumer receives the values
+     */
+    public void forEach(Map<String, Object> claims, Consumer<String> consumer) {
+        Object current = claims;
+        for (String segment : segments) {
+            if (!(current instanceof Map<?, ?> map)) {
+                return;
+            }
+            current = map.get(segment);
+        }
+
+        if (current instanceof Collection<?> collection) {
+            for (Object element : collection) {
+                if (element != null) {
+                    consumer.accept(element.toString());
+                }
+            }
+        } else if (current instanceof String string) {
+            splitWords(string, consumer);
+        }
+    }
+
+    /**
+     * Returns the values found at the path.
+     *
+     * @param claims the claims
+     * @return the values, in claim order
+     */
+    public List<String> values(Map<String, Object> claims) {
+        List<String> values = new ArrayList<>();
+        forEach(claims, values::add);
+        return values;
+    }
+
+    private static void splitWords(String string, Consumer<String> consumer) {
+        int length = string.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean boundary = i == length || Character.isWhitespace(string.charAt(i));
+            if (boundary) {
+                if (start >= 0) {
+                    consumer.accept(start == 0 && i == length ? string : string.substring(start, i));
+                    start = -1;
+                }
+            } else if (start < 0) {
+                start = i;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return path;
+    }
+}
@@ -0,0 +1,137 @@
+package ir.msob.jima.security.api.token;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 digest of a raw token, used as a cache key so that caches never retain the token itself.
+ * <p>
+ * The digest is held as four {@code long}s, which keeps the key compact and gives value-based
+ * {@code equals}/{@code hashCode} without wrapping an array. Tokens are hashed through a per-thread
+ * scratch buffer, so computing a digest does not allocate beyond the key itself.
+ *
+ * @param h0 bytes 0-7 of the digest
+ * @param h1 bytes 8-15 of the digest
+ * @param h2 bytes 16-23 of the digest
+ * @param h3 bytes 24-31 of the digest
+ * @author Yaqub Abdi
+ */
+public record TokenDigest(long h0, long h1, long h2, long h3) {
+
+    private static final int DIGEST_LENGTH = 32;
+    private static final int BUFFER_LENGTH = 256;
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * Computes the digest of the whole token.
+     *
+     * @param token the raw token
+     * @return the digest
+     */
+    public static TokenDigest of(CharSequence token) {
+        return of(token, 0, token.length());
+    }
+
+    /**
+     * Computes the digest of {@code token[start, end)} without materialising the range as a string.
+     * <p>
+     * ASCII characters are hashed as single bytes; any other character is hashed as a {@code 0xFF}
+     * marker followed by its two UTF-16 bytes, so distinct character sequences never share an input.
+     *
+     * @param token the sequence holding the token
+     * @param start index of the first character of the token
+     * @param end   index after the last character of the token
+     * @return the digest
+     */
+    public static TokenDigest of(CharSequence token, int start, int end) {
+        Scratch scratch = SCRATCH.get();
+        byte[] buffer = scratch.buffer;
+        int position = 0;
+        for (int i = start; i < end; i++) {
+            if (position > BUFFER_LENGTH - 3) {
+                scratch.digest.update(buffer, 0, position);
+                position = 0;
+            }
+            char c = token.charAt(i);
+            if (c < 0x80) {
+                buffer[position++] = (byte) c;
+            } else {
+                buffer[position++] = (byte) 0xFF;
+                buffer[position++] = (byte) (c >>> 8);
+                buffer[position++] = (byte) c;
+            }
+        }
+        scratch.digest.update(buffer, 0, position);
+        return scratch.finish();
+    }
+
+    /**
+     * Computes the digest of {@code token[start, end)} held as raw header bytes.
+     * <p>
+     * Bytes are read as ISO-8859-1 characters, so for the ASCII tokens carried in headers the digest equals
+     * that of the same token as a string and both forms hit the same cache entries. ASCII ranges are hashed
+     * straight from the array.
+     *
+     * @param token the bytes holding the token
+     * @param start index of the first byte of the token
+     * @param end   index after the last byte of the token
+     * @return the digest
+     */
+    public static TokenDigest of(byte[] token, int start, int end) {
+        Scratch scratch = SCRATCH.get();
+        int ascii = start;
+        while (ascii < end && token[ascii] >= 0) {
+            ascii++;
+        }
+        scratch.digest.update(token, start, ascii - start);
+        byte[] buffer = scratch.buffer;
+        int position = 0;
+        for (int i = ascii; i < end; i++) {
+            if (position > BUFFER_LENGTH - 3) {
+                scratch.digest.update(buffer, 0, position);
+                position = 0;
+            }
+            byte b = token[i];
+            if (b >= 0) {
+                buffer[position++] = b;
+            } else {
+                buffer[position++] = (byte) 0xFF;
+                buffer[position++] = 0;
+                buffer[position++] = b;
+            }
+        }
+        scratch.digest.update(buffer, 0, position);
+        return scratch.finish();
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFFL);
+        }
+        return value;
+    }
+
+    private static final class Scratch {
+        private final MessageDigest digest;
+        private final byte[] buffer = new byte[BUFFER_LENGTH];
+
+        private Scratch() {
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+
+        private TokenDigest finish() {
+            try {
+                digest.digest(buffer, 0, DIGEST_LENGTH);
+            } catch (DigestException e) {
+                throw new IllegalStateException("Unable to compute token digest", e);
+            }
+            return new TokenDigest(readLong(buffer, 0), readLong(buffer, 8), readLong(buffer, 16), readLong(buffer, 24));
+        }
+    }
+}
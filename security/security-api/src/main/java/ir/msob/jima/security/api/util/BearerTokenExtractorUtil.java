@@ -1,11 +1,120 @@
 package ir.msob.jima.security.api.util;
 
+/**
+ * Locates the token of a {@code Bearer} authorization header.
+ * <p>
+ * The scheme is matched case-insensitively (RFC 7235, section 2.1) and the token is reported as a range of the
+ * header, so callers holding a {@link CharSequence} or the raw ASCII bytes of a header can hash or parse
+ * the token in place. {@link #locate} packs the range into a single {@code long}; read it back with
+ * {@link #start(long)} and {@link #end(long)}.
+ *
+ * @author Yaqub Abdi
+ */
 public class BearerTokenExtractorUtil {
 
+    /**
+     * Returned by {@link #locate} when the header carries no bearer token.
+     */
+    public static final long NOT_FOUND = -1L;
+
+    private static final String SCHEME = "Bearer";
+
+    /**
+     * Extracts the bearer token of a header.
+     *
+     * @param header the authorization header, may be {@code null}
+     * @return the token, or {@code null} when the header carries none
+     */
     public static String extract(String header) {
-        if (header == null || !header.startsWith("Bearer ")) {
-            return null;
+        long range = locate(header);
+        return range == NOT_FOUND ? null : header.substring(start(range), end(range));
+    }
+
+    /**
+     * Locates the bearer token of a header.
+     *
+     * @param header the authorization header, may be {@code null}
+     * @return the packed token range, or {@link #NOT_FOUND}
+     */
+    public static long locate(CharSequence header) {
+        if (header == null) {
+            return NOT_FOUND;
+        }
+        int length = header.length();
+        if (length <= SCHEME.length() || !isSpace(header.charAt(SCHEME.length()))) {
+            return NOT_FOUND;
+        }
+        for (int i = 0; i < SCHEME.length(); i++) {
+            if (!matchesScheme(header.charAt(i), i)) {
+                return NOT_FOUND;
+            }
+        }
+        int start = SCHEME.length() + 1;
+        int end = length;
+        while (start < end && isSpace(header.charAt(start))) {
+            start++;
+        }
+        while (end > start && isSpace(header.charAt(end - 1))) {
+            end--;
+        }
+        return range(start, end);
+    }
+
+    /**
+     * Locates the bearer token of a header given as ASCII bytes.
+     *
+     * @param header the authorization header, may be {@code null}
+     * @return the packed token range, or {@link #NOT_FOUND}
+     */
+    public static long locate(byte[] header) {
+        if (header == null) {
+            return NOT_FOUND;
+        }
+        int length = header.length;
+        if (length <= SCHEME.length() || !isSpace((char) header[SCHEME.length()])) {
+            return NOT_FOUND;
+        }
+        for (int i = 0; i < SCHEME.length(); i++) {
+            if (!matchesScheme((char) header[i], i)) {
+                return NOT_FOUND;
+            }
         }
-        return header.substring(7).trim();
+        int start = SCHEME.length() + 1;
+        int end = length;
+        while (start < end && isSpace((char) header[start])) {
+            start++;
+        }
+        while (end > start && isSpace((char) header[end - 1])) {
+            end--;
+        }
+        return range(start, end);
+    }
+
+    /**
+     * @param range a range returned by {@link #locate}
+     * @return the index of the first token character
+     */
+    public static int start(long range) {
+        return (int) (range >>> 32);
+    }
+
+    /**
+     * @param range a range returned by {@link #locate}
+     * @return the index after the last token character
+     */
+    public static int end(long range) {
+        return (int) range;
+    }
+
+    private static long range(int start, int end) {
+        return start == end ? NOT_FOUND : ((long) start << 32) | end;
+    }
+
+    private static boolean matchesScheme(char c, int index) {
+        return (c | 0x20) == (SCHEME.charAt(index) | 0x20);
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t';
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package ir.msob.jima.security.api.util;
+
+import ir.msob.jima.security.api.token.TokenDigest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BearerTokenExtractorUtilTest {
+
+    @Test
+    @DisplayName("The scheme is matched case-insensitively and surrounding whitespace is trimmed")
+    void schemeIsCaseInsensitive() {
+        assertEquals("abc.def.ghi", BearerTokenExtractorUtil.extract("Bearer abc.def.ghi"));
+        assertEquals("abc.def.ghi", BearerTokenExtractorUtil.extract("bearer abc.def.ghi"));
+        assertEquals("abc.def.ghi", BearerTokenExtractorUtil.extract("BEARER \tabc.def.ghi  "));
+    }
+
+    @Test
+    @DisplayName("Headers without a bearer token are rejected")
+    void headersWithoutTokenAreRejected() {
+        assertNull(BearerTokenExtractorUtil.extract(null));
+        assertNull(BearerTokenExtractorUtil.extract("Basic dXNlcjpwYXNz"));
+        assertNull(BearerTokenExtractorUtil.extract("Bearer"));
+        assertNull(BearerTokenExtractorUtil.extract("Bearer   "));
+        assertNull(BearerTokenExtractorUtil.extract("Bearerabc"));
+        assertEquals(BearerTokenExtractorUtil.NOT_FOUND, BearerTokenExtractorUtil.locate((byte[]) null));
+    }
+
+    @Test
+    @DisplayName("Byte and character headers yield the same range and token digest")
+    void bytesMatchCharacters() {
+        String header = "bEaReR  abc.def.ghi ";
+        byte[] bytes = header.getBytes(StandardCharsets.US_ASCII);
+
+        long range = BearerTokenExtractorUtil.locate(bytes);
+
+        assertEquals(BearerTokenExtractorUtil.locate(header), range);
+        assertEquals(TokenDigest.of("abc.def.ghi"),
+                TokenDigest.of(bytes, BearerTokenExtractorUtil.start(range), BearerTokenExtractorUtil.end(range)));
+    }
+}
@@ -0,0 +1,80 @@
+package ir.msob.jima.security.autoconfigure.introspection;
+
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.api.token.RoleMapper;
+import ir.msob.jima.security.core.introspection.CachingOpaqueTokenIntrospector;
+import ir.msob.jima.security.core.introspection.IntrospectionCache;
+import ir.msob.jima.security.core.introspection.IntrospectionPrincipalConverter;
+import ir.msob.jima.security.reactive.introspection.CachingReactiveOpaqueTokenIntrospector;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.oauth2.server.resource.introspection.OpaqueTokenIntrospector;
+import org.springframework.security.oauth2.server.resource.introspection.ReactiveOpaqueTokenIntrospector;
+import org.springframework.security.oauth2.server.resource.introspection.SpringOpaqueTokenIntrospector;
+import org.springframework.security.oauth2.server.resource.introspection.SpringReactiveOpaqueTokenIntrospector;
+import reactor.core.publisher.Mono;
+
+/**
+ * Opaque-token mode: bearer tokens are validated against the RFC 7662 endpoint of
+ * {@code jima.security.introspection} instead of being decoded as JWTs.
+ * <p>
+ * The introspectors map authorities with the configured {@link RoleMapper} and are wrapped in a cache
+ * unless {@code cache-maximum-size} is {@code 0}. The filter chains and the gRPC authentication reader
+ * pick them up when present.
+ *
+ * @author Yaqub Abdi
+ */
+@AutoConfiguration
+@ConditionalOnProperty(prefix = "jima.security.introspection", name = "enabled", havingValue = "true")
+public class OpaqueTokenIntrospectionAutoConfiguration {
+
+    /**
+     * Blocking introspector, used by the servlet filter chain and the gRPC authentication reader.
+     *
+     * @param securityProperties the security properties
+     * @param roleMapper         the role mapper
+     * @return the introspector
+     */
+    @Bean
+    public OpaqueTokenIntrospector opaqueTokenIntrospector(SecurityProperties securityProperties, RoleMapper roleMapper) {
+        SecurityProperties.IntrospectionProperties properties = securityProperties.getIntrospection();
+        SpringOpaqueTokenIntrospector introspector = SpringOpaqueTokenIntrospector
+                .withIntrospectionUri(properties.getIntrospectionUri())
+                .clientId(properties.getClientId())
+                .clientSecret(properties.getClientSecret())
+                .build();
+        introspector.setAuthenticationConverter(new IntrospectionPrincipalConverter(roleMapper));
+        if (properties.getCacheMaximumSize() <= 0) {
+            return introspector;
+        }
+        return new CachingOpaqueTokenIntrospector(introspector, new IntrospectionCache(properties)
+                , securityProperties.getTokenAcquisitionTimeout());
+    }
+
+    /**
+     * Reactive introspector, used by the WebFlux filter chain.
+     *
+     * @param securityProperties the security properties
+     * @param roleMapper         the role mapper
+     * @return the introspector
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public ReactiveOpaqueTokenIntrospector reactiveOpaqueTokenIntrospector(SecurityProperties securityProperties
+            , RoleMapper roleMapper) {
+        SecurityProperties.IntrospectionProperties properties = securityProperties.getIntrospection();
+        SpringReactiveOpaqueTokenIntrospector introspector = SpringReactiveOpaqueTokenIntrospector
+                .withIntrospectionUri(properties.getIntrospectionUri())
+                .clientId(properties.getClientId())
+                .clientSecret(properties.getClientSecret())
+                .build();
+        IntrospectionPrincipalConverter converter = new IntrospectionPrincipalConverter(roleMapper);
+        introspector.setAuthenticationConverter(claims -> Mono.justOrEmpty(converter.convert(claims)));
+        if (properties.getCacheMaximumSize() <= 0) {
+            return introspector;
+        }
+        return new CachingReactiveOpaqueTokenIntrospector(introspector, new IntrospectionCache(properties));
+    }
+}
@@ -0,0 +1,32 @@
+package ir.msob.jima.security.autoconfigure.jwt;
+
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.core.jwk.JwkSetSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Provides the {@link JwkSetSource} the JWT decoders are built from when
+ * {@code jima.security.jwks.enabled} is set, replacing OIDC discovery at bean creation.
+ *
+ * @author Yaqub Abdi
+ */
+@AutoConfiguration
+@ConditionalOnProperty(prefix = "jima.security.jwks", name = "enabled", havingValue = "true")
+public class JwkSetSourceAutoConfiguration {
+
+    /**
+     * Bean definition for JwkSetSource.
+     *
+     * @param securityProperties The security properties holding the JWK set settings.
+     * @param issuerUri          The issuer URI, used for discovery when no JWK set URI is configured.
+     * @return An instance of JwkSetSource.
+     */
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public JwkSetSource jwkSetSource(SecurityProperties securityProperties,
+                                     @Value("${spring.security.oauth2.resource-server.jwt.issuer-uri:}") String issuerUri) {
+        return new JwkSetSource(securityProperties.getJwks(), issuerUri);
+    }
+}
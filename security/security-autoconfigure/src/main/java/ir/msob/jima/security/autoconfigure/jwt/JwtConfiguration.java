@@ -1,6 +1,17 @@
 package ir.msob.jima.security.autoconfigure.jwt;
 
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.core.jwk.JwkSetJwtDecoders;
+import ir.msob.jima.security.core.jwk.JwkSetSource;
+import ir.msob.jima.security.core.jwt.CachingJwtDecoder;
+import ir.msob.jima.security.core.jwt.JwtCache;
+import ir.msob.jima.security.core.jwt.LocalAwareJwtDecoder;
+import ir.msob.jima.security.core.jwt.LocalJwts;
+import ir.msob.jima.security.core.jwt.RevocationCheckingJwtDecoder;
+import ir.msob.jima.security.core.revocation.RevocationList;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
@@ -23,20 +34,43 @@ import org.springframework.security.oauth2.jwt.JwtDecoders;
 @Configuration
 public class JwtConfiguration {
 
-    /**
-     * Configuration property representing the issuer URI of the JWT.
-     */
-    @Value("${spring.security.oauth2.resource-server.jwt.issuer-uri}")
-    private String issuerUri;
-
     /**
      * Bean definition for JwtDecoder.
+     * <p>
+     * When a {@link JwkSetSource} is available, the decoder verifies against it and is created without
+     * network access; otherwise the issuer is discovered eagerly.
+     * When {@code jima.security.local-token.verify} is set, HMAC-signed local tokens are verified in-process.
+     * When {@code jima.security.decoder-cache.enabled} is set, the decoder is wrapped in a
+     * {@link CachingJwtDecoder} so repeated tokens skip parsing and signature verification.
+     * When a {@link RevocationList} is available, revoked tokens are rejected, cached or not.
+     * Not created in opaque-token mode ({@code jima.security.introspection.enabled}), so no issuer is needed there.
      *
+     * @param issuerUri          The issuer URI of the JWT.
+     * @param securityProperties The security properties holding the decoder settings.
+     * @param jwkSetSource       The optional JWK set source.
+     * @param revocationList     The optional revocation list.
      * @return An instance of JwtDecoder configured with the issuer URI.
      */
     @Bean
-    public JwtDecoder jwtDecoder() {
-        return JwtDecoders
-                .fromIssuerLocation(issuerUri);
+    @ConditionalOnProperty(prefix = "jima.security.introspection", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public JwtDecoder jwtDecoder(@Value("${spring.security.oauth2.resource-server.jwt.issuer-uri}") String issuerUri
+            , SecurityProperties securityProperties, ObjectProvider<JwkSetSource> jwkSetSource
+            , ObjectProvider<RevocationList> revocationList) {
+        JwkSetSource source = jwkSetSource.getIfAvailable();
+        JwtDecoder decoder = source != null
+                ? JwkSetJwtDecoders.jwtDecoder(source, securityProperties.getJwks().getJwsAlgorithms(), issuerUri)
+                : JwtDecoders.fromIssuerLocation(issuerUri);
+        if (securityProperties.getLocalToken().isVerify()) {
+            decoder = new LocalAwareJwtDecoder(LocalJwts.jwtDecoder(securityProperties.getClientCredentialsToken()
+                    , securityProperties.getLocalToken().getIssuer()), decoder);
+        }
+        if (securityProperties.getDecoderCache().isEnabled()) {
+            decoder = new CachingJwtDecoder(decoder, new JwtCache(securityProperties.getDecoderCache()));
+        }
+        RevocationList revocations = revocationList.getIfAvailable();
+        if (revocations != null) {
+            decoder = new RevocationCheckingJwtDecoder(decoder, revocations);
+        }
+        return decoder;
     }
 }
@@ -1,6 +1,16 @@
 package ir.msob.jima.security.autoconfigure.jwt;
 
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.core.jwk.JwkSetSource;
+import ir.msob.jima.security.core.jwt.JwtCache;
+import ir.msob.jima.security.core.revocation.RevocationList;
+import ir.msob.jima.security.reactive.jwt.CachingReactiveJwtDecoder;
+import ir.msob.jima.security.reactive.jwt.JwkSetReactiveJwtDecoders;
+import ir.msob.jima.security.reactive.jwt.LocalAwareReactiveJwtDecoder;
+import ir.msob.jima.security.reactive.jwt.RevocationCheckingReactiveJwtDecoder;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.security.oauth2.server.resource.autoconfigure.OAuth2ResourceServerProperties;
 import org.springframework.context.annotation.Bean;
@@ -12,8 +22,24 @@ import org.springframework.security.oauth2.jwt.ReactiveJwtDecoders;
 public class ReactiveJwtDecoderAutoConfiguration {
 
     @Bean
-    public ReactiveJwtDecoder reactiveJwtDecoder(OAuth2ResourceServerProperties properties) {
-        return ReactiveJwtDecoders
-                .fromIssuerLocation(properties.getJwt().getIssuerUri());
+    @ConditionalOnProperty(prefix = "jima.security.introspection", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public ReactiveJwtDecoder reactiveJwtDecoder(OAuth2ResourceServerProperties properties, SecurityProperties securityProperties
+            , ObjectProvider<JwkSetSource> jwkSetSource, ObjectProvider<RevocationList> revocationList) {
+        JwkSetSource source = jwkSetSource.getIfAvailable();
+        ReactiveJwtDecoder decoder = source != null
+                ? JwkSetReactiveJwtDecoders.reactiveJwtDecoder(source, securityProperties.getJwks().getJwsAlgorithms(), properties.getJwt().getIssuerUri())
+                : ReactiveJwtDecoders.fromIssuerLocation(properties.getJwt().getIssuerUri());
+        if (securityProperties.getLocalToken().isVerify()) {
+            decoder = new LocalAwareReactiveJwtDecoder(securityProperties.getClientCredentialsToken()
+                    , securityProperties.getLocalToken().getIssuer(), decoder);
+        }
+        if (securityProperties.getDecoderCache().isEnabled()) {
+            decoder = new CachingReactiveJwtDecoder(decoder, new JwtCache(securityProperties.getDecoderCache()));
+        }
+        RevocationList revocations = revocationList.getIfAvailable();
+        if (revocations != null) {
+            decoder = new RevocationCheckingReactiveJwtDecoder(decoder, revocations);
+        }
+        return decoder;
     }
 }
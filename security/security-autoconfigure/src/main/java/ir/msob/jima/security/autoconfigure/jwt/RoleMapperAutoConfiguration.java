@@ -1,8 +1,11 @@
 package ir.msob.jima.security.autoconfigure.jwt;
 
+import ir.msob.jima.security.api.properties.SecurityProperties;
 import ir.msob.jima.security.api.token.RoleMapper;
+import ir.msob.jima.security.core.jwt.ClaimPathRoleMapper;
 import ir.msob.jima.security.core.jwt.DefaultRoleMapper;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 
 
@@ -10,8 +13,21 @@ import org.springframework.context.annotation.Bean;
 public class RoleMapperAutoConfiguration {
 
     @Bean
+    @ConditionalOnProperty(prefix = "jima.security.role-mapping", name = "enabled", havingValue = "false", matchIfMissing = true)
     RoleMapper roleMapper() {
         return new DefaultRoleMapper();
     }
 
+    /**
+     * Role mapper reading the claim paths of {@code jima.security.role-mapping}.
+     *
+     * @param securityProperties the security properties
+     * @return the role mapper
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "jima.security.role-mapping", name = "enabled", havingValue = "true")
+    RoleMapper claimPathRoleMapper(SecurityProperties securityProperties) {
+        return new ClaimPathRoleMapper(securityProperties.getRoleMapping());
+    }
+
 }
@@ -0,0 +1,160 @@
+package ir.msob.jima.security.autoconfigure.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import ir.msob.jima.security.autoconfigure.token.TokenExchangeReactiveService;
+import ir.msob.jima.security.autoconfigure.token.TokenExchangeService;
+import ir.msob.jima.security.core.introspection.CachingOpaqueTokenIntrospector;
+import ir.msob.jima.security.core.jwk.JwkSetSource;
+import ir.msob.jima.security.core.jwt.CachingJwtDecoder;
+import ir.msob.jima.security.core.jwt.RevocationCheckingJwtDecoder;
+import ir.msob.jima.security.core.revocation.RevocationList;
+import ir.msob.jima.security.reactive.introspection.CachingReactiveOpaqueTokenIntrospector;
+import ir.msob.jima.security.reactive.jwt.CachingReactiveJwtDecoder;
+import ir.msob.jima.security.reactive.jwt.RevocationCheckingReactiveJwtDecoder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.oauth2.server.resource.introspection.OpaqueTokenIntrospector;
+import org.springframework.security.oauth2.server.resource.introspection.ReactiveOpaqueTokenIntrospector;
+
+import java.time.Duration;
+
+/**
+ * Publishes the state of the shared security components as Micrometer meters.
+ * <p>
+ * The binders are applied by Spring Boot to every {@code MeterRegistry} in the context; without one
+ * they are never invoked. Components with hot-path timers (role converters, token services, decoders
+ * wrapped per transport) register their own meters.
+ *
+ * @author Yaqub Abdi
+ */
+@AutoConfiguration
+public class SecurityMetricsAutoConfiguration {
+
+    /**
+     * Hit, miss, eviction and size meters of the decoder cache, when enabled.
+     *
+     * @param jwtDecoder         the servlet decoder, if any
+     * @param reactiveJwtDecoder the reactive decoder, if any
+     * @return the binder
+     */
+    @Bean
+    public MeterBinder jwtDecoderCacheMetrics(ObjectProvider<JwtDecoder> jwtDecoder
+            , ObjectProvider<ReactiveJwtDecoder> reactiveJwtDecoder) {
+        return registry -> {
+            if (unwrap(jwtDecoder.getIfUnique()) instanceof CachingJwtDecoder decoder) {
+                CaffeineCacheMetrics.monitor(registry, decoder.getJwtCache().getCache(), "jima.security.jwt.decoder");
+            }
+            if (unwrap(reactiveJwtDecoder.getIfUnique()) instanceof CachingReactiveJwtDecoder decoder) {
+                CaffeineCacheMetrics.monitor(registry, decoder.getJwtCache().getCache(), "jima.security.jwt.reactive-decoder");
+            }
+        };
+    }
+
+    /**
+     * Hit, miss, eviction and size meters of the introspection cache, plus the coalesced introspections,
+     * when opaque-token mode is enabled.
+     *
+     * @param opaqueTokenIntrospector         the blocking introspector, if any
+     * @param reactiveOpaqueTokenIntrospector the reactive introspector, if any
+     * @return the binder
+     */
+    @Bean
+    public MeterBinder introspectionCacheMetrics(ObjectProvider<OpaqueTokenIntrospector> opaqueTokenIntrospector
+            , ObjectProvider<ReactiveOpaqueTokenIntrospector> reactiveOpaqueTokenIntrospector) {
+        return registry -> {
+            if (opaqueTokenIntrospector.getIfUnique() instanceof CachingOpaqueTokenIntrospector introspector) {
+                CaffeineCacheMetrics.monitor(registry, introspector.getIntrospectionCache().getCache(), "jima.security.introspection");
+                FunctionCounter.builder("jima.security.introspection.coalesced", introspector.getSingleFlight()
+                                , singleFlight -> singleFlight.getCoalesced())
+                        .register(registry);
+            }
+            if (reactiveOpaqueTokenIntrospector.getIfUnique() instanceof CachingReactiveOpaqueTokenIntrospector introspector) {
+                CaffeineCacheMetrics.monitor(registry, introspector.getIntrospectionCache().getCache(), "jima.security.reactive-introspection");
+            }
+        };
+    }
+
+    /**
+     * Hit, miss, eviction and size meters of the token exchange cache, when token exchange is enabled.
+     *
+     * @param tokenExchangeService         the servlet exchange service, if any
+     * @param tokenExchangeReactiveService the reactive exchange service, if any
+     * @return the binder
+     */
+    @Bean
+    public MeterBinder tokenExchangeCacheMetrics(ObjectProvider<TokenExchangeService> tokenExchangeService
+            , ObjectProvider<TokenExchangeReactiveService> tokenExchangeReactiveService) {
+        return registry -> {
+            tokenExchangeService.ifAvailable(service ->
+                    CaffeineCacheMetrics.monitor(registry, service.getTokenExchangeCache().getCache(), "jima.security.token-exchange"));
+            tokenExchangeReactiveService.ifAvailable(service ->
+                    CaffeineCacheMetrics.monitor(registry, service.getTokenExchangeCache().getCache(), "jima.security.reactive-token-exchange"));
+        };
+    }
+
+    /**
+     * Age, refresh and unknown-key meters of the JWK set, when a {@link JwkSetSource} is configured.
+     *
+     * @param jwkSetSource the JWK set source, if any
+     * @return the binder
+     */
+    @Bean
+    public MeterBinder jwkSetSourceMetrics(ObjectProvider<JwkSetSource> jwkSetSource) {
+        return registry -> jwkSetSource.ifAvailable(source -> {
+            Gauge.builder("jima.security.jwks.age", source, s -> seconds(s.getKeySetAge()))
+                    .baseUnit("seconds")
+                    .register(registry);
+            Gauge.builder("jima.security.jwks.refresh.duration", source, s -> seconds(s.getLastRefreshDuration()))
+                    .baseUnit("seconds")
+                    .register(registry);
+            FunctionCounter.builder("jima.security.jwks.refreshes", source, JwkSetSource::getRefreshes)
+                    .tag("outcome", "success")
+                    .register(registry);
+            FunctionCounter.builder("jima.security.jwks.refreshes", source, JwkSetSource::getRefreshFailures)
+                    .tag("outcome", "failure")
+                    .register(registry);
+            FunctionCounter.builder("jima.security.jwks.unknown-keys", source, JwkSetSource::getUnknownKeyRefetches)
+                    .tag("action", "refetch")
+                    .register(registry);
+            FunctionCounter.builder("jima.security.jwks.unknown-keys", source, JwkSetSource::getUnknownKeyRejections)
+                    .tag("action", "reject")
+                    .register(registry);
+        });
+    }
+
+    /**
+     * Sizes of the revocation list, when enabled.
+     *
+     * @param revocationList the revocation list, if any
+     * @return the binder
+     */
+    @Bean
+    public MeterBinder revocationListMetrics(ObjectProvider<RevocationList> revocationList) {
+        return registry -> revocationList.ifAvailable(list -> {
+            Gauge.builder("jima.security.revocation.entries", list, RevocationList::getRevokedTokens)
+                    .tag("kind", "jti")
+                    .register(registry);
+            Gauge.builder("jima.security.revocation.entries", list, RevocationList::getRevokedSessions)
+                    .tag("kind", "sid")
+                    .register(registry);
+        });
+    }
+
+    private static JwtDecoder unwrap(JwtDecoder decoder) {
+        return decoder instanceof RevocationCheckingJwtDecoder revocationChecking ? revocationChecking.getDelegate() : decoder;
+    }
+
+    private static ReactiveJwtDecoder unwrap(ReactiveJwtDecoder decoder) {
+        return decoder instanceof RevocationCheckingReactiveJwtDecoder revocationChecking ? revocationChecking.getDelegate() : decoder;
+    }
+
+    private static double seconds(Duration duration) {
+        return duration == null ? Double.NaN : duration.toMillis() / 1000.0;
+    }
+}
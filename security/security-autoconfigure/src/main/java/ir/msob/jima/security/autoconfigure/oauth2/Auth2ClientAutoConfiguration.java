@@ -1,5 +1,8 @@
 package ir.msob.jima.security.autoconfigure.oauth2;
 
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.core.store.SharedTokenStore;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
@@ -18,7 +21,9 @@ public class Auth2ClientAutoConfiguration {
     @Bean
     public AuthorizedClientServiceOAuth2AuthorizedClientManager authorizedClientManager(
             ClientRegistrationRepository clientRegistrationRepository,
-            OAuth2AuthorizedClientService oAuth2AuthorizedClientService) {
+            OAuth2AuthorizedClientService oAuth2AuthorizedClientService,
+            ObjectProvider<SharedTokenStore> sharedTokenStore,
+            SecurityProperties securityProperties) {
 
         // Define an OAuth2 authorized client provider for client credentials grant.
         OAuth2AuthorizedClientProvider authorizedClientProvider =
@@ -26,6 +31,13 @@ public class Auth2ClientAutoConfiguration {
                         .clientCredentials()
                         .build();
 
+        // Let one replica at a time refresh the token when it is shared between replicas.
+        SharedTokenStore store = sharedTokenStore.getIfAvailable();
+        if (store != null) {
+            authorizedClientProvider = new LeasedOAuth2AuthorizedClientProvider(authorizedClientProvider, store,
+                    securityProperties.getSharedTokenStore());
+        }
+
         // Create the AuthorizedClientServiceOAuth2AuthorizedClientManager.
         AuthorizedClientServiceOAuth2AuthorizedClientManager authorizedClientManager =
                 new AuthorizedClientServiceOAuth2AuthorizedClientManager(
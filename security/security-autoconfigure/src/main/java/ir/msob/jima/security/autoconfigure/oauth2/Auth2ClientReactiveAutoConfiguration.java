@@ -1,5 +1,8 @@
 package ir.msob.jima.security.autoconfigure.oauth2;
 
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.core.store.SharedTokenStore;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -17,7 +20,9 @@ public class Auth2ClientReactiveAutoConfiguration {
     @Bean
     public AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager authorizedClientManager(
             ReactiveClientRegistrationRepository reactiveClientRegistrationRepository,
-            ReactiveOAuth2AuthorizedClientService reactiveOAuth2AuthorizedClientService) {
+            ReactiveOAuth2AuthorizedClientService reactiveOAuth2AuthorizedClientService,
+            ObjectProvider<SharedTokenStore> sharedTokenStore,
+            SecurityProperties securityProperties) {
 
         // Define an OAuth2 authorized client provider for client credentials grant.
         ReactiveOAuth2AuthorizedClientProvider authorizedClientProvider =
@@ -25,6 +30,13 @@ public class Auth2ClientReactiveAutoConfiguration {
                         .clientCredentials()
                         .build();
 
+        // Let one replica at a time refresh the token when it is shared between replicas.
+        SharedTokenStore store = sharedTokenStore.getIfAvailable();
+        if (store != null) {
+            authorizedClientProvider = new LeasedReactiveOAuth2AuthorizedClientProvider(authorizedClientProvider, store,
+                    securityProperties.getSharedTokenStore());
+        }
+
         // Create the AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager.
         AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager authorizedClientManager = new AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager(
                 reactiveClientRegistrationRepository, reactiveOAuth2AuthorizedClientService);
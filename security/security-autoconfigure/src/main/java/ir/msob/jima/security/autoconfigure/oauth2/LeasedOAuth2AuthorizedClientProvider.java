@@ -0,0 +1,117 @@
+package ir.msob.jima.security.autoconfigure.oauth2;
+
+import ir.msob.jima.platform.api.logger.Logger;
+import ir.msob.jima.platform.api.logger.LoggerFactory;
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.core.store.SharedTokenStore;
+import ir.msob.jima.security.core.store.StoredToken;
+import org.springframework.security.oauth2.client.OAuth2AuthorizationContext;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientProvider;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link OAuth2AuthorizedClientProvider} that lets one replica at a time request a client-credentials
+ * token, for non-reactive (Servlet-based) applications.
+ * <p>
+ * When the held token needs renewing, the provider first looks for a newer token in the
+ * {@link SharedTokenStore}. Otherwise the replica taking the registration's lease requests the token and
+ * stores it before releasing the lease, while the other replicas poll the store for it. A replica that
+ * waited {@code lease-wait} in vain requests a token itself, so a failing lease holder never blocks the
+ * others for good.
+ * <p>
+ * Callers renewing a token that is not expired yet, such as the background refresh, pass it as the
+ * {@link #HELD_TOKEN_ATTRIBUTE_NAME} attribute so a token refreshed by another replica is recognized as newer.
+ *
+ * @author Yaqub Abdi
+ */
+public class LeasedOAuth2AuthorizedClientProvider implements OAuth2AuthorizedClientProvider {
+
+    /**
+     * Context attribute holding the {@link OAuth2AccessToken} the caller wants to replace.
+     */
+    public static final String HELD_TOKEN_ATTRIBUTE_NAME = LeasedOAuth2AuthorizedClientProvider.class.getName() + ".HELD_TOKEN";
+
+    private static final Logger logger = LoggerFactory.getLogger(LeasedOAuth2AuthorizedClientProvider.class);
+
+    private final OAuth2AuthorizedClientProvider delegate;
+    private final SharedTokenStore sharedTokenStore;
+    private final SecurityProperties.SharedTokenStoreProperties properties;
+
+    public LeasedOAuth2AuthorizedClientProvider(OAuth2AuthorizedClientProvider delegate, SharedTokenStore sharedTokenStore
+            , SecurityProperties.SharedTokenStoreProperties properties) {
+        this.delegate = delegate;
+        this.sharedTokenStore = sharedTokenStore;
+        this.properties = properties;
+    }
+
+    @Override
+    public OAuth2AuthorizedClient authorize(OAuth2AuthorizationContext context) {
+        ClientRegistration clientRegistration = context.getClientRegistration();
+        OAuth2AuthorizedClient current = context.getAuthorizedClient();
+        if (!AuthorizationGrantType.CLIENT_CREDENTIALS.equals(clientRegistration.getAuthorizationGrantType())
+                || (current != null && SharedOAuth2AuthorizedClientService.isFresh(current, properties.getClockSkew()))) {
+            return delegate.authorize(context);
+        }
+        String principalName = context.getPrincipal().getName();
+        String heldToken = heldToken(context);
+        long deadline = System.nanoTime() + properties.getLeaseWait().toNanos();
+        while (true) {
+            OAuth2AuthorizedClient shared = newerStoredClient(clientRegistration, principalName, heldToken);
+            if (shared != null) {
+                return shared;
+            }
+            try (SharedTokenStore.Lease lease = sharedTokenStore.tryLease(clientRegistration.getRegistrationId()
+                    , principalName, properties.getLeaseTtl())) {
+                if (lease != null) {
+                    return refresh(context, principalName, heldToken);
+                }
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                logger.warn("No shared token for client {} within {}, requesting one", clientRegistration.getRegistrationId()
+                        , properties.getLeaseWait());
+                return delegate.authorize(context);
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(properties.getPollInterval().toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return delegate.authorize(context);
+            }
+        }
+    }
+
+    private OAuth2AuthorizedClient refresh(OAuth2AuthorizationContext context, String principalName, String heldToken) {
+        // Another replica may have released the lease just before this one took it.
+        OAuth2AuthorizedClient shared = newerStoredClient(context.getClientRegistration(), principalName, heldToken);
+        if (shared != null) {
+            return shared;
+        }
+        OAuth2AuthorizedClient authorizedClient = delegate.authorize(context);
+        if (authorizedClient != null) {
+            sharedTokenStore.save(StoredToken.of(context.getClientRegistration().getRegistrationId(), principalName
+                    , authorizedClient.getAccessToken()));
+        }
+        return authorizedClient;
+    }
+
+    private OAuth2AuthorizedClient newerStoredClient(ClientRegistration clientRegistration, String principalName, String heldToken) {
+        StoredToken stored = sharedTokenStore.load(clientRegistration.getRegistrationId(), principalName);
+        if (stored == null || !stored.isFresh(properties.getClockSkew()) || stored.tokenValue().equals(heldToken)) {
+            return null;
+        }
+        return new OAuth2AuthorizedClient(clientRegistration, principalName, stored.toAccessToken());
+    }
+
+    static String heldToken(OAuth2AuthorizationContext context) {
+        if (context.getAttribute(HELD_TOKEN_ATTRIBUTE_NAME) instanceof OAuth2AccessToken token) {
+            return token.getTokenValue();
+        }
+        OAuth2AuthorizedClient current = context.getAuthorizedClient();
+        return current == null ? null : current.getAccessToken().getTokenValue();
+    }
+}
@@ -0,0 +1,101 @@
+package ir.msob.jima.security.autoconfigure.oauth2;
+
+import ir.msob.jima.platform.api.logger.Logger;
+import ir.msob.jima.platform.api.logger.LoggerFactory;
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.core.store.SharedTokenStore;
+import ir.msob.jima.security.core.store.StoredToken;
+import org.springframework.security.oauth2.client.OAuth2AuthorizationContext;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientProvider;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+/**
+ * {@link ReactiveOAuth2AuthorizedClientProvider} that lets one replica at a time request a
+ * client-credentials token, for reactive applications.
+ * <p>
+ * Behaves like {@link LeasedOAuth2AuthorizedClientProvider}; the store is called on the bounded elastic
+ * scheduler and waiting replicas poll it with a delay instead of sleeping.
+ *
+ * @author Yaqub Abdi
+ */
+public class LeasedReactiveOAuth2AuthorizedClientProvider implements ReactiveOAuth2AuthorizedClientProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeasedReactiveOAuth2AuthorizedClientProvider.class);
+
+    private final ReactiveOAuth2AuthorizedClientProvider delegate;
+    private final SharedTokenStore sharedTokenStore;
+    private final SecurityProperties.SharedTokenStoreProperties properties;
+
+    public LeasedReactiveOAuth2AuthorizedClientProvider(ReactiveOAuth2AuthorizedClientProvider delegate
+            , SharedTokenStore sharedTokenStore, SecurityProperties.SharedTokenStoreProperties properties) {
+        this.delegate = delegate;
+        this.sharedTokenStore = sharedTokenStore;
+        this.properties = properties;
+    }
+
+    @Override
+    public Mono<OAuth2AuthorizedClient> authorize(OAuth2AuthorizationContext context) {
+        ClientRegistration clientRegistration = context.getClientRegistration();
+        OAuth2AuthorizedClient current = context.getAuthorizedClient();
+        if (!AuthorizationGrantType.CLIENT_CREDENTIALS.equals(clientRegistration.getAuthorizationGrantType())
+                || (current != null && SharedOAuth2AuthorizedClientService.isFresh(current, properties.getClockSkew()))) {
+            return delegate.authorize(context);
+        }
+        String principalName = context.getPrincipal().getName();
+        String heldToken = LeasedOAuth2AuthorizedClientProvider.heldToken(context);
+        return Mono.defer(() -> attempt(context, principalName, heldToken, System.nanoTime() + properties.getLeaseWait().toNanos()));
+    }
+
+    private Mono<OAuth2AuthorizedClient> attempt(OAuth2AuthorizationContext context, String principalName, String heldToken
+            , long deadline) {
+        ClientRegistration clientRegistration = context.getClientRegistration();
+        return newerStoredClient(clientRegistration, principalName, heldToken)
+                .switchIfEmpty(blocking(() -> Optional.ofNullable(sharedTokenStore.tryLease(
+                                clientRegistration.getRegistrationId(), principalName, properties.getLeaseTtl())))
+                        .flatMap(lease -> lease.isPresent()
+                                ? refresh(context, principalName, heldToken, lease.get())
+                                : waitForStore(context, principalName, heldToken, deadline)));
+    }
+
+    private Mono<OAuth2AuthorizedClient> waitForStore(OAuth2AuthorizationContext context, String principalName
+            , String heldToken, long deadline) {
+        if (System.nanoTime() - deadline >= 0) {
+            logger.warn("No shared token for client {} within {}, requesting one"
+                    , context.getClientRegistration().getRegistrationId(), properties.getLeaseWait());
+            return delegate.authorize(context);
+        }
+        return Mono.delay(properties.getPollInterval())
+                .then(Mono.defer(() -> attempt(context, principalName, heldToken, deadline)));
+    }
+
+    private Mono<OAuth2AuthorizedClient> refresh(OAuth2AuthorizationContext context, String principalName
+            , String heldToken, SharedTokenStore.Lease lease) {
+        // Another replica may have released the lease just before this one took it.
+        return newerStoredClient(context.getClientRegistration(), principalName, heldToken)
+                .switchIfEmpty(Mono.defer(() -> delegate.authorize(context))
+                        .flatMap(authorizedClient -> blocking(() -> {
+                            sharedTokenStore.save(StoredToken.of(context.getClientRegistration().getRegistrationId()
+                                    , principalName, authorizedClient.getAccessToken()));
+                            return authorizedClient;
+                        })))
+                .doFinally(signal -> lease.close());
+    }
+
+    private Mono<OAuth2AuthorizedClient> newerStoredClient(ClientRegistration clientRegistration, String principalName
+            , String heldToken) {
+        return blocking(() -> sharedTokenStore.load(clientRegistration.getRegistrationId(), principalName))
+                .filter(stored -> stored.isFresh(properties.getClockSkew()) && !stored.tokenValue().equals(heldToken))
+                .map(stored -> new OAuth2AuthorizedClient(clientRegistration, principalName, stored.toAccessToken()));
+    }
+
+    private static <T> Mono<T> blocking(Callable<T> callable) {
+        return Mono.fromCallable(callable).subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,83 @@
+package ir.msob.jima.security.autoconfigure.oauth2;
+
+import ir.msob.jima.security.core.store.SharedTokenStore;
+import ir.msob.jima.security.core.store.StoredToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.registration.ReactiveClientRegistrationRepository;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link ReactiveOAuth2AuthorizedClientService} backed by a {@link SharedTokenStore}, for reactive
+ * applications.
+ * <p>
+ * Behaves like {@link SharedOAuth2AuthorizedClientService}; a fresh local client completes synchronously,
+ * and the blocking store is only called on the bounded elastic scheduler.
+ *
+ * @author Yaqub Abdi
+ */
+public class ReactiveSharedOAuth2AuthorizedClientService implements ReactiveOAuth2AuthorizedClientService {
+
+    private final ReactiveClientRegistrationRepository clientRegistrationRepository;
+    private final SharedTokenStore sharedTokenStore;
+    private final Duration clockSkew;
+    private final ConcurrentMap<SharedOAuth2AuthorizedClientService.Key, OAuth2AuthorizedClient> authorizedClients = new ConcurrentHashMap<>();
+
+    public ReactiveSharedOAuth2AuthorizedClientService(ReactiveClientRegistrationRepository clientRegistrationRepository
+            , SharedTokenStore sharedTokenStore, Duration clockSkew) {
+        this.clientRegistrationRepository = clientRegistrationRepository;
+        this.sharedTokenStore = sharedTokenStore;
+        this.clockSkew = clockSkew;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends OAuth2AuthorizedClient> Mono<T> loadAuthorizedClient(String clientRegistrationId, String principalName) {
+        SharedOAuth2AuthorizedClientService.Key key = new SharedOAuth2AuthorizedClientService.Key(clientRegistrationId, principalName);
+        OAuth2AuthorizedClient local = authorizedClients.get(key);
+        if (local != null && SharedOAuth2AuthorizedClientService.isFresh(local, clockSkew)) {
+            return Mono.just((T) local);
+        }
+        return Mono.fromCallable(() -> sharedTokenStore.load(clientRegistrationId, principalName))
+                .subscribeOn(Schedulers.boundedElastic())
+                .filter(stored -> local == null || !stored.tokenValue().equals(local.getAccessToken().getTokenValue()))
+                .flatMap(stored -> clientRegistrationRepository.findByRegistrationId(clientRegistrationId)
+                        .map(clientRegistration -> {
+                            OAuth2AuthorizedClient shared = new OAuth2AuthorizedClient(clientRegistration, principalName
+                                    , stored.toAccessToken());
+                            authorizedClients.put(key, shared);
+                            return shared;
+                        }))
+                .switchIfEmpty(Mono.justOrEmpty(local))
+                .map(authorizedClient -> (T) authorizedClient);
+    }
+
+    @Override
+    public Mono<Void> saveAuthorizedClient(OAuth2AuthorizedClient authorizedClient, Authentication principal) {
+        String clientRegistrationId = authorizedClient.getClientRegistration().getRegistrationId();
+        return Mono.fromRunnable(() -> {
+                    authorizedClients.put(new SharedOAuth2AuthorizedClientService.Key(clientRegistrationId, principal.getName())
+                            , authorizedClient);
+                    sharedTokenStore.save(StoredToken.of(clientRegistrationId, principal.getName()
+                            , authorizedClient.getAccessToken()));
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+
+    @Override
+    public Mono<Void> removeAuthorizedClient(String clientRegistrationId, String principalName) {
+        return Mono.fromRunnable(() -> {
+                    authorizedClients.remove(new SharedOAuth2AuthorizedClientService.Key(clientRegistrationId, principalName));
+                    sharedTokenStore.remove(clientRegistrationId, principalName);
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .then();
+    }
+}
@@ -0,0 +1,81 @@
+package ir.msob.jima.security.autoconfigure.oauth2;
+
+import ir.msob.jima.security.core.store.SharedTokenStore;
+import ir.msob.jima.security.core.store.StoredToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link OAuth2AuthorizedClientService} backed by a {@link SharedTokenStore}, for non-reactive
+ * (Servlet-based) applications.
+ * <p>
+ * Authorized clients are also kept in memory; the store is only read when the local token is about to
+ * expire, so a replica picks up a token another replica refreshed without reading the store on every call.
+ * Refresh tokens are not shared, client credentials have none.
+ *
+ * @author Yaqub Abdi
+ */
+public class SharedOAuth2AuthorizedClientService implements OAuth2AuthorizedClientService {
+
+    private final ClientRegistrationRepository clientRegistrationRepository;
+    private final SharedTokenStore sharedTokenStore;
+    private final Duration clockSkew;
+    private final ConcurrentMap<Key, OAuth2AuthorizedClient> authorizedClients = new ConcurrentHashMap<>();
+
+    public SharedOAuth2AuthorizedClientService(ClientRegistrationRepository clientRegistrationRepository
+            , SharedTokenStore sharedTokenStore, Duration clockSkew) {
+        this.clientRegistrationRepository = clientRegistrationRepository;
+        this.sharedTokenStore = sharedTokenStore;
+        this.clockSkew = clockSkew;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends OAuth2AuthorizedClient> T loadAuthorizedClient(String clientRegistrationId, String principalName) {
+        Key key = new Key(clientRegistrationId, principalName);
+        OAuth2AuthorizedClient local = authorizedClients.get(key);
+        if (local != null && isFresh(local, clockSkew)) {
+            return (T) local;
+        }
+        StoredToken stored = sharedTokenStore.load(clientRegistrationId, principalName);
+        if (stored == null || (local != null && stored.tokenValue().equals(local.getAccessToken().getTokenValue()))) {
+            return (T) local;
+        }
+        ClientRegistration clientRegistration = clientRegistrationRepository.findByRegistrationId(clientRegistrationId);
+        if (clientRegistration == null) {
+            return null;
+        }
+        OAuth2AuthorizedClient shared = new OAuth2AuthorizedClient(clientRegistration, principalName, stored.toAccessToken());
+        authorizedClients.put(key, shared);
+        return (T) shared;
+    }
+
+    @Override
+    public void saveAuthorizedClient(OAuth2AuthorizedClient authorizedClient, Authentication principal) {
+        String clientRegistrationId = authorizedClient.getClientRegistration().getRegistrationId();
+        authorizedClients.put(new Key(clientRegistrationId, principal.getName()), authorizedClient);
+        sharedTokenStore.save(StoredToken.of(clientRegistrationId, principal.getName(), authorizedClient.getAccessToken()));
+    }
+
+    @Override
+    public void removeAuthorizedClient(String clientRegistrationId, String principalName) {
+        authorizedClients.remove(new Key(clientRegistrationId, principalName));
+        sharedTokenStore.remove(clientRegistrationId, principalName);
+    }
+
+    static boolean isFresh(OAuth2AuthorizedClient authorizedClient, Duration clockSkew) {
+        Instant expiresAt = authorizedClient.getAccessToken().getExpiresAt();
+        return expiresAt == null || Instant.now().plus(clockSkew).isBefore(expiresAt);
+    }
+
+    record Key(String clientRegistrationId, String principalName) {
+    }
+}
@@ -0,0 +1,61 @@
+package ir.msob.jima.security.autoconfigure.oauth2;
+
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.core.store.FileSharedTokenStore;
+import ir.msob.jima.security.core.store.SharedTokenStore;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.client.registration.ReactiveClientRegistrationRepository;
+
+import java.nio.file.Path;
+
+/**
+ * Spring configuration of the client token store shared by the replicas of a service.
+ * <p>
+ * Enabled by {@code jima.security.shared-token-store.enabled}. A {@link SharedTokenStore} bean of the
+ * application, e.g. one backed by a database or a distributed cache, replaces the file-backed default.
+ *
+ * @author Yaqub Abdi
+ */
+@AutoConfiguration
+@ConditionalOnProperty(prefix = "jima.security.shared-token-store", name = "enabled", havingValue = "true")
+public class SharedTokenStoreAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    SharedTokenStore sharedTokenStore(SecurityProperties securityProperties) {
+        return new FileSharedTokenStore(Path.of(securityProperties.getSharedTokenStore().getDirectory()));
+    }
+
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class Servlet {
+
+        @Bean
+        OAuth2AuthorizedClientService sharedOAuth2AuthorizedClientService(ClientRegistrationRepository clientRegistrationRepository
+                , SharedTokenStore sharedTokenStore, SecurityProperties securityProperties) {
+            return new SharedOAuth2AuthorizedClientService(clientRegistrationRepository, sharedTokenStore
+                    , securityProperties.getSharedTokenStore().getClockSkew());
+        }
+    }
+
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    static class Reactive {
+
+        @Bean
+        ReactiveOAuth2AuthorizedClientService sharedReactiveOAuth2AuthorizedClientService(
+                ReactiveClientRegistrationRepository clientRegistrationRepository
+                , SharedTokenStore sharedTokenStore, SecurityProperties securityProperties) {
+            return new ReactiveSharedOAuth2AuthorizedClientService(clientRegistrationRepository, sharedTokenStore
+                    , securityProperties.getSharedTokenStore().getClockSkew());
+        }
+    }
+}
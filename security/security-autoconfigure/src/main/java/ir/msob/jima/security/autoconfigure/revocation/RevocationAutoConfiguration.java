@@ -0,0 +1,40 @@
+package ir.msob.jima.security.autoconfigure.revocation;
+
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.core.revocation.FileRevocationFeed;
+import ir.msob.jima.security.core.revocation.RevocationFeed;
+import ir.msob.jima.security.core.revocation.RevocationList;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+import java.nio.file.Path;
+
+/**
+ * Spring configuration of the token revocation list.
+ * <p>
+ * Enabled by {@code jima.security.revocation.enabled}. Every {@link RevocationFeed} bean is started into the
+ * list, and the JWT decoders reject tokens whose {@code jti} or {@code sid} it holds. A file feed is
+ * configured from {@code jima.security.revocation.file}; the Kafka module contributes a topic feed.
+ *
+ * @author Yaqub Abdi
+ */
+@AutoConfiguration
+@ConditionalOnProperty(prefix = "jima.security.revocation", name = "enabled", havingValue = "true")
+public class RevocationAutoConfiguration {
+
+    @Bean
+    public RevocationList revocationList(SecurityProperties securityProperties, ObjectProvider<RevocationFeed> revocationFeeds) {
+        RevocationList revocationList = new RevocationList(securityProperties.getRevocation());
+        revocationFeeds.orderedStream().forEach(feed -> feed.start(revocationList::apply));
+        return revocationList;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "jima.security.revocation", name = "file")
+    public FileRevocationFeed fileRevocationFeed(SecurityProperties securityProperties) {
+        SecurityProperties.RevocationProperties properties = securityProperties.getRevocation();
+        return new FileRevocationFeed(Path.of(properties.getFile()), properties.getFilePollInterval());
+    }
+}
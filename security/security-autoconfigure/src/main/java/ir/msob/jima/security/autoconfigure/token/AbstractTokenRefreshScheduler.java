@@ -0,0 +1,218 @@
+package ir.msob.jima.security.autoconfigure.token;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import ir.msob.jima.platform.api.logger.Logger;
+import ir.msob.jima.platform.api.logger.LoggerFactory;
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static ir.msob.jima.security.core.metrics.SecurityMetrics.*;
+
+/**
+ * Base class of the schedulers that renew client-credentials tokens before they expire.
+ * <p>
+ * For every client registration, a new token is requested once the configured fraction of the
+ * current token's lifetime has elapsed, minus a random jitter. The new token is stored in the
+ * authorized client service only when it has been obtained, so callers keep receiving the
+ * still-valid old token while the refresh is running and never wait for the token endpoint.
+ *
+ * @author Yaqub Abdi
+ */
+public abstract class AbstractTokenRefreshScheduler implements SmartLifecycle, MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(AbstractTokenRefreshScheduler.class);
+
+    protected final SecurityProperties securityProperties;
+    /**
+     * Expiry of the token last seen per registration, read by the expiry gauge so a scrape never
+     * reaches the authorized client store.
+     */
+    private final ConcurrentMap<String, Instant> expiries = new ConcurrentHashMap<>();
+    private ScheduledExecutorService executor;
+    private volatile MeterRegistry meterRegistry;
+
+    protected AbstractTokenRefreshScheduler(SecurityProperties securityProperties) {
+        this.securityProperties = securityProperties;
+    }
+
+    /**
+     * Builds the principal the token services use for a registration, so refreshed clients
+     * are stored under the same key they are read from.
+     *
+     * @param clientRegistrationId the client registration id
+     * @return the principal
+     */
+    protected static Authentication principal(String clientRegistrationId) {
+        return OAuth2AuthorizeRequest.withClientRegistrationId(clientRegistrationId)
+                .principal(clientRegistrationId)
+                .build()
+                .getPrincipal();
+    }
+
+    /**
+     * Returns the registrations whose tokens are kept fresh.
+     *
+     * @return the client registration ids
+     */
+    protected Collection<String> getClientRegistrationIds() {
+        return List.of(securityProperties.getDefaultClientRegistrationId());
+    }
+
+    /**
+     * Returns the token currently stored for the registration, if any.
+     *
+     * @param clientRegistrationId the client registration id
+     * @return the current token or {@code null}
+     */
+    protected abstract OAuth2AccessToken currentToken(String clientRegistrationId);
+
+    /**
+     * Requests a new token for the registration and stores it once obtained.
+     *
+     * @param clientRegistrationId the client registration id
+     * @return a stage completing with the new token
+     */
+    protected abstract CompletionStage<OAuth2AccessToken> refresh(String clientRegistrationId);
+
+    /**
+     * Publishes, per registration, the time left until the token last obtained or found at start expires;
+     * refresh outcomes are counted once bound.
+     *
+     * @param registry the meter registry
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        meterRegistry = registry;
+        for (String clientRegistrationId : getClientRegistrationIds()) {
+            Gauge.builder(TOKEN_EXPIRY, this, scheduler -> scheduler.secondsUntilExpiry(clientRegistrationId))
+                    .tag(TAG_CLIENT, clientRegistrationId)
+                    .baseUnit("seconds")
+                    .register(registry);
+        }
+    }
+
+    private double secondsUntilExpiry(String clientRegistrationId) {
+        Instant expiresAt = expiries.get(clientRegistrationId);
+        if (expiresAt == null) {
+            return Double.NaN;
+        }
+        return Duration.between(Instant.now(), expiresAt).toMillis() / 1000.0;
+    }
+
+    private void remember(String clientRegistrationId, OAuth2AccessToken token) {
+        if (token == null || token.getExpiresAt() == null) {
+            expiries.remove(clientRegistrationId);
+        } else {
+            expiries.put(clientRegistrationId, token.getExpiresAt());
+        }
+    }
+
+    private void countRefresh(String clientRegistrationId, String outcome) {
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            registry.counter(TOKEN_REFRESH, TAG_CLIENT, clientRegistrationId, TAG_OUTCOME, outcome).increment();
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jima-token-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (String clientRegistrationId : getClientRegistrationIds()) {
+            OAuth2AccessToken token = currentToken(clientRegistrationId);
+            remember(clientRegistrationId, token);
+            schedule(clientRegistrationId, delayUntilRefresh(token));
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return executor != null;
+    }
+
+    private synchronized void schedule(String clientRegistrationId, Duration delay) {
+        if (executor == null) {
+            return;
+        }
+        logger.debug("Next token refresh for client {} in {}", clientRegistrationId, delay);
+        executor.schedule(() -> runRefresh(clientRegistrationId), delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void runRefresh(String clientRegistrationId) {
+        CompletionStage<OAuth2AccessToken> stage;
+        try {
+            stage = refresh(clientRegistrationId);
+        } catch (Exception e) {
+            onFailure(clientRegistrationId, e);
+            return;
+        }
+        stage.whenComplete((token, error) -> {
+            if (error != null) {
+                onFailure(clientRegistrationId, error);
+            } else {
+                countRefresh(clientRegistrationId, OUTCOME_SUCCESS);
+                remember(clientRegistrationId, token);
+                schedule(clientRegistrationId, delayUntilRefresh(token));
+            }
+        });
+    }
+
+    private void onFailure(String clientRegistrationId, Throwable error) {
+        countRefresh(clientRegistrationId, OUTCOME_FAILURE);
+        logger.warn("Background token refresh failed for client {}: {}", clientRegistrationId, error.getMessage());
+        schedule(clientRegistrationId, securityProperties.getTokenRefresh().getRetryDelay());
+    }
+
+    /**
+     * Computes the delay until the token should be refreshed: the configured fraction of its
+     * lifetime minus a random jitter, never shorter than the minimum delay. A missing token or one
+     * without an expiry is refreshed after the minimum delay.
+     *
+     * @param token the current token
+     * @return the delay
+     */
+    Duration delayUntilRefresh(OAuth2AccessToken token) {
+        SecurityProperties.TokenRefreshProperties properties = securityProperties.getTokenRefresh();
+        Duration minimumDelay = properties.getMinimumDelay();
+        if (token == null || token.getExpiresAt() == null) {
+            return minimumDelay;
+        }
+        Instant issuedAt = token.getIssuedAt() != null ? token.getIssuedAt() : Instant.now();
+        long lifetime = Duration.between(issuedAt, token.getExpiresAt()).toMillis();
+        long jitter = (long) (lifetime * properties.getJitterRatio() * ThreadLocalRandom.current().nextDouble());
+        Instant refreshAt = issuedAt.plusMillis((long) (lifetime * properties.getRefreshRatio()) - jitter);
+        Duration delay = Duration.between(Instant.now(), refreshAt);
+        return delay.compareTo(minimumDelay) < 0 ? minimumDelay : delay;
+    }
+}
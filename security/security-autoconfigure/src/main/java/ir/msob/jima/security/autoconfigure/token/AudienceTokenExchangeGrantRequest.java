@@ -0,0 +1,47 @@
+package ir.msob.jima.security.autoconfigure.token;
+
+import lombok.Getter;
+import org.springframework.security.oauth2.client.endpoint.TokenExchangeGrantRequest;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.OAuth2Token;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * {@link TokenExchangeGrantRequest} that also asks for a target audience (RFC 8693, section 2.1).
+ * <p>
+ * The stock response clients do not send an audience; register {@link #audienceParameter} as an additional
+ * parameters converter to add it.
+ *
+ * @author Yaqub Abdi
+ */
+@Getter
+public class AudienceTokenExchangeGrantRequest extends TokenExchangeGrantRequest {
+
+    /**
+     * The {@code audience} request parameter.
+     */
+    public static final String AUDIENCE = "audience";
+
+    private final String audience;
+
+    public AudienceTokenExchangeGrantRequest(ClientRegistration clientRegistration, OAuth2Token subjectToken
+            , String audience) {
+        super(clientRegistration, subjectToken, null);
+        this.audience = audience;
+    }
+
+    /**
+     * Parameters converter adding the audience of an {@link AudienceTokenExchangeGrantRequest}.
+     *
+     * @param grantRequest the grant request
+     * @return the additional parameters
+     */
+    public static MultiValueMap<String, String> audienceParameter(TokenExchangeGrantRequest grantRequest) {
+        MultiValueMap<String, String> parameters = new LinkedMultiValueMap<>();
+        if (grantRequest instanceof AudienceTokenExchangeGrantRequest request && request.getAudience() != null) {
+            parameters.add(AUDIENCE, request.getAudience());
+        }
+        return parameters;
+    }
+}
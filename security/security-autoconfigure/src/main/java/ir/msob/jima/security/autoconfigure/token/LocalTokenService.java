@@ -0,0 +1,63 @@
+package ir.msob.jima.security.autoconfigure.token;
+
+import ir.msob.jima.security.core.jwt.LocalJwtIssuer;
+import ir.msob.jima.security.reactive.token.BaseReactiveTokenService;
+import org.springframework.security.oauth2.jwt.Jwt;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Token service that mints service tokens in-process with {@link LocalJwtIssuer} instead of
+ * requesting them from the identity provider.
+ * <p>
+ * A minted token is reused until less than a quarter of its lifetime remains, so signing happens
+ * once per token lifetime rather than per call.
+ *
+ * @author Yaqub Abdi
+ */
+public class LocalTokenService implements BaseReactiveTokenService {
+
+    private final LocalJwtIssuer issuer;
+    private final AtomicReference<Jwt> current = new AtomicReference<>();
+
+    public LocalTokenService(LocalJwtIssuer issuer) {
+        this.issuer = issuer;
+    }
+
+    private static boolean isFresh(Jwt jwt) {
+        if (jwt == null) {
+            return false;
+        }
+        Duration lifetime = Duration.between(jwt.getIssuedAt(), jwt.getExpiresAt());
+        return Instant.now().isBefore(jwt.getExpiresAt().minus(lifetime.dividedBy(4)));
+    }
+
+    /**
+     * Returns the current local token, minting a new one when needed.
+     *
+     * @return the token
+     */
+    @Override
+    public String getToken() {
+        Jwt jwt = current.get();
+        if (!isFresh(jwt)) {
+            Jwt minted = issuer.issue();
+            current.compareAndSet(jwt, minted);
+            jwt = minted;
+        }
+        return jwt.getTokenValue();
+    }
+
+    /**
+     * Minting is CPU-only and fast, so the token is produced on the subscribing thread.
+     *
+     * @return a Mono emitting the token
+     */
+    @Override
+    public Mono<String> getReactiveToken() {
+        return Mono.fromSupplier(this::getToken);
+    }
+}
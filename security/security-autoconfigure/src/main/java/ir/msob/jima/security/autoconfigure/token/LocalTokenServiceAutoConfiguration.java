@@ -0,0 +1,25 @@
+package ir.msob.jima.security.autoconfigure.token;
+
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.core.jwt.LocalJwtIssuer;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Provides the {@link LocalTokenService} when {@code jima.security.local-token.issue} is set,
+ * in place of the identity-provider backed token services.
+ *
+ * @author Yaqub Abdi
+ */
+@AutoConfiguration
+@ConditionalOnProperty(prefix = "jima.security.local-token", name = "issue", havingValue = "true")
+public class LocalTokenServiceAutoConfiguration {
+
+    @Bean
+    LocalTokenService localTokenService(SecurityProperties securityProperties) {
+        return new LocalTokenService(new LocalJwtIssuer(securityProperties.getClientCredentialsToken()
+                , securityProperties.getLocalToken().getIssuer()));
+    }
+
+}
@@ -0,0 +1,28 @@
+package ir.msob.jima.security.autoconfigure.token;
+
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.reactive.token.BaseRegistrationTokenService;
+import ir.msob.jima.security.reactive.token.RegistrationTokenCache;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Spring configuration of the per-registration token cache used by client routing.
+ * <p>
+ * Enabled by {@code jima.security.client-routing.enabled}. Requires a token service that serves any
+ * registration ({@link TokenService} or {@link TokenReactiveService}), so it cannot be combined with
+ * locally issued tokens.
+ *
+ * @author Yaqub Abdi
+ */
+@AutoConfiguration
+@ConditionalOnProperty(prefix = "jima.security.client-routing", name = "enabled", havingValue = "true")
+public class RegistrationTokenCacheAutoConfiguration {
+
+    @Bean
+    public RegistrationTokenCache registrationTokenCache(BaseRegistrationTokenService tokenService
+            , SecurityProperties securityProperties) {
+        return new RegistrationTokenCache(tokenService, securityProperties.getClientRouting().getTokenRefreshBefore());
+    }
+}
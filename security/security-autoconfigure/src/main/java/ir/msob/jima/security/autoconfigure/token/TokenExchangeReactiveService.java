@@ -0,0 +1,93 @@
+package ir.msob.jima.security.autoconfigure.token;
+
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.core.exchange.TokenExchangeCache;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.oauth2.client.endpoint.ReactiveOAuth2AccessTokenResponseClient;
+import org.springframework.security.oauth2.client.endpoint.TokenExchangeGrantRequest;
+import org.springframework.security.oauth2.client.registration.ReactiveClientRegistrationRepository;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AccessTokenResponse;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Exchanges the inbound user token for a token scoped to a downstream audience (RFC 8693), for reactive
+ * applications.
+ * <p>
+ * A cached token completes synchronously; concurrent exchanges of the same token for the same audience
+ * share one request to the identity provider.
+ *
+ * @author Yaqub Abdi
+ */
+@RequiredArgsConstructor
+public class TokenExchangeReactiveService {
+
+    private final ReactiveClientRegistrationRepository clientRegistrationRepository;
+    private final ReactiveOAuth2AccessTokenResponseClient<TokenExchangeGrantRequest> tokenResponseClient;
+    private final SecurityProperties securityProperties;
+    @Getter
+    private final TokenExchangeCache tokenExchangeCache;
+
+    /**
+     * The exchanges currently in progress per subject token and audience, each shared by every caller
+     * that arrives before it completes.
+     */
+    private final ConcurrentMap<TokenExchangeCache.Key, Mono<OAuth2AccessToken>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Exchanges the token of the current authentication.
+     *
+     * @param audience the downstream audience
+     * @return a Mono emitting the exchanged token, or an {@link IllegalStateException} when the current
+     * authentication is not a {@link JwtAuthenticationToken}
+     */
+    public Mono<String> exchange(String audience) {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(JwtAuthenticationToken.class::isInstance)
+                .cast(JwtAuthenticationToken.class)
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("No JWT authentication to exchange")))
+                .flatMap(authentication -> exchange(authentication, audience));
+    }
+
+    /**
+     * Exchanges the token of an authentication.
+     *
+     * @param authentication the inbound authentication
+     * @param audience       the downstream audience
+     * @return a Mono emitting the exchanged token
+     */
+    public Mono<String> exchange(JwtAuthenticationToken authentication, String audience) {
+        return Mono.defer(() -> {
+            Jwt subjectToken = authentication.getToken();
+            TokenExchangeCache.Key key = TokenExchangeCache.Key.of(subjectToken.getTokenValue(), audience);
+            OAuth2AccessToken token = tokenExchangeCache.get(key);
+            if (token != null) {
+                return Mono.just(token.getTokenValue());
+            }
+            return inFlight.computeIfAbsent(key, k -> load(k, subjectToken, audience))
+                    .map(OAuth2AccessToken::getTokenValue);
+        });
+    }
+
+    private Mono<OAuth2AccessToken> load(TokenExchangeCache.Key key, Jwt subjectToken, String audience) {
+        String registrationId = securityProperties.getTokenExchange().getRegistrationId();
+        return clientRegistrationRepository.findByRegistrationId(registrationId)
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Unknown token exchange client registration: "
+                        + registrationId)))
+                .flatMap(clientRegistration -> tokenResponseClient.getTokenResponse(
+                        new AudienceTokenExchangeGrantRequest(clientRegistration, subjectToken, audience)))
+                .map(OAuth2AccessTokenResponse::getAccessToken)
+                .doOnNext(token -> tokenExchangeCache.put(key, token))
+                .doFinally(signal -> inFlight.remove(key))
+                .cache();
+    }
+}
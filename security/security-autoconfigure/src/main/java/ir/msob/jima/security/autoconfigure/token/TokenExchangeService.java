@@ -0,0 +1,93 @@
+package ir.msob.jima.security.autoconfigure.token;
+
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.api.util.SingleFlight;
+import ir.msob.jima.security.core.exchange.TokenExchangeCache;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AccessTokenResponseClient;
+import org.springframework.security.oauth2.client.endpoint.TokenExchangeGrantRequest;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+/**
+ * Exchanges the inbound user token for a token scoped to a downstream audience (RFC 8693), for
+ * non-reactive (Servlet-based) applications.
+ * <p>
+ * Exchanged tokens are cached by subject token digest and audience until shortly before they expire, and
+ * concurrent exchanges of the same token for the same audience are coalesced, so a hop reaches the
+ * identity provider once per user token and audience.
+ *
+ * @author Yaqub Abdi
+ */
+@RequiredArgsConstructor
+public class TokenExchangeService {
+
+    private final ClientRegistrationRepository clientRegistrationRepository;
+    private final OAuth2AccessTokenResponseClient<TokenExchangeGrantRequest> tokenResponseClient;
+    private final SecurityProperties securityProperties;
+    @Getter
+    private final TokenExchangeCache tokenExchangeCache;
+
+    /**
+     * Coalesces concurrent exchanges per subject token and audience.
+     */
+    @Getter
+    private final SingleFlight<TokenExchangeCache.Key, OAuth2AccessToken> singleFlight = new SingleFlight<>();
+
+    /**
+     * Exchanges the token of the current authentication.
+     *
+     * @param audience the downstream audience
+     * @return the exchanged token
+     * @throws IllegalStateException if the current authentication is not a {@link JwtAuthenticationToken}
+     */
+    public String exchange(String audience) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (!(authentication instanceof JwtAuthenticationToken jwtAuthentication)) {
+            throw new IllegalStateException("No JWT authentication to exchange");
+        }
+        return exchange(jwtAuthentication, audience);
+    }
+
+    /**
+     * Exchanges the token of an authentication.
+     *
+     * @param authentication the inbound authentication
+     * @param audience       the downstream audience
+     * @return the exchanged token
+     */
+    public String exchange(JwtAuthenticationToken authentication, String audience) {
+        Jwt subjectToken = authentication.getToken();
+        TokenExchangeCache.Key key = TokenExchangeCache.Key.of(subjectToken.getTokenValue(), audience);
+        OAuth2AccessToken token = tokenExchangeCache.get(key);
+        if (token == null) {
+            token = singleFlight.execute(key, () -> load(key, subjectToken, audience)
+                    , securityProperties.getTokenAcquisitionTimeout());
+        }
+        return token.getTokenValue();
+    }
+
+    private OAuth2AccessToken load(TokenExchangeCache.Key key, Jwt subjectToken, String audience) {
+        // An exchange that finished just before this one started may already have filled the cache.
+        OAuth2AccessToken cached = tokenExchangeCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        String registrationId = securityProperties.getTokenExchange().getRegistrationId();
+        ClientRegistration clientRegistration = clientRegistrationRepository.findByRegistrationId(registrationId);
+        if (clientRegistration == null) {
+            throw new IllegalStateException("Unknown token exchange client registration: " + registrationId);
+        }
+        OAuth2AccessToken token = tokenResponseClient
+                .getTokenResponse(new AudienceTokenExchangeGrantRequest(clientRegistration, subjectToken, audience))
+                .getAccessToken();
+        tokenExchangeCache.put(key, token);
+        return token;
+    }
+}
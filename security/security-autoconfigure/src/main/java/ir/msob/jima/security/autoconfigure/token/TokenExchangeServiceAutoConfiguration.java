@@ -0,0 +1,54 @@
+package ir.msob.jima.security.autoconfigure.token;
+
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.core.exchange.TokenExchangeCache;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.client.endpoint.RestClientTokenExchangeTokenResponseClient;
+import org.springframework.security.oauth2.client.endpoint.WebClientReactiveTokenExchangeTokenResponseClient;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.client.registration.ReactiveClientRegistrationRepository;
+
+/**
+ * Spring configuration of the RFC 8693 token exchange services.
+ * <p>
+ * Enabled by {@code jima.security.token-exchange.enabled}; the exchange authenticates with the client
+ * registration named by {@code jima.security.token-exchange.registration-id}.
+ *
+ * @author Yaqub Abdi
+ */
+@AutoConfiguration
+@ConditionalOnProperty(prefix = "jima.security.token-exchange", name = "enabled", havingValue = "true")
+public class TokenExchangeServiceAutoConfiguration {
+
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class Servlet {
+
+        @Bean
+        TokenExchangeService tokenExchangeService(ClientRegistrationRepository clientRegistrationRepository
+                , SecurityProperties securityProperties) {
+            RestClientTokenExchangeTokenResponseClient tokenResponseClient = new RestClientTokenExchangeTokenResponseClient();
+            tokenResponseClient.addParametersConverter(AudienceTokenExchangeGrantRequest::audienceParameter);
+            return new TokenExchangeService(clientRegistrationRepository, tokenResponseClient, securityProperties
+                    , new TokenExchangeCache(securityProperties.getTokenExchange()));
+        }
+    }
+
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    static class Reactive {
+
+        @Bean
+        TokenExchangeReactiveService tokenExchangeReactiveService(ReactiveClientRegistrationRepository clientRegistrationRepository
+                , SecurityProperties securityProperties) {
+            WebClientReactiveTokenExchangeTokenResponseClient tokenResponseClient = new WebClientReactiveTokenExchangeTokenResponseClient();
+            tokenResponseClient.addParametersConverter(AudienceTokenExchangeGrantRequest::audienceParameter);
+            return new TokenExchangeReactiveService(clientRegistrationRepository, tokenResponseClient, securityProperties
+                    , new TokenExchangeCache(securityProperties.getTokenExchange()));
+        }
+    }
+}
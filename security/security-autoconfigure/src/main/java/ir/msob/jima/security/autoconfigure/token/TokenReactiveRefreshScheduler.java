@@ -0,0 +1,86 @@
+package ir.msob.jima.security.autoconfigure.token;
+
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.autoconfigure.oauth2.LeasedOAuth2AuthorizedClientProvider;
+import ir.msob.jima.security.autoconfigure.oauth2.LeasedReactiveOAuth2AuthorizedClientProvider;
+import lombok.SneakyThrows;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.client.OAuth2AuthorizationContext;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientProvider;
+import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientProviderBuilder;
+import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.registration.ReactiveClientRegistrationRepository;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Background token refresh for reactive applications.
+ * <p>
+ * The token endpoint is called through the reactive client; the scheduler thread only triggers it.
+ *
+ * @author Yaqub Abdi
+ */
+public class TokenReactiveRefreshScheduler extends AbstractTokenRefreshScheduler {
+
+    private final ReactiveClientRegistrationRepository clientRegistrationRepository;
+    private final ReactiveOAuth2AuthorizedClientService authorizedClientService;
+    private final ReactiveOAuth2AuthorizedClientProvider authorizedClientProvider;
+
+    public TokenReactiveRefreshScheduler(ReactiveClientRegistrationRepository clientRegistrationRepository,
+                                         ReactiveOAuth2AuthorizedClientService authorizedClientService,
+                                         SecurityProperties securityProperties) {
+        this(clientRegistrationRepository, authorizedClientService, securityProperties, ReactiveOAuth2AuthorizedClientProviderBuilder.builder()
+                .clientCredentials()
+                .build());
+    }
+
+    /**
+     * @param authorizedClientProvider the provider requesting new tokens, e.g. a
+     *                                 {@link LeasedReactiveOAuth2AuthorizedClientProvider} when tokens are shared between replicas
+     */
+    public TokenReactiveRefreshScheduler(ReactiveClientRegistrationRepository clientRegistrationRepository,
+                                         ReactiveOAuth2AuthorizedClientService authorizedClientService,
+                                         SecurityProperties securityProperties,
+                                         ReactiveOAuth2AuthorizedClientProvider authorizedClientProvider) {
+        super(securityProperties);
+        this.clientRegistrationRepository = clientRegistrationRepository;
+        this.authorizedClientService = authorizedClientService;
+        this.authorizedClientProvider = authorizedClientProvider;
+    }
+
+    @SneakyThrows
+    @Override
+    protected OAuth2AccessToken currentToken(String clientRegistrationId) {
+        return authorizedClientService.<OAuth2AuthorizedClient>loadAuthorizedClient(clientRegistrationId, clientRegistrationId)
+                .map(OAuth2AuthorizedClient::getAccessToken)
+                .toFuture()
+                .get();
+    }
+
+    @Override
+    protected CompletionStage<OAuth2AccessToken> refresh(String clientRegistrationId) {
+        Authentication principal = principal(clientRegistrationId);
+        return clientRegistrationRepository.findByRegistrationId(clientRegistrationId)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Unknown client registration: " + clientRegistrationId)))
+                .zipWith(authorizedClientService.<OAuth2AuthorizedClient>loadAuthorizedClient(clientRegistrationId, clientRegistrationId)
+                        .map(OAuth2AuthorizedClient::getAccessToken)
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty()))
+                // No authorized client in the context: the provider always requests a new token. The held token
+                // lets a shared store recognize a token another replica already refreshed.
+                .flatMap(registrationAndToken -> authorizedClientProvider.authorize(
+                        OAuth2AuthorizationContext.withClientRegistration(registrationAndToken.getT1())
+                                .principal(principal)
+                                .attributes(attributes -> registrationAndToken.getT2().ifPresent(token ->
+                                        attributes.put(LeasedOAuth2AuthorizedClientProvider.HELD_TOKEN_ATTRIBUTE_NAME, token)))
+                                .build()))
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Failed to obtain access token for client: " + clientRegistrationId)))
+                .flatMap(authorizedClient -> authorizedClientService.saveAuthorizedClient(authorizedClient, principal)
+                        .thenReturn(authorizedClient.getAccessToken()))
+                .toFuture();
+    }
+}
@@ -1,31 +1,149 @@
 package ir.msob.jima.security.autoconfigure.token;
 
-import ir.msob.jima.platform.api.security.BaseTokenService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.reactive.token.BaseRegistrationTokenService;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import org.springframework.security.oauth2.client.AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager;
 import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientService;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import static ir.msob.jima.security.core.metrics.SecurityMetrics.*;
 
 @RequiredArgsConstructor
-public class TokenReactiveService implements BaseTokenService {
+public class TokenReactiveService implements BaseRegistrationTokenService, MeterBinder {
     private final AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager authorizedClientManager;
+    private final ReactiveOAuth2AuthorizedClientService authorizedClientService;
     private final SecurityProperties securityProperties;
 
+    /**
+     * The authorizations currently in progress per client registration, each shared by every caller
+     * that arrives before it completes.
+     */
+    private final ConcurrentMap<String, Mono<String>> inFlight = new ConcurrentHashMap<>();
+
+    private volatile Timer successTimer;
+    private volatile Timer failureTimer;
+
     /**
      * Retrieves an OAuth2 token for the client.
+     * <p>
+     * This method blocks until the token is available; reactive callers should use {@link #getReactiveToken()}.
      *
      * @return The OAuth2 token for the client.
      */
-    @SneakyThrows
     @Override
     public String getToken() {
+        return getToken(securityProperties.getDefaultClientRegistrationId());
+    }
+
+    /**
+     * Retrieves an OAuth2 token for a client registration, blocking until it is available.
+     *
+     * @param clientRegistrationId the client registration id
+     * @return The OAuth2 token for the client registration.
+     */
+    @SneakyThrows
+    @Override
+    public String getToken(String clientRegistrationId) {
+        return getReactiveToken(clientRegistrationId).toFuture().get();
+    }
+
+    /**
+     * Retrieves an OAuth2 token for the client without blocking.
+     *
+     * @return A Mono emitting the OAuth2 token for the client.
+     */
+    @Override
+    public Mono<String> getReactiveToken() {
+        return getReactiveToken(securityProperties.getDefaultClientRegistrationId());
+    }
+
+    /**
+     * Retrieves an OAuth2 token for a client registration without blocking.
+     * <p>
+     * Concurrent callers of one registration share a single authorization: the first one starts it and the
+     * others subscribe to the same result, so a token refresh reaches the token endpoint only once.
+     * Registrations are authorized independently of each other.
+     *
+     * @param clientRegistrationId the client registration id
+     * @return A Mono emitting the OAuth2 token for the client registration.
+     */
+    @Override
+    public Mono<String> getReactiveToken(String clientRegistrationId) {
+        return Mono.defer(() -> {
+            Mono<String> current = inFlight.get(clientRegistrationId);
+            if (current != null) {
+                return current;
+            }
+            Sinks.One<String> sink = Sinks.one();
+            Mono<String> candidate = sink.asMono();
+            if (inFlight.putIfAbsent(clientRegistrationId, candidate) != null) {
+                return getReactiveToken(clientRegistrationId);
+            }
+            timed(authorize(clientRegistrationId))
+                    .doFinally(signal -> inFlight.remove(clientRegistrationId, candidate))
+                    .subscribe(sink::tryEmitValue, sink::tryEmitError);
+            return candidate;
+        });
+    }
+
+    /**
+     * Removes the authorized client of a registration while it still holds the rejected token, so the
+     * next authorization requests a new token instead of returning the stored one.
+     *
+     * @param clientRegistrationId the client registration id
+     * @param token                the rejected token
+     * @return a Mono completing once the authorized client is removed
+     */
+    @Override
+    public Mono<Void> invalidate(String clientRegistrationId, String token) {
+        return authorizedClientService.<OAuth2AuthorizedClient>loadAuthorizedClient(clientRegistrationId, clientRegistrationId)
+                .filter(authorizedClient -> authorizedClient.getAccessToken().getTokenValue().equals(token))
+                .flatMap(authorizedClient -> authorizedClientService.removeAuthorizedClient(clientRegistrationId, clientRegistrationId));
+    }
+
+    /**
+     * Publishes the latency of the shared authorizations.
+     *
+     * @param registry the meter registry
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        failureTimer = registry.timer(TOKEN_ACQUISITION, TAG_SERVICE, "reactive", TAG_OUTCOME, OUTCOME_FAILURE);
+        successTimer = registry.timer(TOKEN_ACQUISITION, TAG_SERVICE, "reactive", TAG_OUTCOME, OUTCOME_SUCCESS);
+    }
+
+    private Mono<String> timed(Mono<String> authorization) {
+        Timer timer = successTimer;
+        if (timer == null) {
+            return authorization;
+        }
+        long start = System.nanoTime();
+        return authorization
+                .doOnSuccess(token -> timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                .doOnError(e -> failureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    private Mono<String> authorize(String clientRegistrationId) {
         return authorizedClientManager.authorize(
-                        OAuth2AuthorizeRequest.withClientRegistrationId(securityProperties.getDefaultClientRegistrationId())
-                                .principal(securityProperties.getDefaultClientRegistrationId())
+                        OAuth2AuthorizeRequest.withClientRegistrationId(clientRegistrationId)
+                                .principal(clientRegistrationId)
                                 .build())
                 .map(authorizedClient ->
                         authorizedClient.getAccessToken().getTokenValue()
-                ).toFuture().get();
+                )
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("Failed to obtain access token for client: "
+                        + clientRegistrationId)));
     }
 }
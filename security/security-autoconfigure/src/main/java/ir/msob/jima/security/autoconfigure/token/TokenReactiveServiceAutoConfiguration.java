@@ -1,10 +1,17 @@
 package ir.msob.jima.security.autoconfigure.token;
 
 import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.autoconfigure.oauth2.LeasedReactiveOAuth2AuthorizedClientProvider;
+import ir.msob.jima.security.core.store.SharedTokenStore;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.security.oauth2.client.AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientProviderBuilder;
+import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.registration.ReactiveClientRegistrationRepository;
 
 
 @AutoConfiguration
@@ -12,9 +19,27 @@ import org.springframework.security.oauth2.client.AuthorizedClientServiceReactiv
 public class TokenReactiveServiceAutoConfiguration {
 
     @Bean
+    @ConditionalOnProperty(prefix = "jima.security.local-token", name = "issue", havingValue = "false", matchIfMissing = true)
     TokenReactiveService tokenReactiveService(AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager authorizedClientManager
+            , ReactiveOAuth2AuthorizedClientService authorizedClientService
             , SecurityProperties securityProperties) {
-        return new TokenReactiveService(authorizedClientManager, securityProperties);
+        return new TokenReactiveService(authorizedClientManager, authorizedClientService, securityProperties);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "jima.security.token-refresh", name = "enabled", havingValue = "true")
+    TokenReactiveRefreshScheduler tokenReactiveRefreshScheduler(ReactiveClientRegistrationRepository clientRegistrationRepository
+            , ReactiveOAuth2AuthorizedClientService authorizedClientService
+            , SecurityProperties securityProperties
+            , ObjectProvider<SharedTokenStore> sharedTokenStore) {
+        SharedTokenStore store = sharedTokenStore.getIfAvailable();
+        if (store == null) {
+            return new TokenReactiveRefreshScheduler(clientRegistrationRepository, authorizedClientService, securityProperties);
+        }
+        return new TokenReactiveRefreshScheduler(clientRegistrationRepository, authorizedClientService, securityProperties
+                , new LeasedReactiveOAuth2AuthorizedClientProvider(ReactiveOAuth2AuthorizedClientProviderBuilder.builder()
+                .clientCredentials()
+                .build(), store, securityProperties.getSharedTokenStore()));
     }
 
 }
@@ -0,0 +1,84 @@
+package ir.msob.jima.security.autoconfigure.token;
+
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.autoconfigure.oauth2.LeasedOAuth2AuthorizedClientProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.client.OAuth2AuthorizationContext;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientProvider;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientProviderBuilder;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Background token refresh for non-reactive (Servlet-based) applications.
+ * <p>
+ * The token endpoint is called on the scheduler's own thread, never on a request thread.
+ *
+ * @author Yaqub Abdi
+ */
+public class TokenRefreshScheduler extends AbstractTokenRefreshScheduler {
+
+    private final ClientRegistrationRepository clientRegistrationRepository;
+    private final OAuth2AuthorizedClientService authorizedClientService;
+    private final OAuth2AuthorizedClientProvider authorizedClientProvider;
+
+    public TokenRefreshScheduler(ClientRegistrationRepository clientRegistrationRepository,
+                                 OAuth2AuthorizedClientService authorizedClientService,
+                                 SecurityProperties securityProperties) {
+        this(clientRegistrationRepository, authorizedClientService, securityProperties, OAuth2AuthorizedClientProviderBuilder.builder()
+                .clientCredentials()
+                .build());
+    }
+
+    /**
+     * @param authorizedClientProvider the provider requesting new tokens, e.g. a
+     *                                 {@link LeasedOAuth2AuthorizedClientProvider} when tokens are shared between replicas
+     */
+    public TokenRefreshScheduler(ClientRegistrationRepository clientRegistrationRepository,
+                                 OAuth2AuthorizedClientService authorizedClientService,
+                                 SecurityProperties securityProperties,
+                                 OAuth2AuthorizedClientProvider authorizedClientProvider) {
+        super(securityProperties);
+        this.clientRegistrationRepository = clientRegistrationRepository;
+        this.authorizedClientService = authorizedClientService;
+        this.authorizedClientProvider = authorizedClientProvider;
+    }
+
+    @Override
+    protected OAuth2AccessToken currentToken(String clientRegistrationId) {
+        OAuth2AuthorizedClient authorizedClient = authorizedClientService.loadAuthorizedClient(clientRegistrationId, clientRegistrationId);
+        return authorizedClient == null ? null : authorizedClient.getAccessToken();
+    }
+
+    @Override
+    protected CompletionStage<OAuth2AccessToken> refresh(String clientRegistrationId) {
+        ClientRegistration clientRegistration = clientRegistrationRepository.findByRegistrationId(clientRegistrationId);
+        if (clientRegistration == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Unknown client registration: " + clientRegistrationId));
+        }
+        Authentication principal = principal(clientRegistrationId);
+        OAuth2AccessToken heldToken = currentToken(clientRegistrationId);
+        // No authorized client in the context: the provider always requests a new token. The held token
+        // lets a shared store recognize a token another replica already refreshed.
+        OAuth2AuthorizedClient authorizedClient = authorizedClientProvider.authorize(
+                OAuth2AuthorizationContext.withClientRegistration(clientRegistration)
+                        .principal(principal)
+                        .attributes(attributes -> {
+                            if (heldToken != null) {
+                                attributes.put(LeasedOAuth2AuthorizedClientProvider.HELD_TOKEN_ATTRIBUTE_NAME, heldToken);
+                            }
+                        })
+                        .build());
+        if (authorizedClient == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Failed to obtain access token for client: " + clientRegistrationId));
+        }
+        authorizedClientService.saveAuthorizedClient(authorizedClient, principal);
+        return CompletableFuture.completedFuture(authorizedClient.getAccessToken());
+    }
+}
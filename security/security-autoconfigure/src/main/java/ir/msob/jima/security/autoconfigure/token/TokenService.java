@@ -1,42 +1,144 @@
 package ir.msob.jima.security.autoconfigure.token;
 
-import ir.msob.jima.platform.api.security.BaseTokenService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.api.util.SingleFlight;
+import ir.msob.jima.security.reactive.token.BaseRegistrationTokenService;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
 import org.springframework.security.oauth2.client.AuthorizedClientServiceOAuth2AuthorizedClientManager;
 import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+
+import static ir.msob.jima.security.core.metrics.SecurityMetrics.*;
 
 /**
  * This TokenService class is responsible for retrieving OAuth2 tokens
  * for non-reactive (Servlet-based) applications.
  * <p>
+ * Concurrent calls for the same client registration are coalesced, so when the cached token expires
+ * only one thread requests a new one and the others wait for its result.
+ * <p>
+ * Tokens of registrations other than the default one are available through {@link #getToken(String)}.
+ * <p>
+ * The inherited {@link #getReactiveToken()} runs the blocking authorization on the bounded elastic scheduler.
+ * <p>
  * Author: Yaqub Abdi
  */
 @RequiredArgsConstructor
-public class TokenService implements BaseTokenService {
+public class TokenService implements BaseRegistrationTokenService, MeterBinder {
 
     private final AuthorizedClientServiceOAuth2AuthorizedClientManager authorizedClientManager;
+    private final OAuth2AuthorizedClientService authorizedClientService;
     private final SecurityProperties securityProperties;
 
+    /**
+     * Coalesces concurrent authorizations per client registration id.
+     */
+    @Getter
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    private volatile Timer successTimer;
+    private volatile Timer failureTimer;
+
     /**
      * Retrieves an OAuth2 token for the client.
      *
      * @return The OAuth2 token for the client.
      */
-    @SneakyThrows
     @Override
     public String getToken() {
-        var authorizeRequest = OAuth2AuthorizeRequest.withClientRegistrationId(
-                        securityProperties.getDefaultClientRegistrationId())
-                .principal(securityProperties.getDefaultClientRegistrationId())
+        return getToken(securityProperties.getDefaultClientRegistrationId());
+    }
+
+    /**
+     * Retrieves an OAuth2 token for a client registration.
+     *
+     * @param clientRegistrationId the client registration id
+     * @return The OAuth2 token for the client registration.
+     */
+    @Override
+    public String getToken(String clientRegistrationId) {
+        Timer timer = successTimer;
+        if (timer == null) {
+            return acquire(clientRegistrationId);
+        }
+
+        long start = System.nanoTime();
+        try {
+            String token = acquire(clientRegistrationId);
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return token;
+        } catch (RuntimeException e) {
+            failureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    /**
+     * Removes the authorized client of a registration while it still holds the rejected token, so the
+     * next authorization requests a new token instead of returning the stored one. Runs on the bounded
+     * elastic scheduler, since the authorized client service may be backed by a blocking store.
+     *
+     * @param clientRegistrationId the client registration id
+     * @param token                the rejected token
+     * @return a Mono completing once the authorized client is removed
+     */
+    @Override
+    public Mono<Void> invalidate(String clientRegistrationId, String token) {
+        return Mono.<Void>fromRunnable(() -> {
+                    OAuth2AuthorizedClient authorizedClient = authorizedClientService.loadAuthorizedClient(clientRegistrationId, clientRegistrationId);
+                    if (authorizedClient != null && authorizedClient.getAccessToken().getTokenValue().equals(token)) {
+                        authorizedClientService.removeAuthorizedClient(clientRegistrationId, clientRegistrationId);
+                    }
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Publishes the acquisition latency and the coalescing counters.
+     *
+     * @param registry the meter registry
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        failureTimer = registry.timer(TOKEN_ACQUISITION, TAG_SERVICE, "servlet", TAG_OUTCOME, OUTCOME_FAILURE);
+        successTimer = registry.timer(TOKEN_ACQUISITION, TAG_SERVICE, "servlet", TAG_OUTCOME, OUTCOME_SUCCESS);
+        FunctionCounter.builder(TOKEN_ACQUISITION + ".executions", singleFlight, SingleFlight::getExecutions)
+                .description("Token requests that reached the token endpoint")
+                .register(registry);
+        FunctionCounter.builder(TOKEN_ACQUISITION + ".coalesced", singleFlight, SingleFlight::getCoalesced)
+                .description("Token requests that joined a request already in flight")
+                .register(registry);
+        FunctionCounter.builder(TOKEN_ACQUISITION + ".timeouts", singleFlight, SingleFlight::getTimeouts)
+                .description("Token requests that timed out waiting for a request in flight")
+                .register(registry);
+    }
+
+    private String acquire(String clientRegistrationId) {
+        return singleFlight.execute(clientRegistrationId,
+                () -> authorize(clientRegistrationId),
+                securityProperties.getTokenAcquisitionTimeout());
+    }
+
+    private String authorize(String clientRegistrationId) {
+        var authorizeRequest = OAuth2AuthorizeRequest.withClientRegistrationId(clientRegistrationId)
+                .principal(clientRegistrationId)
                 .build();
 
         var authorizedClient = authorizedClientManager.authorize(authorizeRequest);
 
         if (authorizedClient == null || authorizedClient.getAccessToken() == null) {
             throw new IllegalStateException("Failed to obtain access token for client: "
-                    + securityProperties.getDefaultClientRegistrationId());
+                    + clientRegistrationId);
         }
 
         return authorizedClient.getAccessToken().getTokenValue();
@@ -1,10 +1,17 @@
 package ir.msob.jima.security.autoconfigure.token;
 
 import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.autoconfigure.oauth2.LeasedOAuth2AuthorizedClientProvider;
+import ir.msob.jima.security.core.store.SharedTokenStore;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.security.oauth2.client.AuthorizedClientServiceOAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientProviderBuilder;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 
 
 @AutoConfiguration
@@ -12,9 +19,27 @@ import org.springframework.security.oauth2.client.AuthorizedClientServiceOAuth2A
 public class TokenServiceAutoConfiguration {
 
     @Bean
+    @ConditionalOnProperty(prefix = "jima.security.local-token", name = "issue", havingValue = "false", matchIfMissing = true)
     TokenService tokenService(AuthorizedClientServiceOAuth2AuthorizedClientManager authorizedClientManager
+            , OAuth2AuthorizedClientService authorizedClientService
             , SecurityProperties securityProperties) {
-        return new TokenService(authorizedClientManager, securityProperties);
+        return new TokenService(authorizedClientManager, authorizedClientService, securityProperties);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "jima.security.token-refresh", name = "enabled", havingValue = "true")
+    TokenRefreshScheduler tokenRefreshScheduler(ClientRegistrationRepository clientRegistrationRepository
+            , OAuth2AuthorizedClientService authorizedClientService
+            , SecurityProperties securityProperties
+            , ObjectProvider<SharedTokenStore> sharedTokenStore) {
+        SharedTokenStore store = sharedTokenStore.getIfAvailable();
+        if (store == null) {
+            return new TokenRefreshScheduler(clientRegistrationRepository, authorizedClientService, securityProperties);
+        }
+        return new TokenRefreshScheduler(clientRegistrationRepository, authorizedClientService, securityProperties
+                , new LeasedOAuth2AuthorizedClientProvider(OAuth2AuthorizedClientProviderBuilder.builder()
+                .clientCredentials()
+                .build(), store, securityProperties.getSharedTokenStore()));
     }
 
 }
@@ -0,0 +1,78 @@
+package ir.msob.jima.security.autoconfigure.token;
+
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.reactive.client.RegistrationRoutingExchangeFilter;
+import ir.msob.jima.security.reactive.token.RegistrationTokenCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.oauth2.client.AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.InMemoryReactiveOAuth2AuthorizedClientService;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.InMemoryReactiveClientRegistrationRepository;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TokenReactiveServiceTest {
+
+    private static final String REGISTRATION_ID = "orders";
+
+    @Test
+    @DisplayName("A 401 response makes the next request use a newly authorized token")
+    void unauthorizedResponseLeadsToNewToken() {
+        ClientRegistration registration = ClientRegistration.withRegistrationId(REGISTRATION_ID)
+                .clientId("client")
+                .clientSecret("secret")
+                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+                .tokenUri("https://idp.example.com/token")
+                .build();
+        InMemoryReactiveClientRegistrationRepository registrations = new InMemoryReactiveClientRegistrationRepository(registration);
+        InMemoryReactiveOAuth2AuthorizedClientService authorizedClientService = new InMemoryReactiveOAuth2AuthorizedClientService(registrations);
+        AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager manager =
+                new AuthorizedClientServiceReactiveOAuth2AuthorizedClientManager(registrations, authorizedClientService);
+        AtomicInteger issued = new AtomicInteger();
+        manager.setAuthorizedClientProvider(context -> context.getAuthorizedClient() != null
+                ? Mono.empty()
+                : Mono.just(new OAuth2AuthorizedClient(context.getClientRegistration(), context.getPrincipal().getName()
+                , token("token-" + issued.incrementAndGet()))));
+
+        TokenReactiveService tokenService = new TokenReactiveService(manager, authorizedClientService, new SecurityProperties());
+        RegistrationRoutingExchangeFilter filter = new RegistrationRoutingExchangeFilter(
+                new RegistrationTokenCache(tokenService, Duration.ofSeconds(30)), Map.of(), REGISTRATION_ID);
+
+        List<String> authorizations = new CopyOnWriteArrayList<>();
+        ExchangeFunction exchange = request -> {
+            String authorization = request.headers().getFirst(HttpHeaders.AUTHORIZATION);
+            authorizations.add(authorization);
+            return Mono.just(ClientResponse.create("Bearer token-1".equals(authorization)
+                    ? HttpStatus.UNAUTHORIZED : HttpStatus.OK).build());
+        };
+        ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("http://orders/items")).build();
+
+        assertEquals(401, filter.filter(request, exchange).block().statusCode().value());
+        assertEquals(200, filter.filter(request, exchange).block().statusCode().value());
+        assertEquals(List.of("Bearer token-1", "Bearer token-2"), authorizations);
+    }
+
+    private static OAuth2AccessToken token(String value) {
+        Instant now = Instant.now();
+        return new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, value, now, now.plus(Duration.ofMinutes(5)));
+    }
+}
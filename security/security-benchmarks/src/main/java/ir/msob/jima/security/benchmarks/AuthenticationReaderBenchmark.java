@@ -0,0 +1,58 @@
+package ir.msob.jima.security.benchmarks;
+
+import ir.msob.jima.security.core.jwt.DefaultRoleMapper;
+import ir.msob.jima.security.core.jwt.JwtRoleConverter;
+import ir.msob.jima.security.grpc.api.AuthenticationReader;
+import ir.msob.jima.security.grpc.autoconfigure.GrpcAuthenticationAutoConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.introspection.OpaqueTokenIntrospector;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the full {@link AuthenticationReader#authenticate(String)} path as wired by
+ * {@link GrpcAuthenticationAutoConfiguration}: signature verification, claim validation,
+ * role conversion and creation of the authentication token.
+ *
+ * @author Yaqub Abdi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthenticationReaderBenchmark {
+
+    @Param({"RS256", "ES256", "HS256"})
+    private SyntheticTokenGenerator.Algorithm algorithm;
+
+    @Param({"8", "32"})
+    private int claimCount;
+
+    @Param({"1", "8"})
+    private int roleCount;
+
+    private AuthenticationReader authenticationReader;
+    private String token;
+
+    @Setup
+    public void setup() {
+        SyntheticTokenGenerator generator = new SyntheticTokenGenerator(algorithm);
+        token = generator.token(claimCount, roleCount);
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("jwtDecoder", generator.decoder());
+        authenticationReader = new GrpcAuthenticationAutoConfiguration()
+                .authenticationReader(beanFactory.getBeanProvider(JwtDecoder.class), new JwtRoleConverter(new DefaultRoleMapper())
+                        , beanFactory.getBeanProvider(MeterRegistry.class), beanFactory.getBeanProvider(OpaqueTokenIntrospector.class));
+    }
+
+    @Benchmark
+    public Authentication authenticate() {
+        return authenticationReader.authenticate(token);
+    }
+}
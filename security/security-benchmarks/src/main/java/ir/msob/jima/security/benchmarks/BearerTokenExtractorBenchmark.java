@@ -0,0 +1,50 @@
+package ir.msob.jima.security.benchmarks;
+
+import ir.msob.jima.security.api.util.BearerTokenExtractorUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link BearerTokenExtractorUtil} on a realistic authorization header, both extracting the token
+ * as a string and locating it in the header's characters and raw bytes.
+ *
+ * @author Yaqub Abdi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BearerTokenExtractorBenchmark {
+
+    @Param({"8", "32"})
+    private int claimCount;
+
+    private String header;
+    private byte[] headerBytes;
+
+    @Setup
+    public void setup() {
+        String token = new SyntheticTokenGenerator(SyntheticTokenGenerator.Algorithm.HS256).token(claimCount, 4);
+        header = "Bearer " + token;
+        headerBytes = header.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Benchmark
+    public String extract() {
+        return BearerTokenExtractorUtil.extract(header);
+    }
+
+    @Benchmark
+    public long locate() {
+        return BearerTokenExtractorUtil.locate(header);
+    }
+
+    @Benchmark
+    public long locateBytes() {
+        return BearerTokenExtractorUtil.locate(headerBytes);
+    }
+}
@@ -0,0 +1,32 @@
+package ir.msob.jima.security.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the shaded benchmark jar.
+ * <p>
+ * Accepts the regular JMH command line and always attaches the {@link GCProfiler}, so every run reports
+ * {@code gc.alloc.rate.norm} (bytes allocated per operation) next to the time per operation.
+ * <pre>
+ * mvn -pl security/security-benchmarks -am package
+ * java -jar security/security-benchmarks/target/benchmarks.jar [JMH options] [benchmark regex]
+ * </pre>
+ *
+ * @author Yaqub Abdi
+ */
+public class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
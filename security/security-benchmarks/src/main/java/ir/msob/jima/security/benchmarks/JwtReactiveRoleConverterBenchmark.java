@@ -0,0 +1,44 @@
+package ir.msob.jima.security.benchmarks;
+
+import ir.msob.jima.security.core.jwt.DefaultRoleMapper;
+import ir.msob.jima.security.reactive.jwt.JwtReactiveRoleConverter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link JwtReactiveRoleConverter#convert(Jwt)}, including the subscription that drains the
+ * returned {@code Flux}, since that is where the authorities are actually materialised.
+ *
+ * @author Yaqub Abdi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtReactiveRoleConverterBenchmark {
+
+    @Param({"8", "32"})
+    private int claimCount;
+
+    @Param({"1", "8", "32"})
+    private int roleCount;
+
+    private JwtReactiveRoleConverter converter;
+    private Jwt jwt;
+
+    @Setup
+    public void setup() {
+        converter = new JwtReactiveRoleConverter(new DefaultRoleMapper());
+        jwt = SyntheticTokenGenerator.jwt(claimCount, roleCount);
+    }
+
+    @Benchmark
+    public void convert(Blackhole blackhole) {
+        converter.convert(jwt).subscribe(blackhole::consume);
+    }
+}
@@ -0,0 +1,44 @@
+package ir.msob.jima.security.benchmarks;
+
+import ir.msob.jima.security.core.jwt.DefaultRoleMapper;
+import ir.msob.jima.security.core.jwt.JwtRoleConverter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link JwtRoleConverter#convert(Jwt)} on an already decoded token.
+ *
+ * @author Yaqub Abdi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtRoleConverterBenchmark {
+
+    @Param({"8", "32"})
+    private int claimCount;
+
+    @Param({"1", "8", "32"})
+    private int roleCount;
+
+    private JwtRoleConverter converter;
+    private Jwt jwt;
+
+    @Setup
+    public void setup() {
+        converter = new JwtRoleConverter(new DefaultRoleMapper());
+        jwt = SyntheticTokenGenerator.jwt(claimCount, roleCount);
+    }
+
+    @Benchmark
+    public Collection<GrantedAuthority> convert() {
+        return converter.convert(jwt);
+    }
+}
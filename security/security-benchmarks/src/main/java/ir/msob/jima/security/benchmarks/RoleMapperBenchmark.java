@@ -0,0 +1,43 @@
+package ir.msob.jima.security.benchmarks;
+
+import ir.msob.jima.security.api.token.RoleMapper;
+import ir.msob.jima.security.core.jwt.DefaultRoleMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link DefaultRoleMapper#extractRoles(Map)} over claim sets of varying size.
+ *
+ * @author Yaqub Abdi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoleMapperBenchmark {
+
+    @Param({"8", "32"})
+    private int claimCount;
+
+    @Param({"1", "8", "32"})
+    private int roleCount;
+
+    private RoleMapper roleMapper;
+    private Map<String, Object> claims;
+
+    @Setup
+    public void setup() {
+        roleMapper = new DefaultRoleMapper();
+        claims = SyntheticTokenGenerator.claims(claimCount, roleCount);
+    }
+
+    @Benchmark
+    public List<String> extractRoles() {
+        return roleMapper.extractRoles(claims);
+    }
+}
@@ -0,0 +1,209 @@
+package ir.msob.jima.security.benchmarks;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.OctetSequenceKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import lombok.Getter;
+import lombok.SneakyThrows;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Generates signing keys, signed tokens and matching decoders for benchmarks.
+ * <p>
+ * Each generator owns a freshly generated key for the selected {@link Algorithm}; tokens it mints
+ * carry a {@code roles} claim with {@code roleCount} entries plus filler claims until the claim set
+ * reaches {@code claimCount} entries, so the size of the payload can be varied independently of the
+ * number of roles.
+ *
+ * @author Yaqub Abdi
+ */
+@Getter
+public class SyntheticTokenGenerator {
+
+    public static final String ISSUER = "https://issuer.benchmark.local";
+    public static final String SUBJECT = "benchmark-client";
+    public static final String ROLES_CLAIM = "roles";
+
+    private final Algorithm algorithm;
+    private final JWK jwk;
+    private final JWSSigner signer;
+
+    @SneakyThrows
+    public SyntheticTokenGenerator(Algorithm algorithm) {
+        this.algorithm = algorithm;
+        this.jwk = algorithm.generateKey();
+        this.signer = algorithm.signer(jwk);
+    }
+
+    /**
+     * Builds a claim map with the requested shape.
+     *
+     * @param claimCount total number of claims, including the registered ones
+     * @param roleCount  number of entries in the {@code roles} claim
+     * @return the claim map
+     */
+    public static Map<String, Object> claims(int claimCount, int roleCount) {
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("iss", ISSUER);
+        claims.put("sub", SUBJECT);
+        claims.put("jti", UUID.randomUUID().toString());
+        claims.put(ROLES_CLAIM, roles(roleCount));
+        for (int i = 0; claims.size() < claimCount; i++) {
+            claims.put("claim-" + i, "value-" + i);
+        }
+        return claims;
+    }
+
+    /**
+     * Builds a role list of the requested size.
+     *
+     * @param roleCount number of roles
+     * @return the role names
+     */
+    public static List<String> roles(int roleCount) {
+        List<String> roles = new ArrayList<>(roleCount);
+        for (int i = 0; i < roleCount; i++) {
+            roles.add("role-" + i);
+        }
+        return roles;
+    }
+
+    /**
+     * Builds an already decoded {@link Jwt} with the requested shape, for benchmarks that start after decoding.
+     *
+     * @param claimCount total number of claims
+     * @param roleCount  number of roles
+     * @return the jwt
+     */
+    public static Jwt jwt(int claimCount, int roleCount) {
+        Instant now = Instant.now();
+        return Jwt.withTokenValue("token")
+                .header("alg", "none")
+                .claims(c -> c.putAll(claims(claimCount, roleCount)))
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(3600))
+                .build();
+    }
+
+    /**
+     * Signs a token valid for one hour.
+     *
+     * @param claimCount total number of claims
+     * @param roleCount  number of roles
+     * @return the compact serialized token
+     */
+    @SneakyThrows
+    public String token(int claimCount, int roleCount) {
+        Instant now = Instant.now();
+        JWTClaimsSet.Builder builder = new JWTClaimsSet.Builder()
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plusSeconds(3600)));
+        claims(claimCount, roleCount).forEach(builder::claim);
+
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(algorithm.getJwsAlgorithm()).keyID(jwk.getKeyID()).build(),
+                builder.build());
+        jwt.sign(signer);
+        return jwt.serialize();
+    }
+
+    /**
+     * Returns the public part of the key as a JWK set, as an issuer would publish it.
+     *
+     * @return the public JWK set
+     */
+    public JWKSet publicJwkSet() {
+        return new JWKSet(jwk.toPublicJWK());
+    }
+
+    /**
+     * Builds a {@link JwtDecoder} that verifies tokens minted by this generator against a local key set,
+     * so benchmarks measure parsing and verification without any network access.
+     *
+     * @return the decoder
+     */
+    public JwtDecoder decoder() {
+        JWKSet jwkSet = algorithm == Algorithm.HS256 ? new JWKSet(jwk) : publicJwkSet();
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(algorithm.getJwsAlgorithm(), new ImmutableJWKSet<>(jwkSet)));
+        // Claims are validated by NimbusJwtDecoder itself, as with the decoders Spring builds.
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        return new NimbusJwtDecoder(processor);
+    }
+
+    /**
+     * Signature algorithms supported by the generator.
+     */
+    @Getter
+    public enum Algorithm {
+        RS256(JWSAlgorithm.RS256) {
+            @Override
+            JWK generateKey() throws JOSEException {
+                return new RSAKeyGenerator(2048).keyID(name()).generate();
+            }
+
+            @Override
+            JWSSigner signer(JWK jwk) throws JOSEException {
+                return new RSASSASigner(jwk.toRSAKey());
+            }
+        },
+        ES256(JWSAlgorithm.ES256) {
+            @Override
+            JWK generateKey() throws JOSEException {
+                return new ECKeyGenerator(Curve.P_256).keyID(name()).generate();
+            }
+
+            @Override
+            JWSSigner signer(JWK jwk) throws JOSEException {
+                return new ECDSASigner(jwk.toECKey());
+            }
+        },
+        HS256(JWSAlgorithm.HS256) {
+            @Override
+            JWK generateKey() throws JOSEException {
+                return new OctetSequenceKeyGenerator(256).keyID(name()).algorithm(JWSAlgorithm.HS256).generate();
+            }
+
+            @Override
+            JWSSigner signer(JWK jwk) throws JOSEException {
+                return new MACSigner(jwk.toOctetSequenceKey());
+            }
+        };
+
+        private final JWSAlgorithm jwsAlgorithm;
+
+        Algorithm(JWSAlgorithm jwsAlgorithm) {
+            this.jwsAlgorithm = jwsAlgorithm;
+        }
+
+        abstract JWK generateKey() throws JOSEException;
+
+        abstract JWSSigner signer(JWK jwk) throws JOSEException;
+    }
+}
@@ -0,0 +1,81 @@
+package ir.msob.jima.security.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ir.msob.jima.platform.api.security.UserInfoCodec;
+import ir.msob.jima.platform.testing.security.ProjectUser;
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.testing.CompactUserInfoCodec;
+import ir.msob.jima.security.testing.UserInfoDecodeCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures decoding of a propagated user-info blob in the JSON and the compact encoding, directly and
+ * through a warm {@link UserInfoDecodeCache}, to tell whether the cache is worth enabling.
+ *
+ * @author Yaqub Abdi
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserInfoDecodeBenchmark {
+
+    @Param({"JSON", "COMPACT"})
+    private Encoding encoding;
+
+    @Param({"1", "8", "64"})
+    private int roleCount;
+
+    private ObjectMapper objectMapper;
+    private UserInfoDecodeCache cache;
+    private String userInfo;
+
+    @Setup
+    public void setup() throws Exception {
+        objectMapper = new ObjectMapper();
+        SecurityProperties.UserInfoProperties properties = new SecurityProperties.UserInfoProperties();
+        properties.setDecodeCacheSize(16);
+        cache = new UserInfoDecodeCache(properties);
+        SortedSet<String> roles = new TreeSet<>();
+        for (int i = 0; i < roleCount; i++) {
+            roles.add("role-" + i);
+        }
+        ProjectUser user = ProjectUser.builder()
+                .id("4b0e9c56-1f0b-4c43-9d6e-2a1c8f3e7d10")
+                .sessionId("b7f1d3a2-5c64-4e8f-9a0b-c1d2e3f4a5b6")
+                .username("benchmark")
+                .audience("web")
+                .roles(roles)
+                .build();
+        userInfo = encoding == Encoding.COMPACT
+                ? CompactUserInfoCodec.of(objectMapper).encode(user)
+                : UserInfoCodec.encode(objectMapper, user);
+        cached();
+    }
+
+    @Benchmark
+    public ProjectUser decode() throws Exception {
+        return decode(userInfo, ProjectUser.class);
+    }
+
+    @Benchmark
+    public ProjectUser cached() throws Exception {
+        return cache.get(userInfo, ProjectUser.class, objectMapper, this::decode);
+    }
+
+    private ProjectUser decode(String blob, Class<ProjectUser> userClass) throws Exception {
+        return encoding == Encoding.COMPACT
+                ? CompactUserInfoCodec.of(objectMapper).decode(blob, userClass)
+                : UserInfoCodec.decode(objectMapper, blob, userClass);
+    }
+
+    public enum Encoding {
+        JSON, COMPACT
+    }
+}
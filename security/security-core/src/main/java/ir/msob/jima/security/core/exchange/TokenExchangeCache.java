@@ -0,0 +1,101 @@
+package ir.msob.jima.security.core.exchange;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.api.token.TokenDigest;
+import lombok.Getter;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Bounded cache of tokens obtained by token exchange (RFC 8693), keyed by the digest of the subject token
+ * and the requested audience.
+ * <p>
+ * An entry is dropped {@code refreshBefore} ahead of the exchanged token's expiry, so callers never receive a
+ * token about to expire, and never lives longer than the configured maximum TTL.
+ *
+ * @author Yaqub Abdi
+ */
+public class TokenExchangeCache {
+
+    /**
+     * The underlying cache, exposed for metrics binding.
+     */
+    @Getter
+    private final Cache<Key, OAuth2AccessToken> cache;
+
+    public TokenExchangeCache(long maximumSize, Duration maximumTtl, Duration refreshBefore) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .expireAfter(new ExchangeExpiry(maximumTtl.toNanos(), refreshBefore))
+                .build();
+    }
+
+    public TokenExchangeCache(SecurityProperties.TokenExchangeProperties properties) {
+        this(properties.getCacheMaximumSize(), properties.getMaximumTtl(), properties.getRefreshBefore());
+    }
+
+    /**
+     * Returns the cached token for the key, or {@code null} on a miss.
+     *
+     * @param key the subject token digest and audience
+     * @return the cached token or {@code null}
+     */
+    public OAuth2AccessToken get(Key key) {
+        return cache.getIfPresent(key);
+    }
+
+    /**
+     * Caches an exchanged token.
+     *
+     * @param key   the subject token digest and audience
+     * @param token the exchanged token
+     */
+    public void put(Key key, OAuth2AccessToken token) {
+        cache.put(key, token);
+    }
+
+    /**
+     * Cache key of an exchange.
+     *
+     * @param subjectToken the digest of the subject token
+     * @param audience     the requested audience
+     */
+    public record Key(TokenDigest subjectToken, String audience) {
+
+        public static Key of(String subjectToken, String audience) {
+            return new Key(TokenDigest.of(subjectToken), audience);
+        }
+    }
+
+    /**
+     * Expires each entry {@code refreshBefore} ahead of the token's expiry, capped by the maximum TTL.
+     */
+    private record ExchangeExpiry(long maximumTtlNanos, Duration refreshBefore) implements Expiry<Key, OAuth2AccessToken> {
+
+        @Override
+        public long expireAfterCreate(Key key, OAuth2AccessToken token, long currentTime) {
+            Instant expiresAt = token.getExpiresAt();
+            if (expiresAt == null) {
+                return maximumTtlNanos;
+            }
+            long remaining = Duration.between(Instant.now(), expiresAt.minus(refreshBefore)).toNanos();
+            return Math.max(0, Math.min(remaining, maximumTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, OAuth2AccessToken token, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, token, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Key key, OAuth2AccessToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package ir.msob.jima.security.core.introspection;
+
+import ir.msob.jima.security.api.token.TokenDigest;
+import ir.msob.jima.security.api.util.SingleFlight;
+import lombok.Getter;
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.security.oauth2.server.resource.introspection.BadOpaqueTokenCredentialsException;
+import org.springframework.security.oauth2.server.resource.introspection.OpaqueTokenIntrospector;
+
+import java.time.Duration;
+
+/**
+ * {@link OpaqueTokenIntrospector} decorator that serves repeated tokens from an {@link IntrospectionCache}.
+ * <p>
+ * Both verdicts are cached: active tokens until they expire, inactive ones for the negative TTL.
+ * Failures to reach the endpoint are never cached. Concurrent introspections of the same token are
+ * coalesced into a single call to the delegate.
+ *
+ * @author Yaqub Abdi
+ */
+public class CachingOpaqueTokenIntrospector implements OpaqueTokenIntrospector {
+
+    private static final String INACTIVE_TOKEN = "Provided token isn't active";
+
+    private final OpaqueTokenIntrospector delegate;
+    @Getter
+    private final IntrospectionCache introspectionCache;
+    @Getter
+    private final SingleFlight<TokenDigest, IntrospectionCache.Result> singleFlight = new SingleFlight<>();
+    private final Duration coalescingTimeout;
+
+    public CachingOpaqueTokenIntrospector(OpaqueTokenIntrospector delegate, IntrospectionCache introspectionCache
+            , Duration coalescingTimeout) {
+        this.delegate = delegate;
+        this.introspectionCache = introspectionCache;
+        this.coalescingTimeout = coalescingTimeout;
+    }
+
+    @Override
+    public OAuth2AuthenticatedPrincipal introspect(String token) {
+        TokenDigest digest = TokenDigest.of(token);
+        IntrospectionCache.Result result = introspectionCache.get(digest);
+        if (result == null) {
+            result = singleFlight.execute(digest, () -> load(digest, token), coalescingTimeout);
+        }
+        if (!result.isActive()) {
+            throw new BadOpaqueTokenCredentialsException(INACTIVE_TOKEN);
+        }
+        return result.principal();
+    }
+
+    private IntrospectionCache.Result load(TokenDigest digest, String token) {
+        // A call that finished just before this one started may already have filled the cache.
+        IntrospectionCache.Result result = introspectionCache.get(digest);
+        if (result != null) {
+            return result;
+        }
+        try {
+            result = IntrospectionCache.Result.active(delegate.introspect(token));
+        } catch (BadOpaqueTokenCredentialsException e) {
+            result = IntrospectionCache.Result.inactive();
+        }
+        introspectionCache.put(digest, result);
+        return result;
+    }
+}
@@ -0,0 +1,136 @@
+package ir.msob.jima.security.core.introspection;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.api.token.TokenDigest;
+import lombok.Getter;
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.security.oauth2.core.OAuth2TokenIntrospectionClaimNames;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Bounded cache of token introspection results keyed by the {@link TokenDigest} of the raw token.
+ * <p>
+ * Active results live until the token's {@code exp}, capped by the maximum TTL; inactive results
+ * live for the short negative TTL, so a rejected token is re-checked soon but cannot hammer the
+ * introspection endpoint.
+ *
+ * @author Yaqub Abdi
+ */
+public class IntrospectionCache {
+
+    /**
+     * The underlying cache, exposed for metrics binding.
+     */
+    @Getter
+    private final Cache<TokenDigest, Result> cache;
+
+    public IntrospectionCache(long maximumSize, Duration maximumTtl, Duration negativeTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .expireAfter(new IntrospectionExpiry(maximumTtl.toNanos(), negativeTtl.toNanos()))
+                .build();
+    }
+
+    public IntrospectionCache(SecurityProperties.IntrospectionProperties properties) {
+        this(properties.getCacheMaximumSize(), properties.getMaximumTtl(), properties.getNegativeTtl());
+    }
+
+    private static Instant expiresAt(OAuth2AuthenticatedPrincipal principal) {
+        Object exp = principal.getAttribute(OAuth2TokenIntrospectionClaimNames.EXP);
+        if (exp instanceof Instant instant) {
+            return instant;
+        }
+        if (exp instanceof Number seconds) {
+            return Instant.ofEpochSecond(seconds.longValue());
+        }
+        return null;
+    }
+
+    /**
+     * Returns the cached result for the digest, or {@code null} on a miss.
+     *
+     * @param digest the digest of the raw token
+     * @return the cached result or {@code null}
+     */
+    public Result get(TokenDigest digest) {
+        return cache.getIfPresent(digest);
+    }
+
+    /**
+     * Caches a result.
+     *
+     * @param digest the digest of the raw token
+     * @param result the introspection result
+     */
+    public void put(TokenDigest digest, Result result) {
+        cache.put(digest, result);
+    }
+
+    /**
+     * Returns a snapshot of the hit/miss statistics.
+     *
+     * @return the statistics
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Outcome of one introspection.
+     *
+     * @param principal the principal of an active token, {@code null} for an inactive one
+     */
+    public record Result(OAuth2AuthenticatedPrincipal principal) {
+
+        private static final Result INACTIVE = new Result(null);
+
+        public static Result active(OAuth2AuthenticatedPrincipal principal) {
+            return new Result(principal);
+        }
+
+        public static Result inactive() {
+            return INACTIVE;
+        }
+
+        public boolean isActive() {
+            return principal != null;
+        }
+    }
+
+    /**
+     * Expires active results at the token's {@code exp}, capped by the maximum TTL, and inactive ones
+     * after the negative TTL.
+     */
+    private record IntrospectionExpiry(long maximumTtlNanos, long negativeTtlNanos) implements Expiry<TokenDigest, Result> {
+
+        @Override
+        public long expireAfterCreate(TokenDigest key, Result result, long currentTime) {
+            if (!result.isActive()) {
+                return negativeTtlNanos;
+            }
+            Instant expiresAt = expiresAt(result.principal());
+            if (expiresAt == null) {
+                return maximumTtlNanos;
+            }
+            long remaining = Duration.between(Instant.now(), expiresAt).toNanos();
+            return Math.max(0, Math.min(remaining, maximumTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenDigest key, Result result, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, result, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenDigest key, Result result, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
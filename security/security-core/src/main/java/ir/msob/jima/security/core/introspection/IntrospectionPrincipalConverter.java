@@ -0,0 +1,37 @@
+package ir.msob.jima.security.core.introspection;
+
+import ir.msob.jima.security.api.token.RoleMapper;
+import ir.msob.jima.security.core.jwt.GrantedAuthorityCache;
+import org.jspecify.annotations.NonNull;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.security.oauth2.core.OAuth2TokenIntrospectionClaimsAccessor;
+import org.springframework.security.oauth2.server.resource.introspection.OAuth2IntrospectionAuthenticatedPrincipal;
+
+/**
+ * Builds the principal of an active opaque token, with authorities mapped from the introspection
+ * claims by the same {@link RoleMapper} that maps JWT claims.
+ *
+ * @author Yaqub Abdi
+ */
+public class IntrospectionPrincipalConverter
+        implements Converter<@NonNull OAuth2TokenIntrospectionClaimsAccessor, OAuth2AuthenticatedPrincipal> {
+
+    private final RoleMapper roleMapper;
+    private final GrantedAuthorityCache grantedAuthorityCache;
+
+    public IntrospectionPrincipalConverter(RoleMapper roleMapper) {
+        this(roleMapper, new GrantedAuthorityCache());
+    }
+
+    public IntrospectionPrincipalConverter(RoleMapper roleMapper, GrantedAuthorityCache grantedAuthorityCache) {
+        this.roleMapper = roleMapper;
+        this.grantedAuthorityCache = grantedAuthorityCache;
+    }
+
+    @Override
+    public OAuth2AuthenticatedPrincipal convert(OAuth2TokenIntrospectionClaimsAccessor claims) {
+        return new OAuth2IntrospectionAuthenticatedPrincipal(claims.getUsername(), claims.getClaims()
+                , grantedAuthorityCache.get(roleMapper.extractRoles(claims.getClaims())));
+    }
+}
@@ -0,0 +1,72 @@
+package ir.msob.jima.security.core.jwk;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.util.StringUtils;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Builds JWT decoders on top of a {@link JwkSetSource}, so that creating the decoder never touches the network.
+ *
+ * @author Yaqub Abdi
+ */
+public class JwkSetJwtDecoders {
+
+    private JwkSetJwtDecoders() {
+    }
+
+    /**
+     * Creates a {@link JwtDecoder} verifying signatures with the keys of the source.
+     *
+     * @param jwkSetSource  the key source
+     * @param jwsAlgorithms the accepted signature algorithms
+     * @param issuerUri     the expected issuer, or empty to skip issuer validation
+     * @return the decoder
+     */
+    public static JwtDecoder jwtDecoder(JwkSetSource jwkSetSource, Collection<String> jwsAlgorithms, String issuerUri) {
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(jwtProcessor(jwkSetSource, jwsAlgorithms));
+        decoder.setJwtValidator(jwtValidator(issuerUri));
+        return decoder;
+    }
+
+    /**
+     * Creates the Nimbus processor selecting keys from the source.
+     * Claims are left to the Spring validators, as with the decoders Spring builds itself.
+     *
+     * @param jwkSetSource  the key source
+     * @param jwsAlgorithms the accepted signature algorithms
+     * @return the processor
+     */
+    public static DefaultJWTProcessor<SecurityContext> jwtProcessor(JwkSetSource jwkSetSource, Collection<String> jwsAlgorithms) {
+        Set<JWSAlgorithm> algorithms = jwsAlgorithms.stream()
+                .map(JWSAlgorithm::parse)
+                .collect(Collectors.toSet());
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(algorithms, jwkSetSource));
+        processor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+        return processor;
+    }
+
+    /**
+     * Creates the default validator, including the issuer check when an issuer is given.
+     *
+     * @param issuerUri the expected issuer, or empty
+     * @return the validator
+     */
+    public static OAuth2TokenValidator<Jwt> jwtValidator(String issuerUri) {
+        return StringUtils.hasText(issuerUri)
+                ? JwtValidators.createDefaultWithIssuer(issuerUri)
+                : JwtValidators.createDefault();
+    }
+}
@@ -0,0 +1,408 @@
+package ir.msob.jima.security.core.jwk;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jose.util.DefaultResourceRetriever;
+import com.nimbusds.jose.util.JSONObjectUtils;
+import com.nimbusds.jose.util.ResourceRetriever;
+import ir.msob.jima.platform.api.logger.Logger;
+import ir.msob.jima.platform.api.logger.LoggerFactory;
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link JWKSource} that can start without contacting the identity provider and keeps its keys
+ * fresh in the background.
+ * <p>
+ * Keys are bootstrapped from a local JWKS snapshot when one exists; the remote JWK set is then
+ * fetched in the background. Without a snapshot, the first remote fetch happens lazily, on the
+ * first verification; if that fetch fails, verifications fail fast without touching the snapshot or the
+ * network until {@code unknownKeyRefetchInterval} has passed, and then a single one retries. When only the issuer is known, the JWK set URI is discovered lazily from the
+ * issuer's OpenID configuration. Each fetched set can be written back to the snapshot so restarts
+ * do not depend on the identity provider.
+ * <p>
+ * After startup the set is refreshed on a fixed schedule, so rotated keys are normally known
+ * before the first token signed with them arrives. A token with an unknown key id triggers a
+ * synchronous fetch at most once per {@code unknownKeyRefetchInterval}; key ids that are still
+ * unknown after a fetch are remembered for {@code unknownKeyCacheTtl} and rejected without any
+ * fetch, so tokens with made-up key ids cannot drive load to the identity provider.
+ *
+ * @author Yaqub Abdi
+ */
+public class JwkSetSource implements JWKSource<SecurityContext>, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwkSetSource.class);
+    private static final String OIDC_DISCOVERY_PATH = "/.well-known/openid-configuration";
+    private static final int SIZE_LIMIT = 512 * 1024;
+
+    private final String issuerUri;
+    private final Path snapshot;
+    private final boolean persistSnapshot;
+    private final Duration refreshInterval;
+    private final long unknownKeyRefetchIntervalNanos;
+    private final ResourceRetriever resourceRetriever;
+    private final AtomicReference<JWKSet> jwkSet = new AtomicReference<>();
+    /**
+     * Key ids that were still unknown after a fetch.
+     */
+    private final Cache<String, Boolean> unknownKeyIds;
+    private final AtomicLong lastUnknownKeyRefetch = new AtomicLong(System.nanoTime() - Long.MAX_VALUE / 2);
+    /**
+     * When the last bootstrap fetch failed, meaningful only while {@link #bootstrapFailed} is set.
+     */
+    private final AtomicLong lastBootstrapFailure = new AtomicLong();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private final LongAdder unknownKeyRefetches = new LongAdder();
+    private final LongAdder unknownKeyRejections = new LongAdder();
+    private volatile URL jwkSetUrl;
+    private volatile Instant updatedAt;
+    private volatile Duration lastRefreshDuration = Duration.ZERO;
+    private volatile boolean bootstrapFailed;
+    private ScheduledExecutorService executor;
+
+    public JwkSetSource(SecurityProperties.JwksProperties properties, String issuerUri) {
+        this(properties, issuerUri, new DefaultResourceRetriever(
+                (int) properties.getConnectTimeout().toMillis(),
+                (int) properties.getReadTimeout().toMillis(),
+                SIZE_LIMIT));
+    }
+
+    public JwkSetSource(SecurityProperties.JwksProperties properties, String issuerUri, ResourceRetriever resourceRetriever) {
+        this.issuerUri = StringUtils.hasText(issuerUri) ? issuerUri : null;
+        this.snapshot = StringUtils.hasText(properties.getSnapshotLocation()) ? Path.of(properties.getSnapshotLocation()) : null;
+        this.persistSnapshot = properties.isPersistSnapshot();
+        this.refreshInterval = properties.getRefreshInterval();
+        this.unknownKeyRefetchIntervalNanos = properties.getUnknownKeyRefetchInterval().toNanos();
+        this.resourceRetriever = resourceRetriever;
+        this.unknownKeyIds = Caffeine.newBuilder()
+                .maximumSize(properties.getUnknownKeyCacheSize())
+                .expireAfterWrite(properties.getUnknownKeyCacheTtl())
+                .build();
+        this.jwkSetUrl = StringUtils.hasText(properties.getJwkSetUri()) ? toUrl(properties.getJwkSetUri()) : null;
+        if (this.jwkSetUrl == null && this.issuerUri == null && this.snapshot == null) {
+            throw new IllegalArgumentException("A JWK set URI, an issuer URI or a snapshot location is required");
+        }
+    }
+
+    private static URL toUrl(String uri) {
+        try {
+            return URI.create(uri).toURL();
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid URI: " + uri, e);
+        }
+    }
+
+    private static String keyId(JWKSelector jwkSelector) {
+        Set<String> keyIds = jwkSelector.getMatcher().getKeyIDs();
+        return keyIds == null || keyIds.isEmpty() ? null : keyIds.iterator().next();
+    }
+
+    /**
+     * Loads the snapshot, if any, and schedules the background refresh. When the snapshot provided
+     * the initial keys, the first refresh runs immediately. Never blocks on the network.
+     */
+    public synchronized void start() {
+        loadSnapshot();
+        if (executor == null && isRemote()) {
+            executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "jima-jwks-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long initialDelay = jwkSet.get() != null ? 0 : refreshInterval.toMillis();
+            executor.scheduleWithFixedDelay(this::refreshQuietly, initialDelay, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) throws KeySourceException {
+        JWKSet keys = jwkSet.get();
+        if (keys == null) {
+            keys = bootstrap();
+        }
+        List<JWK> matches = jwkSelector.select(keys);
+        if (matches.isEmpty() && isRemote()) {
+            matches = selectUnknownKey(jwkSelector, keys);
+        }
+        return matches;
+    }
+
+    /**
+     * Lazy bootstrap: nothing loaded yet, so the first verification loads the snapshot or fetches the
+     * keys. After a failed fetch, one caller per retry interval tries again and the others fail fast.
+     */
+    private JWKSet bootstrap() throws KeySourceException {
+        if (bootstrapFailed) {
+            long now = System.nanoTime();
+            long last = lastBootstrapFailure.get();
+            if (now - last < unknownKeyRefetchIntervalNanos || !lastBootstrapFailure.compareAndSet(last, now)) {
+                throw bootstrapBackoff();
+            }
+            bootstrapFailed = false;
+        }
+        loadSnapshot();
+        JWKSet keys = jwkSet.get();
+        return keys != null ? keys : refresh(null);
+    }
+
+    private boolean isBootstrapBackingOff() {
+        return bootstrapFailed && System.nanoTime() - lastBootstrapFailure.get() < unknownKeyRefetchIntervalNanos;
+    }
+
+    private KeySourceException bootstrapBackoff() {
+        return new KeySourceException("No JWK set is available, the last fetch failed less than "
+                + Duration.ofNanos(unknownKeyRefetchIntervalNanos) + " ago");
+    }
+
+    /**
+     * Handles a key id missing from the current set: rejects remembered unknown ids, otherwise
+     * fetches once if the rate limit allows and remembers the id if it is still unknown.
+     */
+    private List<JWK> selectUnknownKey(JWKSelector jwkSelector, JWKSet keys) throws KeySourceException {
+        String keyId = keyId(jwkSelector);
+        if (keyId != null && unknownKeyIds.getIfPresent(keyId) != null) {
+            unknownKeyRejections.increment();
+            return List.of();
+        }
+        if (!tryAcquireUnknownKeyRefetch()) {
+            unknownKeyRejections.increment();
+            return List.of();
+        }
+        unknownKeyRefetches.increment();
+        List<JWK> matches = jwkSelector.select(refresh(keys));
+        if (matches.isEmpty() && keyId != null) {
+            unknownKeyIds.put(keyId, Boolean.TRUE);
+        }
+        return matches;
+    }
+
+    private boolean tryAcquireUnknownKeyRefetch() {
+        long now = System.nanoTime();
+        long last = lastUnknownKeyRefetch.get();
+        return now - last >= unknownKeyRefetchIntervalNanos && lastUnknownKeyRefetch.compareAndSet(last, now);
+    }
+
+    /**
+     * Tells whether verifying a token with the given key id would have to fetch the JWK set,
+     * so reactive callers can move the verification off the event loop.
+     *
+     * @param keyId the key id from the token header, may be {@code null}
+     * @return {@code true} if a remote fetch would be needed
+     */
+    public boolean requiresFetch(String keyId) {
+        JWKSet keys = jwkSet.get();
+        if (keys == null) {
+            return !isBootstrapBackingOff();
+        }
+        return keyId != null
+                && isRemote()
+                && keys.getKeyByKeyId(keyId) == null
+                && unknownKeyIds.getIfPresent(keyId) == null
+                && System.nanoTime() - lastUnknownKeyRefetch.get() >= unknownKeyRefetchIntervalNanos;
+    }
+
+    /**
+     * @return the current JWK set, or {@code null} if none has been loaded yet
+     */
+    public JWKSet getJwkSet() {
+        return jwkSet.get();
+    }
+
+    /**
+     * @return the time since the current JWK set was loaded, or {@code null} if none has been loaded yet
+     */
+    public Duration getKeySetAge() {
+        Instant loaded = updatedAt;
+        return loaded == null ? null : Duration.between(loaded, Instant.now());
+    }
+
+    /**
+     * @return the duration of the last remote fetch
+     */
+    public Duration getLastRefreshDuration() {
+        return lastRefreshDuration;
+    }
+
+    /**
+     * @return the number of successful remote fetches
+     */
+    public long getRefreshes() {
+        return refreshes.sum();
+    }
+
+    /**
+     * @return the number of failed remote fetches
+     */
+    public long getRefreshFailures() {
+        return refreshFailures.sum();
+    }
+
+    /**
+     * @return the number of fetches triggered by an unknown key id
+     */
+    public long getUnknownKeyRefetches() {
+        return unknownKeyRefetches.sum();
+    }
+
+    /**
+     * @return the number of unknown key ids rejected without a fetch
+     */
+    public long getUnknownKeyRejections() {
+        return unknownKeyRejections.sum();
+    }
+
+    private boolean isRemote() {
+        return jwkSetUrl != null || issuerUri != null;
+    }
+
+    /**
+     * Fetches the remote JWK set unless another thread already replaced {@code observed} meanwhile.
+     * If the fetch fails and keys are already loaded, the loaded keys are kept.
+     *
+     * @param observed the set the caller saw, or {@code null}
+     * @return the current set
+     * @throws KeySourceException if no keys are loaded and the fetch fails
+     */
+    protected synchronized JWKSet refresh(JWKSet observed) throws KeySourceException {
+        JWKSet current = jwkSet.get();
+        if (current != observed && current != null) {
+            return current;
+        }
+        if (!isRemote()) {
+            if (current == null) {
+                throw new KeySourceException("No JWK set is available");
+            }
+            return current;
+        }
+        if (current == null && isBootstrapBackingOff()) {
+            // Callers queued behind a failed bootstrap fetch must not repeat it.
+            throw bootstrapBackoff();
+        }
+        long start = System.nanoTime();
+        try {
+            JWKSet fetched = fetch();
+            lastRefreshDuration = Duration.ofNanos(System.nanoTime() - start);
+            refreshes.increment();
+            update(fetched);
+            persist(fetched);
+            return fetched;
+        } catch (IOException | ParseException e) {
+            lastRefreshDuration = Duration.ofNanos(System.nanoTime() - start);
+            refreshFailures.increment();
+            if (current != null) {
+                logger.warn("Failed to fetch JWK set, keeping the current keys: {}", e.getMessage());
+                return current;
+            }
+            lastBootstrapFailure.set(System.nanoTime());
+            bootstrapFailed = true;
+            throw new KeySourceException("Failed to fetch JWK set: " + e.getMessage(), e);
+        }
+    }
+
+    private void update(JWKSet keys) {
+        jwkSet.set(keys);
+        updatedAt = Instant.now();
+        // Forget only the unknown ids the new set knows; an unchanged set keeps the negative cache intact.
+        List<String> keyIds = keys.getKeys().stream()
+                .map(JWK::getKeyID)
+                .filter(Objects::nonNull)
+                .toList();
+        unknownKeyIds.invalidateAll(keyIds);
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh(jwkSet.get());
+        } catch (KeySourceException e) {
+            logger.warn("Background JWK set refresh failed: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            // Keep the schedule alive whatever happens.
+            logger.error("Background JWK set refresh failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private JWKSet fetch() throws IOException, ParseException {
+        return JWKSet.parse(resourceRetriever.retrieveResource(resolveJwkSetUrl()).getContent());
+    }
+
+    private URL resolveJwkSetUrl() throws IOException, ParseException {
+        URL url = jwkSetUrl;
+        if (url == null) {
+            String configuration = resourceRetriever.retrieveResource(toUrl(trimTrailingSlash(issuerUri) + OIDC_DISCOVERY_PATH)).getContent();
+            String jwksUri = JSONObjectUtils.getString(JSONObjectUtils.parse(configuration), "jwks_uri");
+            if (!StringUtils.hasText(jwksUri)) {
+                throw new IOException("The OpenID configuration of " + issuerUri + " has no jwks_uri");
+            }
+            url = toUrl(jwksUri);
+            jwkSetUrl = url;
+        }
+        return url;
+    }
+
+    private String trimTrailingSlash(String uri) {
+        return uri.endsWith("/") ? uri.substring(0, uri.length() - 1) : uri;
+    }
+
+    private synchronized void loadSnapshot() {
+        if (snapshot == null || jwkSet.get() != null || !Files.isReadable(snapshot)) {
+            return;
+        }
+        try {
+            update(JWKSet.parse(Files.readString(snapshot, StandardCharsets.UTF_8)));
+            logger.info("Loaded JWK set snapshot from {}", snapshot);
+        } catch (IOException | ParseException e) {
+            logger.warn("Ignoring unreadable JWK set snapshot {}: {}", snapshot, e.getMessage());
+        }
+    }
+
+    private void persist(JWKSet keys) {
+        if (!persistSnapshot || snapshot == null) {
+            return;
+        }
+        try {
+            Path parent = snapshot.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temporary = Files.createTempFile(parent, snapshot.getFileName().toString(), ".tmp");
+            // Only public keys are ever written.
+            Files.writeString(temporary, keys.toString(true), StandardCharsets.UTF_8);
+            Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Failed to persist JWK set snapshot {}: {}", snapshot, e.getMessage());
+        }
+    }
+}
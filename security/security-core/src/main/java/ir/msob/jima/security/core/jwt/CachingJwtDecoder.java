@@ -0,0 +1,59 @@
+package ir.msob.jima.security.core.jwt;
+
+import ir.msob.jima.security.api.token.TokenDigest;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link JwtDecoder} decorator that serves repeated tokens from a {@link JwtCache}.
+ * <p>
+ * Only successfully decoded tokens are cached; failures always reach the delegate, so an invalid
+ * token is re-verified on every attempt.
+ *
+ * @author Yaqub Abdi
+ */
+@RequiredArgsConstructor
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    @Getter
+    private final JwtCache jwtCache;
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        TokenDigest digest = TokenDigest.of(token);
+        Jwt jwt = jwtCache.get(digest);
+        if (jwt == null) {
+            jwt = delegate.decode(token);
+            jwtCache.put(digest, jwt);
+        }
+        return jwt;
+    }
+
+    /**
+     * Decodes {@code token[start, end)} held as raw ASCII header bytes.
+     * <p>
+     * The cache is consulted on the bytes themselves; the token is only materialised as a string when it
+     * has to reach the delegate.
+     *
+     * @param token the bytes holding the token
+     * @param start index of the first byte of the token
+     * @param end   index after the last byte of the token
+     * @return the decoded token
+     * @throws JwtException when the token cannot be decoded
+     */
+    public Jwt decode(byte[] token, int start, int end) throws JwtException {
+        TokenDigest digest = TokenDigest.of(token, start, end);
+        Jwt jwt = jwtCache.get(digest);
+        if (jwt == null) {
+            jwt = delegate.decode(new String(token, start, end - start, StandardCharsets.ISO_8859_1));
+            jwtCache.put(digest, jwt);
+        }
+        return jwt;
+    }
+}
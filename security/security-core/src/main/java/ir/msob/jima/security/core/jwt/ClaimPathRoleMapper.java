@@ -0,0 +1,82 @@
+package ir.msob.jima.security.core.jwt;
+
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.api.token.ClaimPath;
+import ir.msob.jima.security.api.token.RoleMapper;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * {@link RoleMapper} that reads roles from configurable claim paths, such as {@code realm_access.roles},
+ * {@code resource_access.{client}.roles} and {@code scope}.
+ * <p>
+ * The paths are compiled once. Roles are collected from every path in order, optionally prefixed,
+ * case-normalised and deduplicated. Normalised names are memoized, so the per-token cost is the map
+ * walk and a single list.
+ *
+ * @author Yaqub Abdi
+ */
+public class ClaimPathRoleMapper implements RoleMapper {
+
+    /**
+     * Upper bound of memoized role names; the memo is cleared when it is reached.
+     */
+    private static final int MAXIMUM_NORMALISED_ROLES = 4_096;
+
+    private final ClaimPath[] claimPaths;
+    private final String prefix;
+    private final SecurityProperties.RoleMappingProperties.RoleCase roleCase;
+    private final boolean deduplicate;
+    private final boolean normalise;
+    private final Map<String, String> normalisedRoles = new ConcurrentHashMap<>();
+    private final Function<String, String> normaliser = this::doNormalise;
+
+    public ClaimPathRoleMapper(SecurityProperties.RoleMappingProperties properties) {
+        this.claimPaths = properties.getClaimPaths().stream()
+                .map(path -> ClaimPath.compile(path, properties.getVariables()))
+                .toArray(ClaimPath[]::new);
+        this.prefix = properties.getPrefix() == null ? "" : properties.getPrefix();
+        this.roleCase = properties.getRoleCase();
+        this.deduplicate = properties.isDeduplicate();
+        this.normalise = !prefix.isEmpty() || roleCase != SecurityProperties.RoleMappingProperties.RoleCase.NONE;
+    }
+
+    @Override
+    public List<String> extractRoles(Map<String, Object> claims) {
+        List<String> roles = new ArrayList<>();
+        for (ClaimPath claimPath : claimPaths) {
+            claimPath.forEach(claims, role -> roles.add(normalise ? normalise(role) : role));
+        }
+        if (deduplicate && roles.size() > 1) {
+            return deduplicated(roles);
+        }
+        return roles;
+    }
+
+    private static List<String> deduplicated(List<String> roles) {
+        Set<String> unique = new LinkedHashSet<>(roles);
+        return unique.size() == roles.size() ? roles : new ArrayList<>(unique);
+    }
+
+    private String normalise(String role) {
+        String normalised = normalisedRoles.get(role);
+        if (normalised != null) {
+            return normalised;
+        }
+        if (normalisedRoles.size() >= MAXIMUM_NORMALISED_ROLES) {
+            normalisedRoles.clear();
+        }
+        return normalisedRoles.computeIfAbsent(role, normaliser);
+    }
+
+    private String doNormalise(String role) {
+        String cased = switch (roleCase) {
+            case UPPER -> role.toUpperCase(Locale.ROOT);
+            case LOWER -> role.toLowerCase(Locale.ROOT);
+            case NONE -> role;
+        };
+        return prefix + cased;
+    }
+}
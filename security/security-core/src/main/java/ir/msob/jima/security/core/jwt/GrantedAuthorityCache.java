@@ -0,0 +1,92 @@
+package ir.msob.jima.security.core.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Interns {@link GrantedAuthority} instances and memoizes the immutable authority list of each
+ * distinct role list.
+ * <p>
+ * Services usually see only a handful of role combinations, so after warm-up converting roles to
+ * authorities is a single cache lookup that allocates nothing. Both caches are bounded.
+ *
+ * @author Yaqub Abdi
+ */
+public class GrantedAuthorityCache {
+
+    public static final long DEFAULT_MAXIMUM_SIZE = 1_024;
+
+    private final long maximumSize;
+    private final Cache<String, GrantedAuthority> authorities;
+    private final Cache<List<String>, List<GrantedAuthority>> collections;
+    private final Function<String, GrantedAuthority> authorityFactory = SimpleGrantedAuthority::new;
+    private final Function<List<String>, List<GrantedAuthority>> collectionFactory = this::create;
+
+    public GrantedAuthorityCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    public GrantedAuthorityCache(long maximumSize) {
+        this.maximumSize = maximumSize;
+        this.authorities = Caffeine.newBuilder().maximumSize(maximumSize).build();
+        this.collections = Caffeine.newBuilder().maximumSize(maximumSize).build();
+    }
+
+    /**
+     * Returns the immutable authority list for the roles.
+     *
+     * @param roles the role names
+     * @return the authorities, in the order of the roles
+     */
+    public List<GrantedAuthority> get(List<String> roles) {
+        if (roles.isEmpty()) {
+            return List.of();
+        }
+        List<GrantedAuthority> cached = collections.getIfPresent(roles);
+        if (cached != null) {
+            return cached;
+        }
+        // Copy the key so a mutable list handed in by a RoleMapper cannot change it later.
+        return collections.get(List.copyOf(roles), collectionFactory);
+    }
+
+    /**
+     * Returns the interned authority for a role.
+     *
+     * @param role the role name
+     * @return the authority
+     */
+    public GrantedAuthority authority(String role) {
+        return authorities.get(role, authorityFactory);
+    }
+
+    /**
+     * @return the bound of each cache, so caches derived from this one can share it
+     */
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * @return the number of memoized role lists once pending evictions have run
+     */
+    long collectionCount() {
+        collections.cleanUp();
+        return collections.estimatedSize();
+    }
+
+    private List<GrantedAuthority> create(List<String> roles) {
+        List<GrantedAuthority> list = new ArrayList<>(roles.size());
+        for (String role : roles) {
+            list.add(authority(role));
+        }
+        return Collections.unmodifiableList(list);
+    }
+}
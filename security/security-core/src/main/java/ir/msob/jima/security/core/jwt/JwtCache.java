@@ -0,0 +1,102 @@
+package ir.msob.jima.security.core.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.api.token.TokenDigest;
+import lombok.Getter;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Bounded cache of decoded {@link Jwt}s keyed by the {@link TokenDigest} of the raw token.
+ * <p>
+ * An entry lives at most until the token's {@code exp} claim and never longer than the configured
+ * maximum TTL. The cache is bounded by size, can hold its values softly so that it shrinks under
+ * memory pressure, and records hit/miss statistics for sizing.
+ *
+ * @author Yaqub Abdi
+ */
+public class JwtCache {
+
+    /**
+     * The underlying cache, exposed for metrics binding.
+     */
+    @Getter
+    private final Cache<TokenDigest, Jwt> cache;
+
+    public JwtCache(long maximumSize, Duration maximumTtl, boolean softValues) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats();
+        if (softValues) {
+            builder.softValues();
+        }
+        this.cache = builder
+                .expireAfter(new JwtExpiry(maximumTtl.toNanos()))
+                .build();
+    }
+
+    public JwtCache(SecurityProperties.DecoderCacheProperties properties) {
+        this(properties.getMaximumSize(), properties.getMaximumTtl(), properties.isSoftValues());
+    }
+
+    /**
+     * Returns the cached token for the digest, or {@code null} on a miss.
+     *
+     * @param digest the digest of the raw token
+     * @return the cached token or {@code null}
+     */
+    public Jwt get(TokenDigest digest) {
+        return cache.getIfPresent(digest);
+    }
+
+    /**
+     * Caches a decoded token. Tokens that are already expired are not retained.
+     *
+     * @param digest the digest of the raw token
+     * @param jwt    the decoded token
+     */
+    public void put(TokenDigest digest, Jwt jwt) {
+        cache.put(digest, jwt);
+    }
+
+    /**
+     * Returns a snapshot of the hit/miss statistics.
+     *
+     * @return the statistics
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Expires each entry at the token's {@code exp}, capped by the maximum TTL.
+     */
+    private record JwtExpiry(long maximumTtlNanos) implements Expiry<TokenDigest, Jwt> {
+
+        @Override
+        public long expireAfterCreate(TokenDigest key, Jwt jwt, long currentTime) {
+            Instant expiresAt = jwt.getExpiresAt();
+            if (expiresAt == null) {
+                return maximumTtlNanos;
+            }
+            long remaining = Duration.between(Instant.now(), expiresAt).toNanos();
+            return Math.max(0, Math.min(remaining, maximumTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenDigest key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenDigest key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
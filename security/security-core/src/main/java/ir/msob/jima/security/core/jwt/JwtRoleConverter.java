@@ -1,33 +1,61 @@
 package ir.msob.jima.security.core.jwt;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import ir.msob.jima.security.api.token.RoleMapper;
+import ir.msob.jima.security.core.metrics.SecurityMetrics;
 import org.jspecify.annotations.NonNull;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 
-public class JwtRoleConverter implements Converter<@NonNull Jwt, Collection<GrantedAuthority>> {
+public class JwtRoleConverter implements Converter<@NonNull Jwt, Collection<GrantedAuthority>>, MeterBinder {
 
     private final RoleMapper roleMapper;
+    private final GrantedAuthorityCache grantedAuthorityCache;
+    /**
+     * Conversion timer, set once the converter is bound to a meter registry.
+     */
+    private volatile Timer conversionTimer;
 
     public JwtRoleConverter(RoleMapper roleMapper) {
+        this(roleMapper, new GrantedAuthorityCache());
+    }
+
+    public JwtRoleConverter(RoleMapper roleMapper, GrantedAuthorityCache grantedAuthorityCache) {
         this.roleMapper = roleMapper;
+        this.grantedAuthorityCache = grantedAuthorityCache;
     }
 
+    /**
+     * Converts the roles of the token to authorities.
+     *
+     * @param jwt the token
+     * @return the cached, immutable authority list for the token's roles
+     */
     @Override
     public Collection<GrantedAuthority> convert(Jwt jwt) {
+        Timer timer = conversionTimer;
+        if (timer == null) {
+            return grantedAuthorityCache.get(roleMapper.extractRoles(jwt.getClaims()));
+        }
 
+        long start = System.nanoTime();
         List<String> roles = roleMapper.extractRoles(jwt.getClaims());
+        Collection<GrantedAuthority> authorities = grantedAuthorityCache.get(roles);
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return authorities;
+    }
 
-        return roles.stream()
-                .map(SimpleGrantedAuthority::new)
-                .map(g -> (GrantedAuthority) g)
-                .toList();
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        conversionTimer = registry.timer(SecurityMetrics.ROLE_CONVERSION, "converter", "jwt");
     }
 
 }
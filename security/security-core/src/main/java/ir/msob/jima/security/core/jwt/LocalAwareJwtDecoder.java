@@ -0,0 +1,24 @@
+package ir.msob.jima.security.core.jwt;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+/**
+ * {@link JwtDecoder} that verifies HMAC-signed local tokens in-process and hands every other token
+ * to the delegate. Each side only accepts its own algorithms, so routing on the header is safe.
+ *
+ * @author Yaqub Abdi
+ */
+@RequiredArgsConstructor
+public class LocalAwareJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder localDecoder;
+    private final JwtDecoder delegate;
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        return LocalJwts.isMacSigned(token) ? localDecoder.decode(token) : delegate.decode(token);
+    }
+}
@@ -0,0 +1,77 @@
+package ir.msob.jima.security.core.jwt;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Mints HMAC-signed service tokens in-process from {@link SecurityProperties.JwtProperties}.
+ * <p>
+ * Every token carries the configured claims plus {@code iss}, {@code iat}, {@code exp} and a fresh
+ * {@code jti}; {@code expiration} is the lifetime in seconds.
+ *
+ * @author Yaqub Abdi
+ */
+public class LocalJwtIssuer {
+
+    private final MACSigner signer;
+    private final JWSAlgorithm algorithm;
+    private final Duration expiration;
+    private final Map<String, Object> claims;
+    private final String issuer;
+
+    public LocalJwtIssuer(SecurityProperties.JwtProperties properties, String issuer) {
+        try {
+            this.signer = new MACSigner(LocalJwts.secretKey(properties));
+        } catch (JOSEException e) {
+            throw new IllegalArgumentException("Invalid local token secret: " + e.getMessage(), e);
+        }
+        this.algorithm = JWSAlgorithm.parse(LocalJwts.macAlgorithm(properties).getName());
+        this.expiration = Duration.ofSeconds(properties.getExpiration());
+        this.claims = Map.copyOf(properties.getClaims());
+        this.issuer = issuer;
+    }
+
+    /**
+     * Mints a token valid from now for the configured expiration.
+     *
+     * @return the token
+     */
+    public Jwt issue() {
+        Instant issuedAt = Instant.now();
+        Instant expiresAt = issuedAt.plus(expiration);
+        JWTClaimsSet.Builder builder = new JWTClaimsSet.Builder();
+        claims.forEach(builder::claim);
+        JWTClaimsSet claimsSet = builder
+                .issuer(issuer)
+                .issueTime(Date.from(issuedAt))
+                .expirationTime(Date.from(expiresAt))
+                .jwtID(UUID.randomUUID().toString())
+                .build();
+
+        SignedJWT signedJwt = new SignedJWT(new JWSHeader(algorithm), claimsSet);
+        try {
+            signedJwt.sign(signer);
+        } catch (JOSEException e) {
+            throw new JwtException("Failed to sign local token: " + e.getMessage(), e);
+        }
+        return Jwt.withTokenValue(signedJwt.serialize())
+                .header("alg", algorithm.getName())
+                .claims(c -> c.putAll(claimsSet.getClaims()))
+                .issuedAt(issuedAt)
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
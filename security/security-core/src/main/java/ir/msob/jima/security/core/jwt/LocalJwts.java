@@ -0,0 +1,90 @@
+package ir.msob.jima.security.core.jwt;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.util.Base64URL;
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+
+/**
+ * Keys and decoders of the service tokens signed in-process with an HMAC secret.
+ *
+ * @author Yaqub Abdi
+ */
+public class LocalJwts {
+
+    private LocalJwts() {
+    }
+
+    /**
+     * Resolves the configured MAC algorithm; only {@code HS256}, {@code HS384} and {@code HS512} are accepted.
+     *
+     * @param properties the token properties
+     * @return the algorithm
+     */
+    public static MacAlgorithm macAlgorithm(SecurityProperties.JwtProperties properties) {
+        MacAlgorithm algorithm = MacAlgorithm.from(properties.getAlgorithm());
+        if (algorithm == null) {
+            throw new IllegalArgumentException("Unsupported local token algorithm: " + properties.getAlgorithm());
+        }
+        return algorithm;
+    }
+
+    /**
+     * Builds the HMAC key from the configured secret, rejecting secrets shorter than the algorithm's hash.
+     *
+     * @param properties the token properties
+     * @return the key
+     */
+    public static SecretKey secretKey(SecurityProperties.JwtProperties properties) {
+        MacAlgorithm algorithm = macAlgorithm(properties);
+        byte[] secret = properties.getSecret().getBytes(StandardCharsets.UTF_8);
+        int minimumBits = Integer.parseInt(algorithm.getName().substring(2));
+        if (secret.length * 8 < minimumBits) {
+            throw new IllegalArgumentException("The local token secret must be at least " + minimumBits / 8
+                    + " bytes long for " + algorithm.getName());
+        }
+        return new SecretKeySpec(secret, "HmacSHA" + minimumBits);
+    }
+
+    /**
+     * Builds a decoder that verifies local tokens with the secret and requires the local issuer.
+     *
+     * @param properties the token properties
+     * @param issuer     the local issuer
+     * @return the decoder
+     */
+    public static JwtDecoder jwtDecoder(SecurityProperties.JwtProperties properties, String issuer) {
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withSecretKey(secretKey(properties))
+                .macAlgorithm(macAlgorithm(properties))
+                .build();
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuer));
+        return decoder;
+    }
+
+    /**
+     * Tells whether the token header declares an HMAC algorithm, without verifying or decoding the payload.
+     *
+     * @param token the raw token
+     * @return {@code true} for HMAC-signed tokens
+     */
+    public static boolean isMacSigned(String token) {
+        int end = token.indexOf('.');
+        if (end <= 0) {
+            return false;
+        }
+        try {
+            return JWSAlgorithm.Family.HMAC_SHA.contains(JWSHeader.parse(new Base64URL(token.substring(0, end))).getAlgorithm());
+        } catch (ParseException e) {
+            return false;
+        }
+    }
+}
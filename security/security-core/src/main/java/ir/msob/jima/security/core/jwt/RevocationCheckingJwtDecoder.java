@@ -0,0 +1,50 @@
+package ir.msob.jima.security.core.jwt;
+
+import ir.msob.jima.security.core.revocation.RevocationList;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+
+import java.util.List;
+
+/**
+ * {@link JwtDecoder} decorator that rejects tokens whose {@code jti} or {@code sid} is in a {@link RevocationList}.
+ * <p>
+ * It sits outside any {@link CachingJwtDecoder}, so a revocation takes effect for tokens that are already cached.
+ *
+ * @author Yaqub Abdi
+ */
+@RequiredArgsConstructor
+public class RevocationCheckingJwtDecoder implements JwtDecoder {
+
+    static final OAuth2Error REVOKED = new OAuth2Error(OAuth2ErrorCodes.INVALID_TOKEN, "The token has been revoked", null);
+
+    @Getter
+    private final JwtDecoder delegate;
+    private final RevocationList revocationList;
+
+    /**
+     * Throws when a decoded token is revoked.
+     *
+     * @param jwt            the decoded token
+     * @param revocationList the revocation list
+     * @return the token
+     * @throws JwtValidationException if the token is revoked
+     */
+    public static Jwt check(Jwt jwt, RevocationList revocationList) {
+        if (revocationList.isRevoked(jwt.getClaims())) {
+            throw new JwtValidationException(REVOKED.getDescription(), List.of(REVOKED));
+        }
+        return jwt;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        return check(delegate.decode(token), revocationList);
+    }
+}
@@ -0,0 +1,99 @@
+package ir.msob.jima.security.core.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwtValidationException;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Names and tags of the security meters.
+ * <p>
+ * Tags are kept to small, fixed value sets (transport, outcome, failure reason, client registration)
+ * so the meters stay cheap to look up and do not grow with traffic.
+ *
+ * @author Yaqub Abdi
+ */
+public class SecurityMetrics {
+
+    /**
+     * Timer of JWT decoding and verification, tagged by {@code transport} and {@code outcome}.
+     */
+    public static final String JWT_DECODE = "jima.security.jwt.decode";
+    /**
+     * Counter of rejected JWTs, tagged by {@code transport} and {@code reason}.
+     */
+    public static final String JWT_DECODE_FAILURES = "jima.security.jwt.decode.failures";
+    /**
+     * Timer of the conversion of token roles to authorities.
+     */
+    public static final String ROLE_CONVERSION = "jima.security.roles.conversion";
+    /**
+     * Timer of service token acquisition, tagged by {@code service} and {@code outcome}.
+     */
+    public static final String TOKEN_ACQUISITION = "jima.security.token.acquisition";
+    /**
+     * Counter of background token refreshes, tagged by {@code client} and {@code outcome}.
+     */
+    public static final String TOKEN_REFRESH = "jima.security.token.refresh";
+    /**
+     * Gauge of the seconds left until the current service token expires, tagged by {@code client}.
+     */
+    public static final String TOKEN_EXPIRY = "jima.security.token.expiry";
+
+    public static final String TAG_TRANSPORT = "transport";
+    public static final String TAG_OUTCOME = "outcome";
+    public static final String TAG_REASON = "reason";
+    public static final String TAG_SERVICE = "service";
+    public static final String TAG_CLIENT = "client";
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_FAILURE = "failure";
+
+    private SecurityMetrics() {
+    }
+
+    /**
+     * Records a rejected token: the failed decode time and the failure counter of its reason.
+     *
+     * @param registry  the registry
+     * @param transport the transport the token arrived on
+     * @param nanos     the time spent decoding
+     * @param error     the decoding error
+     */
+    public static void recordDecodeFailure(MeterRegistry registry, String transport, long nanos, Throwable error) {
+        registry.timer(JWT_DECODE, TAG_TRANSPORT, transport, TAG_OUTCOME, OUTCOME_FAILURE)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        registry.counter(JWT_DECODE_FAILURES, TAG_TRANSPORT, transport, TAG_REASON, failureReason(error))
+                .increment();
+    }
+
+    /**
+     * Classifies a decoding error into a fixed set of reasons:
+     * {@code expired}, {@code revoked}, {@code claims}, {@code signature}, {@code malformed} or {@code unavailable}.
+     *
+     * @param error the decoding error
+     * @return the reason
+     */
+    public static String failureReason(Throwable error) {
+        if (error instanceof JwtValidationException validationException) {
+            for (OAuth2Error oauth2Error : validationException.getErrors()) {
+                String description = oauth2Error.getDescription();
+                String lowerCase = description == null ? "" : description.toLowerCase(Locale.ROOT);
+                if (lowerCase.contains("expired")) {
+                    return "expired";
+                }
+                if (lowerCase.contains("revoked")) {
+                    return "revoked";
+                }
+            }
+            return "claims";
+        }
+        if (error instanceof BadJwtException) {
+            String message = error.getMessage() == null ? "" : error.getMessage().toLowerCase(Locale.ROOT);
+            return message.contains("signature") || message.contains("rejected") ? "signature" : "malformed";
+        }
+        return "unavailable";
+    }
+}
@@ -0,0 +1,56 @@
+package ir.msob.jima.security.core.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JwtDecoder} decorator that times decoding for one transport and counts failures by reason.
+ * The success timer is resolved once, so a successful decode costs two clock reads.
+ *
+ * @author Yaqub Abdi
+ */
+public class TimedJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final MeterRegistry registry;
+    private final String transport;
+    private final Timer successTimer;
+
+    public TimedJwtDecoder(JwtDecoder delegate, MeterRegistry registry, String transport) {
+        this.delegate = delegate;
+        this.registry = registry;
+        this.transport = transport;
+        this.successTimer = registry.timer(SecurityMetrics.JWT_DECODE,
+                SecurityMetrics.TAG_TRANSPORT, transport, SecurityMetrics.TAG_OUTCOME, SecurityMetrics.OUTCOME_SUCCESS);
+    }
+
+    /**
+     * Wraps the decoder when a registry is available.
+     *
+     * @param delegate  the decoder
+     * @param registry  the registry, may be {@code null}
+     * @param transport the transport tag
+     * @return the timed decoder, or the decoder itself without a registry
+     */
+    public static JwtDecoder wrap(JwtDecoder delegate, MeterRegistry registry, String transport) {
+        return registry == null ? delegate : new TimedJwtDecoder(delegate, registry, transport);
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        long start = System.nanoTime();
+        try {
+            Jwt jwt = delegate.decode(token);
+            successTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return jwt;
+        } catch (JwtException e) {
+            SecurityMetrics.recordDecodeFailure(registry, transport, System.nanoTime() - start, e);
+            throw e;
+        }
+    }
+}
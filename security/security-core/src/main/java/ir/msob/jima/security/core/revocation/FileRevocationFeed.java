@@ -0,0 +1,100 @@
+package ir.msob.jima.security.core.revocation;
+
+import ir.msob.jima.platform.api.logger.Logger;
+import ir.msob.jima.platform.api.logger.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * {@link RevocationFeed} tailing a local file of delta lines (see {@link RevocationDelta#parse(String)}).
+ * <p>
+ * The file is read from the start, then polled for appended lines. A file that shrinks was truncated or
+ * replaced and is read again from the start. Malformed lines are logged and skipped.
+ *
+ * @author Yaqub Abdi
+ */
+public class FileRevocationFeed implements RevocationFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileRevocationFeed.class);
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final Path path;
+    private final Duration pollInterval;
+    private final ScheduledExecutorService executor;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final ByteArrayOutputStream pendingLine = new ByteArrayOutputStream();
+    private long position;
+
+    public FileRevocationFeed(Path path, Duration pollInterval) {
+        this.path = path;
+        this.pollInterval = pollInterval;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jima-revocation-file");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void start(Consumer<RevocationDelta> listener) {
+        executor.scheduleWithFixedDelay(() -> poll(listener), 0, pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void poll(Consumer<RevocationDelta> listener) {
+        if (!Files.isRegularFile(path)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < position) {
+                logger.info("Revocation file {} shrank, reading it again", path);
+                position = 0;
+                pendingLine.reset();
+            }
+            channel.position(position);
+            while (channel.read(buffer) > 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get();
+                    if (b == '\n') {
+                        deliver(pendingLine.toString(StandardCharsets.UTF_8), listener);
+                        pendingLine.reset();
+                    } else {
+                        pendingLine.write(b);
+                    }
+                }
+                buffer.clear();
+            }
+            position = channel.position();
+        } catch (IOException e) {
+            logger.warn("Unable to read revocation file {}: {}", path, e.getMessage());
+        }
+    }
+
+    private void deliver(String line, Consumer<RevocationDelta> listener) {
+        try {
+            RevocationDelta delta = RevocationDelta.parse(line);
+            if (delta != null) {
+                listener.accept(delta);
+            }
+        } catch (IllegalArgumentException e) {
+            logger.warn("Skipping revocation line: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
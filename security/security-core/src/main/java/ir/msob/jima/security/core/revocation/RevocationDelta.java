@@ -0,0 +1,75 @@
+package ir.msob.jima.security.core.revocation;
+
+/**
+ * One change to the revocation list: an identifier that is revoked, or whose revocation is lifted.
+ * <p>
+ * Feeds carry deltas as text. A line is {@code +jti:<id>} or {@code -jti:<id>} (likewise {@code sid});
+ * the sign is optional and defaults to revoking. Blank lines and lines starting with {@code #} carry no
+ * delta.
+ *
+ * @param kind    the claim the identifier belongs to
+ * @param id      the identifier
+ * @param revoked {@code true} to revoke, {@code false} to lift the revocation
+ * @author Yaqub Abdi
+ */
+public record RevocationDelta(Kind kind, String id, boolean revoked) {
+
+    /**
+     * Parses a delta line.
+     *
+     * @param line the line
+     * @return the delta, or {@code null} for a blank or comment line
+     * @throws IllegalArgumentException if the line is malformed
+     */
+    public static RevocationDelta parse(String line) {
+        String trimmed = line.strip();
+        if (trimmed.isEmpty() || trimmed.charAt(0) == '#') {
+            return null;
+        }
+        char sign = trimmed.charAt(0);
+        if (sign == '+' || sign == '-') {
+            return of(trimmed.substring(1), sign == '+');
+        }
+        return of(trimmed, true);
+    }
+
+    /**
+     * Builds a delta from a {@code <kind>:<id>} key.
+     *
+     * @param key     the key, such as {@code jti:abc}
+     * @param revoked {@code true} to revoke, {@code false} to lift the revocation
+     * @return the delta
+     * @throws IllegalArgumentException if the key is malformed
+     */
+    public static RevocationDelta of(String key, boolean revoked) {
+        int separator = key.indexOf(':');
+        if (separator <= 0 || separator == key.length() - 1) {
+            throw new IllegalArgumentException("Malformed revocation entry: " + key);
+        }
+        return new RevocationDelta(Kind.of(key.substring(0, separator)), key.substring(separator + 1), revoked);
+    }
+
+    /**
+     * The claim an identifier belongs to.
+     */
+    public enum Kind {
+        /**
+         * A single token, by its {@code jti} claim.
+         */
+        JTI,
+        /**
+         * Every token of a session, by its {@code sid} claim.
+         */
+        SID;
+
+        private static Kind of(String name) {
+            if ("jti".equalsIgnoreCase(name)) {
+                return JTI;
+            }
+            if ("sid".equalsIgnoreCase(name)) {
+                return SID;
+            }
+            throw new IllegalArgumentException("Unknown revocation kind: " + name);
+        }
+    }
+}
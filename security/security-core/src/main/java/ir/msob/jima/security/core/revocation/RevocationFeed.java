@@ -0,0 +1,27 @@
+package ir.msob.jima.security.core.revocation;
+
+import java.util.function.Consumer;
+
+/**
+ * Source of revocation deltas, such as a local file or a Kafka topic.
+ * <p>
+ * A feed delivers every delta it knows of once started, then the incremental ones as they arrive,
+ * until it is closed. Deltas are idempotent, so a feed may replay them.
+ *
+ * @author Yaqub Abdi
+ */
+public interface RevocationFeed extends AutoCloseable {
+
+    /**
+     * Starts delivering deltas.
+     *
+     * @param listener receives the deltas, on a thread of the feed
+     */
+    void start(Consumer<RevocationDelta> listener);
+
+    /**
+     * Stops delivering deltas.
+     */
+    @Override
+    void close();
+}
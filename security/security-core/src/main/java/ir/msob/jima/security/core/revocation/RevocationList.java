@@ -0,0 +1,74 @@
+package ir.msob.jima.security.core.revocation;
+
+import ir.msob.jima.security.api.properties.SecurityProperties;
+
+import java.util.Map;
+
+/**
+ * In-memory list of revoked tokens ({@code jti}) and sessions ({@code sid}), maintained from the deltas
+ * of one or more {@link RevocationFeed}s.
+ * <p>
+ * Checking a token needs no I/O: for an identifier that is not revoked it costs a few Bloom-filter
+ * probes, see {@link RevokedIdFilter}.
+ *
+ * @author Yaqub Abdi
+ */
+public class RevocationList {
+
+    private static final String JTI = "jti";
+    private static final String SID = "sid";
+
+    private final RevokedIdFilter tokens;
+    private final RevokedIdFilter sessions;
+
+    public RevocationList(int expectedEntries, double falsePositiveRate) {
+        this.tokens = new RevokedIdFilter(expectedEntries, falsePositiveRate);
+        this.sessions = new RevokedIdFilter(expectedEntries, falsePositiveRate);
+    }
+
+    public RevocationList(SecurityProperties.RevocationProperties properties) {
+        this(properties.getExpectedEntries(), properties.getFalsePositiveRate());
+    }
+
+    /**
+     * Applies a delta.
+     *
+     * @param delta the delta
+     */
+    public void apply(RevocationDelta delta) {
+        RevokedIdFilter filter = delta.kind() == RevocationDelta.Kind.JTI ? tokens : sessions;
+        if (delta.revoked()) {
+            filter.add(delta.id());
+        } else {
+            filter.remove(delta.id());
+        }
+    }
+
+    /**
+     * Checks whether a token is revoked, by itself or through its session.
+     *
+     * @param claims the claims of the token
+     * @return whether the token is revoked
+     */
+    public boolean isRevoked(Map<String, Object> claims) {
+        return tokens.contains(string(claims.get(JTI))) || sessions.contains(string(claims.get(SID)));
+    }
+
+    /**
+     * @return the number of revoked tokens
+     */
+    public int getRevokedTokens() {
+        return tokens.size();
+    }
+
+    /**
+     * @return the number of revoked sessions
+     */
+    public int getRevokedSessions() {
+        return sessions.size();
+    }
+
+    private static String string(Object value) {
+        return value instanceof String id ? id : null;
+    }
+}
@@ -0,0 +1,152 @@
+package ir.msob.jima.security.core.revocation;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Set of revoked identifiers fronted by a Bloom filter.
+ * <p>
+ * Almost every identifier checked is not revoked, and the Bloom filter answers those with a handful of
+ * bit probes and no allocation. Only identifiers the filter reports as possibly revoked reach the exact
+ * set, which settles false positives. Additions are visible in the filter before the exact set, so a
+ * reader never sees an identifier in the set that the filter misses.
+ * <p>
+ * Removals only shrink the exact set; the filter is rebuilt from it once removals pile up or the set
+ * outgrows the filter's capacity, keeping the false-positive rate near the configured one.
+ *
+ * @author Yaqub Abdi
+ */
+public class RevokedIdFilter {
+
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+    private final Set<String> exact = ConcurrentHashMap.newKeySet();
+    private volatile BloomFilter bloomFilter;
+    private int removals;
+
+    public RevokedIdFilter(int expectedEntries, double falsePositiveRate) {
+        if (expectedEntries <= 0) {
+            throw new IllegalArgumentException("Expected entries must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False-positive rate must be between 0 and 1");
+        }
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.bloomFilter = new BloomFilter(expectedEntries, falsePositiveRate);
+    }
+
+    /**
+     * 64-bit hash of the characters of an identifier (FNV-1a followed by the MurmurHash3 finalizer).
+     */
+    static long hash(String id) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0, length = id.length(); i < length; i++) {
+            h ^= id.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Checks whether an identifier is revoked.
+     *
+     * @param id the identifier, may be {@code null}
+     * @return whether the identifier is revoked
+     */
+    public boolean contains(String id) {
+        return id != null && bloomFilter.mightContain(hash(id)) && exact.contains(id);
+    }
+
+    /**
+     * Marks an identifier as revoked.
+     *
+     * @param id the identifier
+     */
+    public synchronized void add(String id) {
+        if (exact.contains(id)) {
+            return;
+        }
+        if (exact.size() >= bloomFilter.capacity) {
+            exact.add(id);
+            rebuild();
+            return;
+        }
+        bloomFilter.put(hash(id));
+        exact.add(id);
+    }
+
+    /**
+     * Lifts the revocation of an identifier.
+     *
+     * @param id the identifier
+     */
+    public synchronized void remove(String id) {
+        if (exact.remove(id) && ++removals > bloomFilter.capacity / 2) {
+            rebuild();
+        }
+    }
+
+    /**
+     * @return the number of revoked identifiers
+     */
+    public int size() {
+        return exact.size();
+    }
+
+    private void rebuild() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, exact.size() * 2), falsePositiveRate);
+        for (String id : exact) {
+            rebuilt.put(hash(id));
+        }
+        bloomFilter = rebuilt;
+        removals = 0;
+    }
+
+    /**
+     * Bloom filter over precomputed 64-bit hashes, probed with double hashing.
+     */
+    private static final class BloomFilter {
+
+        private final int capacity;
+        private final long bitCount;
+        private final int hashCount;
+        private final AtomicLongArray bits;
+
+        private BloomFilter(int capacity, double falsePositiveRate) {
+            double ln2 = Math.log(2);
+            long optimalBits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2));
+            this.capacity = capacity;
+            this.bits = new AtomicLongArray((int) Math.max(1, (optimalBits + 63) >>> 6));
+            this.bitCount = (long) bits.length() << 6;
+            this.hashCount = (int) Math.max(1, Math.round((double) bitCount / capacity * ln2));
+        }
+
+        private void put(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long index = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+                bits.getAndAccumulate((int) (index >>> 6), 1L << index, (word, mask) -> word | mask);
+            }
+        }
+
+        private boolean mightContain(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long index = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
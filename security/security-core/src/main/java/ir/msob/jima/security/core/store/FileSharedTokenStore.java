@@ -0,0 +1,230 @@
+package ir.msob.jima.security.core.store;
+
+import ir.msob.jima.platform.api.logger.Logger;
+import ir.msob.jima.platform.api.logger.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashSet;
+import java.util.Properties;
+import java.util.UUID;
+
+/**
+ * {@link SharedTokenStore} keeping one file per token in a directory, for local testing and for replicas
+ * sharing a volume.
+ * <p>
+ * Tokens are written to a temporary file and moved into place, so readers never see a partial token. A
+ * lease is a file holding its owner and expiry, written aside and hard-linked into place so it appears
+ * complete and never replaces another lease; an expired lease is taken over by moving it aside first, so
+ * of the replicas racing for it only one succeeds.
+ *
+ * @author Yaqub Abdi
+ */
+public class FileSharedTokenStore implements SharedTokenStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileSharedTokenStore.class);
+    private static final String TOKEN_SUFFIX = ".token";
+    private static final String LEASE_SUFFIX = ".lease";
+
+    private final Path directory;
+
+    public FileSharedTokenStore(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create token store directory " + directory, e);
+        }
+    }
+
+    @Override
+    public StoredToken load(String registrationId, String principalName) {
+        Path file = file(registrationId, principalName, TOKEN_SUFFIX);
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            logger.warn("Cannot read stored token {}: {}", file, e.getMessage());
+            return null;
+        }
+        String scopes = properties.getProperty("scopes", "");
+        return new StoredToken(registrationId, principalName, properties.getProperty("token")
+                , instant(properties.getProperty("issuedAt")), instant(properties.getProperty("expiresAt"))
+                , scopes.isEmpty() ? null : new LinkedHashSet<>(Arrays.asList(scopes.split(" "))));
+    }
+
+    @Override
+    public void save(StoredToken token) {
+        Properties properties = new Properties();
+        properties.setProperty("token", token.tokenValue());
+        if (token.issuedAt() != null) {
+            properties.setProperty("issuedAt", Long.toString(token.issuedAt().toEpochMilli()));
+        }
+        if (token.expiresAt() != null) {
+            properties.setProperty("expiresAt", Long.toString(token.expiresAt().toEpochMilli()));
+        }
+        properties.setProperty("scopes", String.join(" ", token.scopes()));
+        Path file = file(token.registrationId(), token.principalName(), TOKEN_SUFFIX);
+        try {
+            Path temp = Files.createTempFile(directory, ".tmp-", TOKEN_SUFFIX);
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                properties.store(writer, null);
+            }
+            move(temp, file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot store token " + file, e);
+        }
+    }
+
+    @Override
+    public void remove(String registrationId, String principalName) {
+        try {
+            Files.deleteIfExists(file(registrationId, principalName, TOKEN_SUFFIX));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Lease tryLease(String registrationId, String principalName, Duration ttl) {
+        Path file = file(registrationId, principalName, LEASE_SUFFIX);
+        String owner = UUID.randomUUID().toString();
+        String content = owner + ' ' + Instant.now().plus(ttl).toEpochMilli();
+        try {
+            if (create(file, content) || (takeOverExpired(file, ttl) && create(file, content))) {
+                return () -> release(file, owner);
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot take lease " + file, e);
+        }
+    }
+
+    /**
+     * Writes the lease to a temporary file and links it into place, so the lease never exists without its
+     * content and an existing lease is never replaced.
+     */
+    private boolean create(Path file, String content) throws IOException {
+        Path temp = Files.createTempFile(directory, ".tmp-", LEASE_SUFFIX);
+        try {
+            Files.writeString(temp, content, StandardCharsets.UTF_8);
+            return link(temp, file);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static boolean link(Path source, Path target) throws IOException {
+        try {
+            Files.createLink(target, source);
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            return false;
+        } catch (UnsupportedOperationException e) {
+            // No hard links on this file system: copying without replacing still refuses an existing lease.
+            try {
+                Files.copy(source, target);
+                return true;
+            } catch (FileAlreadyExistsException alreadyExists) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Moves an expired lease aside. Only the replica whose move succeeds may create the new lease; a lease
+     * renewed between the read and the move is put back. A lease whose content cannot be read is held
+     * until its modification time plus the TTL.
+     */
+    private boolean takeOverExpired(Path file, Duration ttl) throws IOException {
+        String current = read(file);
+        if (current == null) {
+            return true;
+        }
+        if (System.currentTimeMillis() < expiresAt(file, current, ttl)) {
+            return false;
+        }
+        Path aside = directory.resolve(file.getFileName() + "." + UUID.randomUUID());
+        try {
+            Files.move(file, aside, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            return true;
+        }
+        if (!current.equals(read(aside))) {
+            link(aside, file);
+            Files.deleteIfExists(aside);
+            return false;
+        }
+        Files.deleteIfExists(aside);
+        logger.info("Took over expired token lease {}", file);
+        return true;
+    }
+
+    private static long expiresAt(Path file, String content, Duration ttl) throws IOException {
+        int space = content.indexOf(' ');
+        if (space > 0) {
+            try {
+                return Long.parseLong(content.substring(space + 1).trim());
+            } catch (NumberFormatException e) {
+                // Fall through to the modification time.
+            }
+        }
+        try {
+            return Files.getLastModifiedTime(file).toMillis() + ttl.toMillis();
+        } catch (NoSuchFileException e) {
+            return 0;
+        }
+    }
+
+    private void release(Path file, String owner) {
+        try {
+            String current = read(file);
+            if (current != null && current.startsWith(owner + ' ')) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            logger.warn("Cannot release token lease {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static String read(Path file) throws IOException {
+        try {
+            return Files.readString(file, StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static Instant instant(String epochMillis) {
+        return epochMillis == null ? null : Instant.ofEpochMilli(Long.parseLong(epochMillis));
+    }
+
+    private Path file(String registrationId, String principalName, String suffix) {
+        String key = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((registrationId + '\n' + principalName).getBytes(StandardCharsets.UTF_8));
+        return directory.resolve(key + suffix);
+    }
+}
@@ -0,0 +1,61 @@
+package ir.msob.jima.security.core.store;
+
+import java.time.Duration;
+
+/**
+ * Store of client tokens shared by the replicas of a service.
+ * <p>
+ * Besides the tokens themselves, the store hands out short leases on a registration and principal, so
+ * that when a token expires one replica requests the new token while the others wait for it to appear in
+ * the store. A lease expires on its own after its TTL, so a replica dying mid-refresh does not block the
+ * others for longer than that.
+ * <p>
+ * Implementations are called from blocking code and must be thread-safe.
+ *
+ * @author Yaqub Abdi
+ */
+public interface SharedTokenStore {
+
+    /**
+     * Returns the token stored for a registration and principal.
+     *
+     * @param registrationId the client registration id
+     * @param principalName  the principal name
+     * @return the stored token, or {@code null} when there is none
+     */
+    StoredToken load(String registrationId, String principalName);
+
+    /**
+     * Stores a token, replacing the previous one of its registration and principal.
+     *
+     * @param token the token
+     */
+    void save(StoredToken token);
+
+    /**
+     * Removes the token of a registration and principal.
+     *
+     * @param registrationId the client registration id
+     * @param principalName  the principal name
+     */
+    void remove(String registrationId, String principalName);
+
+    /**
+     * Tries to take the refresh lease of a registration and principal without waiting.
+     *
+     * @param registrationId the client registration id
+     * @param principalName  the principal name
+     * @param ttl            how long the lease is held unless released earlier
+     * @return the lease, or {@code null} when another holder has it
+     */
+    Lease tryLease(String registrationId, String principalName, Duration ttl);
+
+    /**
+     * A refresh lease; closing it releases the lease if it is still held.
+     */
+    interface Lease extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
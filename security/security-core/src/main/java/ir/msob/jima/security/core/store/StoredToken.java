@@ -0,0 +1,49 @@
+package ir.msob.jima.security.core.store;
+
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Access token of a client registration and principal as kept in a {@link SharedTokenStore}.
+ *
+ * @param registrationId the client registration id
+ * @param principalName  the principal name
+ * @param tokenValue     the access token
+ * @param issuedAt       when the token was issued, may be {@code null}
+ * @param expiresAt      when the token expires, may be {@code null}
+ * @param scopes         the granted scopes
+ * @author Yaqub Abdi
+ */
+public record StoredToken(String registrationId, String principalName, String tokenValue, Instant issuedAt,
+                          Instant expiresAt, Set<String> scopes) {
+
+    public StoredToken {
+        scopes = scopes == null ? Set.of() : Set.copyOf(scopes);
+    }
+
+    public static StoredToken of(String registrationId, String principalName, OAuth2AccessToken accessToken) {
+        return new StoredToken(registrationId, principalName, accessToken.getTokenValue(), accessToken.getIssuedAt()
+                , accessToken.getExpiresAt(), accessToken.getScopes());
+    }
+
+    /**
+     * @return the stored token as a bearer access token
+     */
+    public OAuth2AccessToken toAccessToken() {
+        return new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, tokenValue, issuedAt, expiresAt, scopes);
+    }
+
+    /**
+     * Tells whether the token is still usable: it has no expiry, or expires later than {@code clockSkew}
+     * from now.
+     *
+     * @param clockSkew the margin before expiry
+     * @return whether the token is usable
+     */
+    public boolean isFresh(Duration clockSkew) {
+        return expiresAt == null || Instant.now().plus(clockSkew).isBefore(expiresAt);
+    }
+}
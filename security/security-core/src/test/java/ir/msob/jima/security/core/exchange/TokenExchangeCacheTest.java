@@ -0,0 +1,40 @@
+package ir.msob.jima.security.core.exchange;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TokenExchangeCacheTest {
+
+    @Test
+    @DisplayName("Exchanged tokens are cached per subject token and audience")
+    void tokensAreCachedPerSubjectAndAudience() {
+        TokenExchangeCache cache = new TokenExchangeCache(16, Duration.ofMinutes(10), Duration.ofSeconds(30));
+        OAuth2AccessToken token = token(Duration.ofMinutes(5));
+        cache.put(TokenExchangeCache.Key.of("subject-1", "orders"), token);
+
+        assertSame(token, cache.get(TokenExchangeCache.Key.of("subject-1", "orders")));
+        assertNull(cache.get(TokenExchangeCache.Key.of("subject-1", "billing")));
+        assertNull(cache.get(TokenExchangeCache.Key.of("subject-2", "orders")));
+    }
+
+    @Test
+    @DisplayName("Tokens expiring within the refresh window are not cached")
+    void tokensAboutToExpireAreNotCached() {
+        TokenExchangeCache cache = new TokenExchangeCache(16, Duration.ofMinutes(10), Duration.ofSeconds(30));
+        cache.put(TokenExchangeCache.Key.of("subject-1", "orders"), token(Duration.ofSeconds(10)));
+
+        assertNull(cache.get(TokenExchangeCache.Key.of("subject-1", "orders")));
+    }
+
+    private static OAuth2AccessToken token(Duration lifetime) {
+        Instant now = Instant.now();
+        return new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "exchanged", now, now.plus(lifetime));
+    }
+}
@@ -0,0 +1,127 @@
+package ir.msob.jima.security.core.introspection;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.security.oauth2.server.resource.introspection.BadOpaqueTokenCredentialsException;
+import org.springframework.security.oauth2.server.resource.introspection.OpaqueTokenIntrospector;
+import org.springframework.security.oauth2.server.resource.introspection.SpringOpaqueTokenIntrospector;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CachingOpaqueTokenIntrospectorTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile boolean holdResponses;
+    private HttpServer server;
+    private CachingOpaqueTokenIntrospector introspector;
+
+    @BeforeEach
+    void startEndpoint() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/introspect", exchange -> {
+            calls.incrementAndGet();
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            if (holdResponses) {
+                awaitRelease();
+            }
+            String response = body.contains("token=active")
+                    ? "{\"active\":true,\"sub\":\"subject\",\"exp\":" + Instant.now().plusSeconds(300).getEpochSecond() + "}"
+                    : "{\"active\":false}";
+            byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        OpaqueTokenIntrospector delegate = SpringOpaqueTokenIntrospector
+                .withIntrospectionUri("http://127.0.0.1:" + server.getAddress().getPort() + "/introspect")
+                .clientId("client")
+                .clientSecret("secret")
+                .build();
+        introspector = new CachingOpaqueTokenIntrospector(delegate
+                , new IntrospectionCache(100, Duration.ofMinutes(5), Duration.ofSeconds(10)), Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void stopEndpoint() {
+        release.countDown();
+        server.stop(0);
+    }
+
+    private void awaitRelease() {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    @DisplayName("Active tokens are introspected once until they expire")
+    void activeTokensAreCached() {
+        OAuth2AuthenticatedPrincipal first = introspector.introspect("active");
+        OAuth2AuthenticatedPrincipal second = introspector.introspect("active");
+
+        assertEquals("subject", first.getName());
+        assertEquals(first, second);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("Inactive tokens are rejected from the negative cache")
+    void inactiveTokensAreCachedNegatively() {
+        assertThrows(BadOpaqueTokenCredentialsException.class, () -> introspector.introspect("revoked"));
+        assertThrows(BadOpaqueTokenCredentialsException.class, () -> introspector.introspect("revoked"));
+
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @DisplayName("Concurrent introspections of one token reach the endpoint once")
+    void concurrentIntrospectionsAreCoalesced() {
+        holdResponses = true;
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<OAuth2AuthenticatedPrincipal>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(CompletableFuture.supplyAsync(() -> introspector.introspect("active"), callers));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (introspector.getSingleFlight().getCoalesced() < 7 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            futures.forEach(future -> assertEquals("subject", future.join().getName()));
+            assertEquals(1, calls.get());
+            assertEquals(7, introspector.getSingleFlight().getCoalesced());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package ir.msob.jima.security.core.jwt;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingJwtDecoderTest {
+
+    private static Jwt jwt(String token, Instant expiresAt) {
+        return Jwt.withTokenValue(token)
+                .header("alg", "none")
+                .subject("subject")
+                .issuedAt(Instant.now().minusSeconds(1))
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Repeated tokens are decoded once")
+    void repeatedTokensAreDecodedOnce() {
+        JwtDecoder delegate = mock(JwtDecoder.class);
+        Jwt jwt = jwt("token", Instant.now().plusSeconds(300));
+        when(delegate.decode("token")).thenReturn(jwt);
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, new JwtCache(100, Duration.ofMinutes(10), false));
+
+        assertSame(jwt, decoder.decode("token"));
+        assertSame(jwt, decoder.decode("token"));
+
+        verify(delegate, times(1)).decode("token");
+        assertEquals(1, decoder.getJwtCache().stats().hitCount());
+        assertEquals(1, decoder.getJwtCache().stats().missCount());
+    }
+
+    @Test
+    @DisplayName("Expired tokens are not served from the cache")
+    void expiredTokensAreNotCached() {
+        JwtDecoder delegate = mock(JwtDecoder.class);
+        when(delegate.decode("token")).thenReturn(jwt("token", Instant.now().minusSeconds(1)));
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, new JwtCache(100, Duration.ofMinutes(10), false));
+
+        decoder.decode("token");
+        decoder.decode("token");
+
+        verify(delegate, times(2)).decode("token");
+    }
+
+    @Test
+    @DisplayName("Decoding failures are not cached")
+    void failuresAreNotCached() {
+        JwtDecoder delegate = mock(JwtDecoder.class);
+        when(delegate.decode("token")).thenThrow(new BadJwtException("invalid"));
+        CachingJwtDecoder decoder = new CachingJwtDecoder(delegate, new JwtCache(100, Duration.ofMinutes(10), false));
+
+        assertThrows(BadJwtException.class, () -> decoder.decode("token"));
+        assertThrows(BadJwtException.class, () -> decoder.decode("token"));
+
+        verify(delegate, times(2)).decode("token");
+    }
+}
@@ -0,0 +1,63 @@
+package ir.msob.jima.security.core.jwt;
+
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ClaimPathRoleMapperTest {
+
+    private static final Map<String, Object> CLAIMS = Map.of(
+            "realm_access", Map.of("roles", List.of("admin", "user")),
+            "resource_access", Map.of("service-client", Map.of("roles", List.of("reader", "admin"))),
+            "scope", "openid  profile email");
+
+    private static SecurityProperties.RoleMappingProperties properties(String... claimPaths) {
+        SecurityProperties.RoleMappingProperties properties = new SecurityProperties.RoleMappingProperties();
+        properties.setClaimPaths(List.of(claimPaths));
+        properties.setVariables(Map.of("client", "service-client"));
+        return properties;
+    }
+
+    @Test
+    @DisplayName("Roles are collected from every path in order and deduplicated")
+    void rolesAreCollectedFromEveryPath() {
+        ClaimPathRoleMapper mapper = new ClaimPathRoleMapper(
+                properties("realm_access.roles", "resource_access.{client}.roles", "scope"));
+
+        assertEquals(List.of("admin", "user", "reader", "openid", "profile", "email"), mapper.extractRoles(CLAIMS));
+    }
+
+    @Test
+    @DisplayName("Prefix and case normalisation are applied, duplicates kept when disabled")
+    void prefixAndCaseAreApplied() {
+        SecurityProperties.RoleMappingProperties properties = properties("realm_access.roles", "resource_access.{client}.roles");
+        properties.setPrefix("ROLE_");
+        properties.setRoleCase(SecurityProperties.RoleMappingProperties.RoleCase.UPPER);
+        properties.setDeduplicate(false);
+        ClaimPathRoleMapper mapper = new ClaimPathRoleMapper(properties);
+
+        assertEquals(List.of("ROLE_ADMIN", "ROLE_USER", "ROLE_READER", "ROLE_ADMIN"), mapper.extractRoles(CLAIMS));
+    }
+
+    @Test
+    @DisplayName("Missing claims and unexpected types yield no roles")
+    void missingClaimsYieldNoRoles() {
+        ClaimPathRoleMapper mapper = new ClaimPathRoleMapper(properties("realm_access.roles.name", "groups", "scope.value"));
+
+        assertEquals(List.of(), mapper.extractRoles(CLAIMS));
+    }
+
+    @Test
+    @DisplayName("Unresolved placeholders are rejected at construction")
+    void unresolvedPlaceholdersAreRejected() {
+        SecurityProperties.RoleMappingProperties properties = properties("resource_access.{audience}.roles");
+
+        assertThrows(IllegalArgumentException.class, () -> new ClaimPathRoleMapper(properties));
+    }
+}
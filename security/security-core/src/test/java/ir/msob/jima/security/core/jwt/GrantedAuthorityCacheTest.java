@@ -0,0 +1,53 @@
+package ir.msob.jima.security.core.jwt;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GrantedAuthorityCacheTest {
+
+    @Test
+    @DisplayName("Authorities are interned per role")
+    void authoritiesAreInterned() {
+        GrantedAuthorityCache cache = new GrantedAuthorityCache();
+
+        GrantedAuthority admin = cache.authority("ROLE_ADMIN");
+
+        assertSame(admin, cache.authority("ROLE_ADMIN"));
+        assertEquals("ROLE_ADMIN", admin.getAuthority());
+        assertSame(admin, cache.get(List.of("ROLE_USER", "ROLE_ADMIN")).get(1));
+    }
+
+    @Test
+    @DisplayName("Equal role lists share one immutable authority list")
+    void roleListsAreMemoized() {
+        GrantedAuthorityCache cache = new GrantedAuthorityCache();
+        List<String> roles = new ArrayList<>(List.of("ROLE_USER", "ROLE_ADMIN"));
+
+        List<GrantedAuthority> authorities = cache.get(roles);
+        roles.add("ROLE_OTHER");
+
+        assertSame(authorities, cache.get(List.of("ROLE_USER", "ROLE_ADMIN")));
+        assertEquals(List.of("ROLE_USER", "ROLE_ADMIN"), authorities.stream().map(GrantedAuthority::getAuthority).toList());
+        assertThrows(UnsupportedOperationException.class, () -> authorities.add(cache.authority("ROLE_OTHER")));
+        assertTrue(cache.get(List.of()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Memoized role lists are bounded by the maximum size")
+    void roleListsAreBounded() {
+        GrantedAuthorityCache cache = new GrantedAuthorityCache(8);
+
+        for (int i = 0; i < 100; i++) {
+            cache.get(List.of("ROLE_" + i));
+        }
+
+        assertEquals(8, cache.getMaximumSize());
+        assertTrue(cache.collectionCount() <= 8);
+    }
+}
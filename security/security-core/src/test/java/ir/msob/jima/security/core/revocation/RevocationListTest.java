@@ -0,0 +1,62 @@
+package ir.msob.jima.security.core.revocation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RevocationListTest {
+
+    @Test
+    @DisplayName("Tokens are revoked by jti or through their session, and revocations can be lifted")
+    void tokensAreRevokedByJtiOrSession() {
+        RevocationList revocationList = new RevocationList(16, 0.01);
+        revocationList.apply(RevocationDelta.parse("+jti:token-1"));
+        revocationList.apply(RevocationDelta.parse("sid:session-1"));
+
+        assertTrue(revocationList.isRevoked(Map.of("jti", "token-1")));
+        assertTrue(revocationList.isRevoked(Map.of("jti", "token-2", "sid", "session-1")));
+        assertFalse(revocationList.isRevoked(Map.of("jti", "token-2", "sid", "session-2")));
+        assertFalse(revocationList.isRevoked(Map.of("sub", "subject")));
+
+        revocationList.apply(RevocationDelta.parse("-jti:token-1"));
+
+        assertFalse(revocationList.isRevoked(Map.of("jti", "token-1")));
+        assertEquals(0, revocationList.getRevokedTokens());
+        assertEquals(1, revocationList.getRevokedSessions());
+    }
+
+    @Test
+    @DisplayName("The filter stays exact when it outgrows its expected size")
+    void filterGrowsBeyondExpectedEntries() {
+        RevokedIdFilter filter = new RevokedIdFilter(8, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            filter.add("revoked-" + i);
+        }
+        for (int i = 0; i < 500; i++) {
+            filter.remove("revoked-" + i);
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals(i >= 500, filter.contains("revoked-" + i));
+            assertFalse(filter.contains("valid-" + i));
+        }
+        assertEquals(500, filter.size());
+    }
+
+    @Test
+    @DisplayName("Delta lines are parsed, comments skipped and malformed lines rejected")
+    void deltaLinesAreParsed() {
+        assertEquals(new RevocationDelta(RevocationDelta.Kind.SID, "abc", false), RevocationDelta.parse(" -SID:abc "));
+        assertNull(RevocationDelta.parse("# revoked after incident"));
+        assertNull(RevocationDelta.parse("   "));
+        assertThrows(IllegalArgumentException.class, () -> RevocationDelta.parse("+jti:"));
+        assertThrows(IllegalArgumentException.class, () -> RevocationDelta.parse("+sub:abc"));
+    }
+}
@@ -0,0 +1,60 @@
+package ir.msob.jima.security.core.store;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FileSharedTokenStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("Stored tokens are read back by any store on the same directory")
+    void tokensAreSharedThroughTheDirectory() {
+        Instant issuedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        StoredToken token = new StoredToken("registration", "principal", "token-1", issuedAt
+                , issuedAt.plusSeconds(300), Set.of("read", "write"));
+        new FileSharedTokenStore(directory).save(token);
+
+        FileSharedTokenStore other = new FileSharedTokenStore(directory);
+        assertEquals(token, other.load("registration", "principal"));
+        assertNull(other.load("registration", "other-principal"));
+
+        other.remove("registration", "principal");
+        assertNull(other.load("registration", "principal"));
+    }
+
+    @Test
+    @DisplayName("A lease is held by one store at a time until released or expired")
+    void leasesAreExclusive() throws InterruptedException {
+        FileSharedTokenStore first = new FileSharedTokenStore(directory);
+        FileSharedTokenStore second = new FileSharedTokenStore(directory);
+
+        SharedTokenStore.Lease lease = first.tryLease("registration", "principal", Duration.ofMinutes(1));
+        assertNotNull(lease);
+        assertNull(second.tryLease("registration", "principal", Duration.ofMinutes(1)));
+
+        lease.close();
+        SharedTokenStore.Lease shortLease = second.tryLease("registration", "principal", Duration.ofMillis(50));
+        assertNotNull(shortLease);
+
+        Thread.sleep(100);
+        SharedTokenStore.Lease takenOver = first.tryLease("registration", "principal", Duration.ofMinutes(1));
+        assertNotNull(takenOver);
+        // Releasing the expired lease must not release the lease that took it over.
+        shortLease.close();
+        assertNull(second.tryLease("registration", "principal", Duration.ofMinutes(1)));
+        takenOver.close();
+    }
+}
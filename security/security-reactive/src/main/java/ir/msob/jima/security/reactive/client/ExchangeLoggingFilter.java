@@ -0,0 +1,162 @@
+package ir.msob.jima.security.reactive.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import ir.msob.jima.platform.api.logger.Logger;
+import ir.msob.jima.platform.api.logger.LoggerFactory;
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * {@link ExchangeFilterFunction} that times outbound exchanges and logs a sample of them.
+ * <p>
+ * Durations go to the {@value #REQUESTS} timer whenever a {@link MeterRegistry} is given. Log lines are
+ * written for the configured fraction of exchanges only, with arguments that are formatted by the logger
+ * and only when the level is enabled; headers, when included, have their sensitive values masked.
+ * An exchange is sampled only when its level is enabled for this class, so unsampled exchanges, including
+ * every exchange while the level is off, pass through untouched when there is no registry.
+ *
+ * @author Yaqub Abdi
+ */
+public class ExchangeLoggingFilter implements ExchangeFilterFunction {
+
+    /**
+     * Timer of outbound exchanges.
+     */
+    public static final String REQUESTS = "jima.security.client.requests";
+
+    private static final Logger logger = LoggerFactory.getLogger(ExchangeLoggingFilter.class);
+    /**
+     * Same category as {@link #logger}, used for the level check the platform logger does not expose.
+     */
+    private static final Log levelCheck = LogFactory.getLog(ExchangeLoggingFilter.class);
+    private static final String REDACTED = "[REDACTED]";
+
+    private final SecurityProperties.ClientLoggingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final String client;
+    private final Set<String> redactedHeaders;
+
+    /**
+     * @param properties    the logging settings
+     * @param meterRegistry the registry durations are recorded in, or {@code null}
+     * @param client        the name of the client, used as the {@code client} tag
+     */
+    public ExchangeLoggingFilter(SecurityProperties.ClientLoggingProperties properties, MeterRegistry meterRegistry
+            , String client) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.client = client;
+        this.redactedHeaders = properties.getRedactedHeaders().stream()
+                .map(header -> header.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private static String outcome(ClientResponse response) {
+        if (response == null) {
+            return "UNKNOWN";
+        }
+        int status = response.statusCode().value();
+        return status >= 500 ? "SERVER_ERROR"
+                : status >= 400 ? "CLIENT_ERROR"
+                : status >= 300 ? "REDIRECTION"
+                : status >= 200 ? "SUCCESS"
+                : "INFORMATIONAL";
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        boolean sampled = isSampled();
+        if (!sampled && meterRegistry == null) {
+            return next.exchange(request);
+        }
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return next.exchange(request)
+                    .doOnSuccess(response -> completed(request, response, null, System.nanoTime() - start, sampled))
+                    .doOnError(error -> completed(request, null, error, System.nanoTime() - start, sampled));
+        });
+    }
+
+    private boolean isSampled() {
+        if (!properties.isEnabled() || !isLevelEnabled()) {
+            return false;
+        }
+        double sampleRate = properties.getSampleRate();
+        return sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    private boolean isLevelEnabled() {
+        return properties.getLevel() == SecurityProperties.ClientLoggingProperties.Level.INFO
+                ? levelCheck.isInfoEnabled()
+                : levelCheck.isDebugEnabled();
+    }
+
+    private void completed(ClientRequest request, ClientResponse response, Throwable error, long nanos, boolean sampled) {
+        if (meterRegistry != null) {
+            Timer.builder(REQUESTS)
+                    .tag("client", client)
+                    .tag("method", request.method().name())
+                    .tag("outcome", error != null ? "ERROR" : outcome(response))
+                    .register(meterRegistry)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+        }
+        if (!sampled) {
+            return;
+        }
+        Object status = error != null ? error.getClass().getSimpleName() : response == null ? "-" : response.statusCode();
+        long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+        if (properties.isLogHeaders()) {
+            log("{} {} -> {} in {} ms, headers: {}", request.method(), request.url(), status, millis
+                    , new RedactedHeaders(request.headers()));
+        } else {
+            log("{} {} -> {} in {} ms", request.method(), request.url(), status, millis);
+        }
+    }
+
+    private void log(String format, Object... arguments) {
+        if (properties.getLevel() == SecurityProperties.ClientLoggingProperties.Level.INFO) {
+            logger.info(format, arguments);
+        } else {
+            logger.debug(format, arguments);
+        }
+    }
+
+    /**
+     * Headers formatted on demand, with sensitive values masked.
+     */
+    private final class RedactedHeaders {
+
+        private final HttpHeaders headers;
+
+        private RedactedHeaders(HttpHeaders headers) {
+            this.headers = headers;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder("[");
+            headers.forEach((name, values) -> {
+                if (builder.length() > 1) {
+                    builder.append(", ");
+                }
+                builder.append(name).append(':');
+                builder.append(redactedHeaders.contains(name.toLowerCase(Locale.ROOT)) ? REDACTED : String.join(",", values));
+            });
+            return builder.append(']').toString();
+        }
+    }
+}
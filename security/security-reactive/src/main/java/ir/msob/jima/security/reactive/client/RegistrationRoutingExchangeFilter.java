@@ -0,0 +1,87 @@
+package ir.msob.jima.security.reactive.client;
+
+import ir.msob.jima.security.reactive.token.RegistrationTokenCache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * {@link ExchangeFilterFunction} that authorizes each request with the token of the client registration
+ * routed to its target host.
+ * <p>
+ * Routes map a host to a registration id; a route key of the form {@code *.example.com} matches every
+ * subdomain. With a load-balanced client the host is the service id, so routes can name services directly.
+ * Requests to other hosts use the default registration. Tokens come from a {@link RegistrationTokenCache},
+ * so registrations are fetched and refreshed independently of each other. A {@code 401} response drops the
+ * token it was sent with, so a token revoked or rotated before its expiry is replaced on the next request.
+ *
+ * @author Yaqub Abdi
+ */
+public class RegistrationRoutingExchangeFilter implements ExchangeFilterFunction {
+
+    private final RegistrationTokenCache tokenCache;
+    private final Map<String, String> hosts;
+    private final Map<String, String> domains;
+    private final String defaultRegistrationId;
+
+    /**
+     * @param tokenCache            the per-registration token cache
+     * @param routes                registration ids by host or {@code *.domain}
+     * @param defaultRegistrationId the registration of hosts without a route
+     */
+    public RegistrationRoutingExchangeFilter(RegistrationTokenCache tokenCache, Map<String, String> routes
+            , String defaultRegistrationId) {
+        this.tokenCache = tokenCache;
+        this.hosts = routes.entrySet().stream()
+                .filter(route -> !route.getKey().startsWith("*."))
+                .collect(Collectors.toUnmodifiableMap(route -> route.getKey().toLowerCase(Locale.ROOT), Map.Entry::getValue));
+        this.domains = routes.entrySet().stream()
+                .filter(route -> route.getKey().startsWith("*."))
+                .collect(Collectors.toUnmodifiableMap(route -> route.getKey().substring(1).toLowerCase(Locale.ROOT), Map.Entry::getValue));
+        this.defaultRegistrationId = defaultRegistrationId;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String registrationId = registrationId(request.url().getHost());
+        return tokenCache.getReactiveToken(registrationId)
+                .flatMap(token -> next.exchange(ClientRequest.from(request)
+                                .headers(headers -> headers.set(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                                .build())
+                        .flatMap(response -> response.statusCode().isSameCodeAs(HttpStatus.UNAUTHORIZED)
+                                ? tokenCache.invalidate(registrationId, token).onErrorComplete().thenReturn(response)
+                                : Mono.just(response)));
+    }
+
+    /**
+     * Resolves the registration of a host.
+     *
+     * @param host the target host, may be {@code null}
+     * @return the registration id
+     */
+    public String registrationId(String host) {
+        if (host == null) {
+            return defaultRegistrationId;
+        }
+        String normalized = host.toLowerCase(Locale.ROOT);
+        String registrationId = hosts.get(normalized);
+        if (registrationId != null) {
+            return registrationId;
+        }
+        for (int dot = normalized.indexOf('.'); dot >= 0; dot = normalized.indexOf('.', dot + 1)) {
+            registrationId = domains.get(normalized.substring(dot));
+            if (registrationId != null) {
+                return registrationId;
+            }
+        }
+        return defaultRegistrationId;
+    }
+}
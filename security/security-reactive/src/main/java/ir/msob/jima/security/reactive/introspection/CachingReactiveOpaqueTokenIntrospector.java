@@ -0,0 +1,72 @@
+package ir.msob.jima.security.reactive.introspection;
+
+import ir.msob.jima.security.api.token.TokenDigest;
+import ir.msob.jima.security.core.introspection.IntrospectionCache;
+import lombok.Getter;
+import org.springframework.security.oauth2.core.OAuth2AuthenticatedPrincipal;
+import org.springframework.security.oauth2.server.resource.introspection.BadOpaqueTokenCredentialsException;
+import org.springframework.security.oauth2.server.resource.introspection.ReactiveOpaqueTokenIntrospector;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link ReactiveOpaqueTokenIntrospector} decorator that serves repeated tokens from an {@link IntrospectionCache}.
+ * <p>
+ * A hit completes synchronously without subscribing to the delegate. Concurrent introspections of the
+ * same token share one subscription to the delegate; inactive verdicts are cached for the negative TTL,
+ * failures to reach the endpoint are not cached.
+ *
+ * @author Yaqub Abdi
+ */
+public class CachingReactiveOpaqueTokenIntrospector implements ReactiveOpaqueTokenIntrospector {
+
+    private static final String INACTIVE_TOKEN = "Provided token isn't active";
+
+    private final ReactiveOpaqueTokenIntrospector delegate;
+    @Getter
+    private final IntrospectionCache introspectionCache;
+    private final ConcurrentMap<TokenDigest, Mono<IntrospectionCache.Result>> inFlight = new ConcurrentHashMap<>();
+
+    public CachingReactiveOpaqueTokenIntrospector(ReactiveOpaqueTokenIntrospector delegate
+            , IntrospectionCache introspectionCache) {
+        this.delegate = delegate;
+        this.introspectionCache = introspectionCache;
+    }
+
+    @Override
+    public Mono<OAuth2AuthenticatedPrincipal> introspect(String token) {
+        return Mono.defer(() -> {
+            TokenDigest digest = TokenDigest.of(token);
+            IntrospectionCache.Result result = introspectionCache.get(digest);
+            if (result != null) {
+                return principal(result);
+            }
+            return inFlight.computeIfAbsent(digest, key -> load(key, token))
+                    .flatMap(CachingReactiveOpaqueTokenIntrospector::principal);
+        });
+    }
+
+    private Mono<IntrospectionCache.Result> load(TokenDigest digest, String token) {
+        return delegate.introspect(token)
+                .map(IntrospectionCache.Result::active)
+                .onErrorResume(BadOpaqueTokenCredentialsException.class, e -> Mono.just(IntrospectionCache.Result.inactive()))
+                .doOnNext(result -> introspectionCache.put(digest, result))
+                .doFinally(signal -> inFlight.remove(digest))
+                .cache();
+    }
+
+    private static Mono<OAuth2AuthenticatedPrincipal> principal(IntrospectionCache.Result result) {
+        return result.isActive()
+                ? Mono.just(result.principal())
+                : Mono.error(new BadOpaqueTokenCredentialsException(INACTIVE_TOKEN));
+    }
+
+    /**
+     * @return the number of introspections currently running
+     */
+    public int getInFlight() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,39 @@
+package ir.msob.jima.security.reactive.jwt;
+
+import ir.msob.jima.security.api.token.TokenDigest;
+import ir.msob.jima.security.core.jwt.JwtCache;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ReactiveJwtDecoder} decorator that serves repeated tokens from a {@link JwtCache}.
+ * <p>
+ * A hit completes synchronously without subscribing to the delegate; only successfully decoded
+ * tokens are cached.
+ *
+ * @author Yaqub Abdi
+ */
+@RequiredArgsConstructor
+public class CachingReactiveJwtDecoder implements ReactiveJwtDecoder {
+
+    private final ReactiveJwtDecoder delegate;
+    @Getter
+    private final JwtCache jwtCache;
+
+    @Override
+    public Mono<Jwt> decode(String token) throws JwtException {
+        return Mono.defer(() -> {
+            TokenDigest digest = TokenDigest.of(token);
+            Jwt jwt = jwtCache.get(digest);
+            if (jwt != null) {
+                return Mono.just(jwt);
+            }
+            return delegate.decode(token)
+                    .doOnNext(decoded -> jwtCache.put(digest, decoded));
+        });
+    }
+}
@@ -0,0 +1,68 @@
+package ir.msob.jima.security.reactive.jwt;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWT;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import ir.msob.jima.security.core.jwk.JwkSetJwtDecoders;
+import ir.msob.jima.security.core.jwk.JwkSetSource;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Collection;
+
+/**
+ * Builds reactive JWT decoders on top of a {@link JwkSetSource}.
+ * <p>
+ * Verification runs on the subscribing thread while the needed key is loaded; only a verification
+ * that has to fetch the JWK set is moved to the bounded elastic scheduler, so the event loop never
+ * waits for the identity provider.
+ *
+ * @author Yaqub Abdi
+ */
+public class JwkSetReactiveJwtDecoders {
+
+    private JwkSetReactiveJwtDecoders() {
+    }
+
+    /**
+     * Creates a {@link ReactiveJwtDecoder} verifying signatures with the keys of the source.
+     *
+     * @param jwkSetSource  the key source
+     * @param jwsAlgorithms the accepted signature algorithms
+     * @param issuerUri     the expected issuer, or empty to skip issuer validation
+     * @return the decoder
+     */
+    public static ReactiveJwtDecoder reactiveJwtDecoder(JwkSetSource jwkSetSource, Collection<String> jwsAlgorithms, String issuerUri) {
+        DefaultJWTProcessor<SecurityContext> processor = JwkSetJwtDecoders.jwtProcessor(jwkSetSource, jwsAlgorithms);
+        NimbusReactiveJwtDecoder decoder = new NimbusReactiveJwtDecoder(jwt -> {
+            Mono<JWTClaimsSet> claims = Mono.fromCallable(() -> process(processor, jwt));
+            return jwkSetSource.requiresFetch(keyId(jwt))
+                    ? claims.subscribeOn(Schedulers.boundedElastic())
+                    : claims;
+        });
+        decoder.setJwtValidator(JwkSetJwtDecoders.jwtValidator(issuerUri));
+        return decoder;
+    }
+
+    private static JWTClaimsSet process(DefaultJWTProcessor<SecurityContext> processor, JWT jwt) {
+        try {
+            return processor.process(jwt, null);
+        } catch (BadJOSEException e) {
+            throw new BadJwtException(e.getMessage(), e);
+        } catch (JOSEException e) {
+            throw new JwtException(e.getMessage(), e);
+        }
+    }
+
+    private static String keyId(JWT jwt) {
+        return jwt.getHeader() instanceof JWSHeader header ? header.getKeyID() : null;
+    }
+}
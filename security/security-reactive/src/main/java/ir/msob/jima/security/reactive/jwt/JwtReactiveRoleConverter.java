@@ -1,31 +1,81 @@
 package ir.msob.jima.security.reactive.jwt;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import ir.msob.jima.security.api.token.RoleMapper;
+import ir.msob.jima.security.core.jwt.GrantedAuthorityCache;
+import ir.msob.jima.security.core.metrics.SecurityMetrics;
 import org.jspecify.annotations.NonNull;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
 import reactor.core.publisher.Flux;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 
-public class JwtReactiveRoleConverter implements Converter<@NonNull Jwt, Flux<GrantedAuthority>> {
+public class JwtReactiveRoleConverter implements Converter<@NonNull Jwt, Flux<GrantedAuthority>>, MeterBinder {
 
     private final RoleMapper roleMapper;
+    private final GrantedAuthorityCache grantedAuthorityCache;
+    /**
+     * Cold fluxes over the cached authority lists; a flux can be subscribed any number of times,
+     * so one instance per role list is reused instead of assembling a new pipeline per request.
+     */
+    private final Cache<List<String>, Flux<GrantedAuthority>> fluxes;
+    private final Function<List<String>, Flux<GrantedAuthority>> fluxFactory = this::create;
+    /**
+     * Conversion timer, set once the converter is bound to a meter registry.
+     */
+    private volatile Timer conversionTimer;
 
     public JwtReactiveRoleConverter(RoleMapper roleMapper) {
+        this(roleMapper, new GrantedAuthorityCache());
+    }
+
+    public JwtReactiveRoleConverter(RoleMapper roleMapper, GrantedAuthorityCache grantedAuthorityCache) {
         this.roleMapper = roleMapper;
+        this.grantedAuthorityCache = grantedAuthorityCache;
+        this.fluxes = Caffeine.newBuilder().maximumSize(grantedAuthorityCache.getMaximumSize()).build();
     }
 
     @Override
     public Flux<GrantedAuthority> convert(Jwt jwt) {
+        Timer timer = conversionTimer;
+        if (timer == null) {
+            return doConvert(jwt);
+        }
 
+        long start = System.nanoTime();
+        Flux<GrantedAuthority> authorities = doConvert(jwt);
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return authorities;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        conversionTimer = registry.timer(SecurityMetrics.ROLE_CONVERSION, "converter", "reactive");
+    }
+
+    private Flux<GrantedAuthority> doConvert(Jwt jwt) {
         List<String> roles = roleMapper.extractRoles(jwt.getClaims());
 
-        return Flux.fromIterable(roles)
-                .map(SimpleGrantedAuthority::new)
-                .map(g -> (GrantedAuthority) g);
+        if (roles.isEmpty()) {
+            return Flux.empty();
+        }
+        Flux<GrantedAuthority> cached = fluxes.getIfPresent(roles);
+        if (cached != null) {
+            return cached;
+        }
+        return fluxes.get(List.copyOf(roles), fluxFactory);
+    }
+
+    private Flux<GrantedAuthority> create(List<String> roles) {
+        return Flux.fromIterable(grantedAuthorityCache.get(roles));
     }
 }
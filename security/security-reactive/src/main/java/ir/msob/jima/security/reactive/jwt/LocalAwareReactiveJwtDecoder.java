@@ -0,0 +1,36 @@
+package ir.msob.jima.security.reactive.jwt;
+
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.core.jwt.LocalJwts;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ReactiveJwtDecoder} that verifies HMAC-signed local tokens in-process and hands every
+ * other token to the delegate.
+ *
+ * @author Yaqub Abdi
+ */
+public class LocalAwareReactiveJwtDecoder implements ReactiveJwtDecoder {
+
+    private final ReactiveJwtDecoder localDecoder;
+    private final ReactiveJwtDecoder delegate;
+
+    public LocalAwareReactiveJwtDecoder(SecurityProperties.JwtProperties properties, String issuer, ReactiveJwtDecoder delegate) {
+        NimbusReactiveJwtDecoder decoder = NimbusReactiveJwtDecoder.withSecretKey(LocalJwts.secretKey(properties))
+                .macAlgorithm(LocalJwts.macAlgorithm(properties))
+                .build();
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuer));
+        this.localDecoder = decoder;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) throws JwtException {
+        return LocalJwts.isMacSigned(token) ? localDecoder.decode(token) : delegate.decode(token);
+    }
+}
@@ -0,0 +1,29 @@
+package ir.msob.jima.security.reactive.jwt;
+
+import ir.msob.jima.security.core.jwt.RevocationCheckingJwtDecoder;
+import ir.msob.jima.security.core.revocation.RevocationList;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ReactiveJwtDecoder} decorator that rejects tokens whose {@code jti} or {@code sid} is in a
+ * {@link RevocationList}, including tokens served from a {@link CachingReactiveJwtDecoder}.
+ *
+ * @author Yaqub Abdi
+ */
+@RequiredArgsConstructor
+public class RevocationCheckingReactiveJwtDecoder implements ReactiveJwtDecoder {
+
+    @Getter
+    private final ReactiveJwtDecoder delegate;
+    private final RevocationList revocationList;
+
+    @Override
+    public Mono<Jwt> decode(String token) throws JwtException {
+        return delegate.decode(token).map(jwt -> RevocationCheckingJwtDecoder.check(jwt, revocationList));
+    }
+}
@@ -0,0 +1,54 @@
+package ir.msob.jima.security.reactive.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import ir.msob.jima.security.core.metrics.SecurityMetrics;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ReactiveJwtDecoder} decorator that times decoding for one transport and counts failures by reason.
+ *
+ * @author Yaqub Abdi
+ */
+public class TimedReactiveJwtDecoder implements ReactiveJwtDecoder {
+
+    private final ReactiveJwtDecoder delegate;
+    private final MeterRegistry registry;
+    private final String transport;
+    private final Timer successTimer;
+
+    public TimedReactiveJwtDecoder(ReactiveJwtDecoder delegate, MeterRegistry registry, String transport) {
+        this.delegate = delegate;
+        this.registry = registry;
+        this.transport = transport;
+        this.successTimer = registry.timer(SecurityMetrics.JWT_DECODE,
+                SecurityMetrics.TAG_TRANSPORT, transport, SecurityMetrics.TAG_OUTCOME, SecurityMetrics.OUTCOME_SUCCESS);
+    }
+
+    /**
+     * Wraps the decoder when a registry is available.
+     *
+     * @param delegate  the decoder
+     * @param registry  the registry, may be {@code null}
+     * @param transport the transport tag
+     * @return the timed decoder, or the decoder itself without a registry
+     */
+    public static ReactiveJwtDecoder wrap(ReactiveJwtDecoder delegate, MeterRegistry registry, String transport) {
+        return registry == null ? delegate : new TimedReactiveJwtDecoder(delegate, registry, transport);
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) throws JwtException {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return delegate.decode(token)
+                    .doOnSuccess(jwt -> successTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                    .doOnError(e -> SecurityMetrics.recordDecodeFailure(registry, transport, System.nanoTime() - start, e));
+        });
+    }
+}
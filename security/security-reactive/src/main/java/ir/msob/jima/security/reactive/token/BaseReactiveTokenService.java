@@ -0,0 +1,43 @@
+package ir.msob.jima.security.reactive.token;
+
+import ir.msob.jima.platform.api.security.BaseTokenService;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Extension of {@link BaseTokenService} with a non-blocking way to obtain the service token.
+ * <p>
+ * Reactive callers (RSocket metadata, WebFlux filters, event-loop code) should use
+ * {@link #getReactiveToken()} instead of {@link #getToken()}, which may block the calling thread.
+ *
+ * @author Yaqub Abdi
+ */
+public interface BaseReactiveTokenService extends BaseTokenService {
+
+    /**
+     * Adapts any {@link BaseTokenService} to the reactive contract.
+     *
+     * @param tokenService the token service
+     * @return a Mono emitting the current token
+     */
+    static Mono<String> getReactiveToken(BaseTokenService tokenService) {
+        if (tokenService instanceof BaseReactiveTokenService reactiveTokenService) {
+            return reactiveTokenService.getReactiveToken();
+        }
+        return Mono.fromCallable(tokenService::getToken)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Retrieves the token without blocking the subscribing thread.
+     * <p>
+     * The default implementation runs {@link #getToken()} on the bounded elastic scheduler;
+     * implementations backed by a reactive client should override it.
+     *
+     * @return a Mono emitting the current token
+     */
+    default Mono<String> getReactiveToken() {
+        return Mono.fromCallable(this::getToken)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
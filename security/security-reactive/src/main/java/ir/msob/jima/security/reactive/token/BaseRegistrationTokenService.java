@@ -0,0 +1,52 @@
+package ir.msob.jima.security.reactive.token;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Extension of {@link BaseReactiveTokenService} that obtains tokens for any client registration,
+ * not only the default one.
+ * <p>
+ * {@link #getToken()} and {@link #getReactiveToken()} keep returning the token of the default registration.
+ *
+ * @author Yaqub Abdi
+ */
+public interface BaseRegistrationTokenService extends BaseReactiveTokenService {
+
+    /**
+     * Retrieves the token of a client registration, possibly blocking the calling thread.
+     *
+     * @param registrationId the client registration id
+     * @return the token
+     */
+    String getToken(String registrationId);
+
+    /**
+     * Retrieves the token of a client registration without blocking the subscribing thread.
+     * <p>
+     * The default implementation runs {@link #getToken(String)} on the bounded elastic scheduler;
+     * implementations backed by a reactive client should override it.
+     *
+     * @param registrationId the client registration id
+     * @return a Mono emitting the token
+     */
+    default Mono<String> getReactiveToken(String registrationId) {
+        return Mono.fromCallable(() -> getToken(registrationId))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Discards the stored token of a client registration after a resource server rejected it, so the next
+     * call obtains a new token instead of handing out the stored one again. A stored token that no longer
+     * matches {@code token} has already been replaced and is kept.
+     * <p>
+     * The default implementation does nothing.
+     *
+     * @param registrationId the client registration id
+     * @param token          the rejected token
+     * @return a Mono completing once the token is discarded
+     */
+    default Mono<Void> invalidate(String registrationId, String token) {
+        return Mono.empty();
+    }
+}
@@ -0,0 +1,156 @@
+package ir.msob.jima.security.reactive.token;
+
+import com.nimbusds.jwt.JWTParser;
+import ir.msob.jima.platform.api.logger.Logger;
+import ir.msob.jima.platform.api.logger.LoggerFactory;
+import ir.msob.jima.platform.api.security.BaseTokenService;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Local cache of the service token of a {@link BaseTokenService}, held in the form a transport attaches
+ * it in (metadata, header bytes, ...).
+ * <p>
+ * The form is built once per token. While the token is valid {@link #getIfValid()} returns it without
+ * blocking; once it enters the refresh window a single background refresh is started and the current
+ * token keeps being served. Callers without any valid token can wait, asynchronously, for the shared
+ * refresh with {@link #get()}.
+ *
+ * @param <T> the transport form of the token
+ * @author Yaqub Abdi
+ */
+public class CachedTokenSource<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(CachedTokenSource.class);
+    /**
+     * Lifetime assumed for tokens whose expiry cannot be read, such as opaque tokens.
+     */
+    private static final Duration UNKNOWN_LIFETIME = Duration.ofSeconds(60);
+    /**
+     * Shortest delay between two refreshes of a token whose refresh window has already started.
+     */
+    private static final Duration MINIMUM_REFRESH_DELAY = Duration.ofSeconds(1);
+
+    private final BaseTokenService tokenService;
+    private final Duration refreshBefore;
+    private final Function<String, T> mapper;
+    private final AtomicReference<CompletableFuture<T>> inFlight = new AtomicReference<>();
+    private final AtomicReference<Entry<T>> cached = new AtomicReference<>();
+
+    public CachedTokenSource(BaseTokenService tokenService, Duration refreshBefore, Function<String, T> mapper) {
+        this.tokenService = tokenService;
+        this.refreshBefore = refreshBefore;
+        this.mapper = mapper;
+    }
+
+    private static Instant expiresAt(String token) {
+        try {
+            Date expiration = JWTParser.parse(token).getJWTClaimsSet().getExpirationTime();
+            if (expiration != null) {
+                return expiration.toInstant();
+            }
+        } catch (Exception e) {
+            logger.debug("Service token expiry is not readable: {}", e.getMessage());
+        }
+        return Instant.now().plus(UNKNOWN_LIFETIME);
+    }
+
+    /**
+     * Returns the cached token without blocking, refreshing it in the background when it is due.
+     *
+     * @return the token, or {@code null} when no valid token is cached yet
+     */
+    public T getIfValid() {
+        Entry<T> entry = cached.get();
+        Instant now = Instant.now();
+        if (entry != null && now.isBefore(entry.expiresAt())) {
+            if (!now.isBefore(entry.refreshAt())) {
+                refresh();
+            }
+            return entry.value();
+        }
+        refresh();
+        return null;
+    }
+
+    /**
+     * Returns the cached token, or waits for the shared refresh when none is valid.
+     *
+     * @return a Mono emitting the token
+     */
+    public Mono<T> get() {
+        return Mono.defer(() -> {
+            T value = getIfValid();
+            return value != null ? Mono.just(value) : Mono.fromFuture(refresh());
+        });
+    }
+
+    /**
+     * Starts a token refresh, or joins the one already running.
+     *
+     * @return the refreshed token
+     */
+    public CompletableFuture<T> refresh() {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        CompletableFuture<T> existing = inFlight.compareAndExchange(null, future);
+        if (existing != null) {
+            return existing;
+        }
+        BaseReactiveTokenService.getReactiveToken(tokenService)
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("No service token available")))
+                .map(this::cache)
+                .subscribe(value -> {
+                    inFlight.compareAndSet(future, null);
+                    future.complete(value);
+                }, e -> {
+                    logger.warn("Service token refresh failed: {}", e.getMessage());
+                    inFlight.compareAndSet(future, null);
+                    future.completeExceptionally(e);
+                }, () -> inFlight.compareAndSet(future, null));
+        return future;
+    }
+
+    /**
+     * Drops a token the receiving side rejected, so the next call fetches a new one. A token that has
+     * already been replaced by a refresh is left alone.
+     *
+     * @param value the rejected token
+     */
+    public void invalidate(T value) {
+        Entry<T> entry = cached.get();
+        if (entry != null && entry.value().equals(value)) {
+            cached.compareAndSet(entry, null);
+        }
+    }
+
+    private T cache(String token) {
+        Instant now = Instant.now();
+        Instant expiresAt = expiresAt(token);
+        T value = mapper.apply(token);
+        cached.set(new Entry<>(value, expiresAt, refreshAt(now, expiresAt)));
+        return value;
+    }
+
+    /**
+     * The token service may hand out the same token again while its own expiry margin is smaller than
+     * {@code refreshBefore}; a token already inside the refresh window is then refreshed again after half
+     * its remaining lifetime instead of on every call.
+     */
+    private Instant refreshAt(Instant now, Instant expiresAt) {
+        Instant refreshAt = expiresAt.minus(refreshBefore);
+        if (refreshAt.isAfter(now)) {
+            return refreshAt;
+        }
+        Duration delay = Duration.between(now, expiresAt).dividedBy(2);
+        return now.plus(delay.compareTo(MINIMUM_REFRESH_DELAY) < 0 ? MINIMUM_REFRESH_DELAY : delay);
+    }
+
+    private record Entry<T>(T value, Instant expiresAt, Instant refreshAt) {
+    }
+}
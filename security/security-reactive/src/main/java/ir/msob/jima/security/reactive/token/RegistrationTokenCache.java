@@ -0,0 +1,85 @@
+package ir.msob.jima.security.reactive.token;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Per-registration cache of service tokens.
+ * <p>
+ * Each client registration gets its own {@link CachedTokenSource}, created on first use: a valid token is
+ * served without blocking and refreshed in the background before it expires, and concurrent callers of one
+ * registration share a single refresh. Registrations refresh independently, so a slow token endpoint for
+ * one audience never delays the tokens of another.
+ *
+ * @author Yaqub Abdi
+ */
+public class RegistrationTokenCache {
+
+    private final BaseRegistrationTokenService tokenService;
+    private final Duration refreshBefore;
+    private final ConcurrentMap<String, CachedTokenSource<String>> sources = new ConcurrentHashMap<>();
+    private final Function<String, CachedTokenSource<String>> sourceFactory = this::createSource;
+
+    public RegistrationTokenCache(BaseRegistrationTokenService tokenService, Duration refreshBefore) {
+        this.tokenService = tokenService;
+        this.refreshBefore = refreshBefore;
+    }
+
+    /**
+     * Returns the token of a registration, blocking only when no valid token is cached.
+     *
+     * @param registrationId the client registration id
+     * @return the token
+     */
+    public String getToken(String registrationId) {
+        CachedTokenSource<String> source = sources.computeIfAbsent(registrationId, sourceFactory);
+        String token = source.getIfValid();
+        return token != null ? token : source.refresh().join();
+    }
+
+    /**
+     * Returns the token of a registration, waiting asynchronously when no valid token is cached.
+     *
+     * @param registrationId the client registration id
+     * @return a Mono emitting the token
+     */
+    public Mono<String> getReactiveToken(String registrationId) {
+        return sources.computeIfAbsent(registrationId, sourceFactory).get();
+    }
+
+    /**
+     * Drops a token of a registration that was rejected, both here and in the token service, so the next
+     * call fetches a new one.
+     *
+     * @param registrationId the client registration id
+     * @param token          the rejected token
+     * @return a Mono completing once the token is dropped
+     */
+    public Mono<Void> invalidate(String registrationId, String token) {
+        return tokenService.invalidate(registrationId, token)
+                .then(Mono.fromRunnable(() -> {
+                    CachedTokenSource<String> source = sources.get(registrationId);
+                    if (source != null) {
+                        source.invalidate(token);
+                    }
+                }));
+    }
+
+    private CachedTokenSource<String> createSource(String registrationId) {
+        return new CachedTokenSource<>(new BaseReactiveTokenService() {
+            @Override
+            public String getToken() {
+                return tokenService.getToken(registrationId);
+            }
+
+            @Override
+            public Mono<String> getReactiveToken() {
+                return tokenService.getReactiveToken(registrationId);
+            }
+        }, refreshBefore, Function.identity());
+    }
+}
@@ -23,6 +23,27 @@ public interface BaseSecurityProjectUserService extends BaseUserService {
 
     ObjectMapper getObjectMapper();
 
+    /**
+     * Returns the cache of decoded user-info blobs, or {@code null} to decode every time.
+     *
+     * @return the cache shared by services with the same properties
+     */
+    default UserInfoDecodeCache getUserInfoDecodeCache() {
+        return UserInfoDecodeCache.shared(getSecurityProperties().getUserInfo());
+    }
+
+    /**
+     * Encodes a user for propagation in the compact CBOR form, which {@link #getUser(String, Class)}
+     * accepts alongside the platform's JSON form.
+     *
+     * @param user the user
+     * @return the compact user-info blob
+     */
+    @SneakyThrows
+    default String encodeCompactUserInfo(BaseUser user) {
+        return CompactUserInfoCodec.of(getObjectMapper()).encode(user);
+    }
+
 
     @Override
     default <USER extends BaseUser, A extends Authentication> @NonNull USER getUser(@NonNull A authentication) {
@@ -34,6 +55,26 @@ public interface BaseSecurityProjectUserService extends BaseUserService {
     @SneakyThrows
     @Override
     default <USER extends BaseUser> @NonNull USER getUser(String userInfo, Class<USER> userClass) {
+        UserInfoDecodeCache cache = getUserInfoDecodeCache();
+        if (cache == null) {
+            return decodeUserInfo(userInfo, userClass);
+        }
+        return cache.get(userInfo, userClass, getObjectMapper(), this::decodeUserInfo);
+    }
+
+    /**
+     * Decodes a user-info blob in either the compact or the JSON encoding.
+     *
+     * @param userInfo  the blob
+     * @param userClass the user type
+     * @param <USER>    the user type
+     * @return the user
+     */
+    @SneakyThrows
+    default <USER extends BaseUser> USER decodeUserInfo(String userInfo, Class<USER> userClass) {
+        if (CompactUserInfoCodec.isCompact(userInfo)) {
+            return CompactUserInfoCodec.of(getObjectMapper()).decode(userInfo, userClass);
+        }
         return UserInfoCodec.decode(getObjectMapper(), userInfo, userClass);
     }
 
@@ -0,0 +1,82 @@
+package ir.msob.jima.security.testing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import ir.msob.jima.platform.api.security.BaseUser;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Compact encoding of propagated user-info: the user serialized as CBOR and Base64URL-encoded
+ * without padding, behind a {@value #PREFIX} marker.
+ * <p>
+ * The marker cannot start a JSON or Base64 blob, so receivers tell both encodings apart and
+ * services can switch to the compact form one at a time.
+ *
+ * @author Yaqub Abdi
+ */
+public class CompactUserInfoCodec {
+
+    /**
+     * Marker of compact user-info blobs.
+     */
+    public static final String PREFIX = "c.";
+
+    private static final Map<ObjectMapper, CompactUserInfoCodec> CODECS = new WeakHashMap<>();
+
+    private final ObjectMapper cborMapper;
+
+    private CompactUserInfoCodec(ObjectMapper objectMapper) {
+        this.cborMapper = objectMapper.copyWith(new CBORFactory());
+    }
+
+    /**
+     * Returns the codec sharing the configuration (modules, features) of a JSON object mapper.
+     *
+     * @param objectMapper the JSON object mapper
+     * @return the codec
+     */
+    public static CompactUserInfoCodec of(ObjectMapper objectMapper) {
+        synchronized (CODECS) {
+            return CODECS.computeIfAbsent(objectMapper, CompactUserInfoCodec::new);
+        }
+    }
+
+    /**
+     * Tells whether a user-info blob uses the compact encoding.
+     *
+     * @param userInfo the blob
+     * @return {@code true} for compact blobs
+     */
+    public static boolean isCompact(String userInfo) {
+        return userInfo != null && userInfo.startsWith(PREFIX);
+    }
+
+    /**
+     * Encodes a user.
+     *
+     * @param user the user
+     * @return the compact blob
+     * @throws IOException if the user cannot be serialized
+     */
+    public String encode(BaseUser user) throws IOException {
+        return PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(cborMapper.writeValueAsBytes(user));
+    }
+
+    /**
+     * Decodes a compact blob.
+     *
+     * @param userInfo  the compact blob
+     * @param userClass the user type
+     * @param <USER>    the user type
+     * @return the user
+     * @throws IOException if the blob cannot be deserialized
+     */
+    public <USER extends BaseUser> USER decode(String userInfo, Class<USER> userClass) throws IOException {
+        byte[] cbor = Base64.getUrlDecoder().decode(userInfo.substring(PREFIX.length()));
+        return cborMapper.readValue(cbor, userClass);
+    }
+}
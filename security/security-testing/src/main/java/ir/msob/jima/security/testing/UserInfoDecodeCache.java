@@ -0,0 +1,83 @@
+package ir.msob.jima.security.testing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import ir.msob.jima.platform.api.security.BaseUser;
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import ir.msob.jima.security.api.token.TokenDigest;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Bounded cache of decoded user-info blobs, keyed by the digest of the blob and the user type,
+ * so a blob repeated across service-to-service calls is parsed once.
+ * <p>
+ * Users are held as JSON trees that never leave the cache; every call materialises a new user,
+ * so a caller mutating its user cannot affect the next caller with the same blob. Materialising costs a
+ * good part of a decode, so the cache is off unless {@code jima.security.user-info.decode-cache-size} is set.
+ *
+ * @author Yaqub Abdi
+ */
+public class UserInfoDecodeCache {
+
+    private static final Map<SecurityProperties.UserInfoProperties, UserInfoDecodeCache> CACHES = new WeakHashMap<>();
+
+    private final Cache<Key, JsonNode> cache;
+
+    public UserInfoDecodeCache(SecurityProperties.UserInfoProperties properties) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getDecodeCacheSize())
+                .expireAfterWrite(properties.getDecodeCacheTtl())
+                .build();
+    }
+
+    /**
+     * Returns the cache shared by every user service configured with the same properties.
+     *
+     * @param properties the user-info properties
+     * @return the cache, or {@code null} when disabled
+     */
+    public static UserInfoDecodeCache shared(SecurityProperties.UserInfoProperties properties) {
+        if (properties.getDecodeCacheSize() <= 0) {
+            return null;
+        }
+        synchronized (CACHES) {
+            return CACHES.computeIfAbsent(properties, UserInfoDecodeCache::new);
+        }
+    }
+
+    /**
+     * Returns a new user materialised from the cached tree of the blob, decoding and caching it on a miss.
+     *
+     * @param userInfo     the blob
+     * @param userClass    the user type
+     * @param objectMapper converts between users and their cached trees
+     * @param decoder      decodes the blob on a miss
+     * @param <USER>       the user type
+     * @return a user owned by the caller
+     */
+    public <USER extends BaseUser> USER get(String userInfo, Class<USER> userClass, ObjectMapper objectMapper, Decoder<USER> decoder) throws Exception {
+        Key key = new Key(TokenDigest.of(userInfo), userClass);
+        JsonNode cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return objectMapper.treeToValue(cached, userClass);
+        }
+        USER user = decoder.decode(userInfo, userClass);
+        cache.put(key, objectMapper.valueToTree(user));
+        return user;
+    }
+
+    /**
+     * Decodes a blob on a cache miss.
+     */
+    @FunctionalInterface
+    public interface Decoder<USER extends BaseUser> {
+        USER decode(String userInfo, Class<USER> userClass) throws Exception;
+    }
+
+    private record Key(TokenDigest digest, Class<?> userClass) {
+    }
+}
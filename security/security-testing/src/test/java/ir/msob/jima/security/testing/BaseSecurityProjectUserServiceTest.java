@@ -0,0 +1,52 @@
+package ir.msob.jima.security.testing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ir.msob.jima.platform.api.security.UserInfoCodec;
+import ir.msob.jima.platform.testing.security.ProjectUser;
+import ir.msob.jima.security.api.properties.SecurityProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static ir.msob.jima.security.testing.CompactUserInfoCodecTest.assertSameUser;
+import static ir.msob.jima.security.testing.CompactUserInfoCodecTest.user;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.mockito.Mockito.*;
+
+class BaseSecurityProjectUserServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private BaseSecurityProjectUserService service(long decodeCacheSize) {
+        SecurityProperties securityProperties = new SecurityProperties();
+        securityProperties.getUserInfo().setDecodeCacheSize(decodeCacheSize);
+        BaseSecurityProjectUserService service = mock(BaseSecurityProjectUserService.class, CALLS_REAL_METHODS);
+        doReturn(securityProperties).when(service).getSecurityProperties();
+        doReturn(objectMapper).when(service).getObjectMapper();
+        return service;
+    }
+
+    @Test
+    @DisplayName("Compact and JSON user-info blobs decode to the same user")
+    void compactAndJsonDecodeAlike() throws Exception {
+        ProjectUser user = user();
+        BaseSecurityProjectUserService service = service(0);
+
+        assertSameUser(user, service.getUser(service.encodeCompactUserInfo(user), ProjectUser.class));
+        assertSameUser(user, service.getUser(UserInfoCodec.encode(objectMapper, user), ProjectUser.class));
+    }
+
+    @Test
+    @DisplayName("The decode cache serves both encodings and hands every caller its own user")
+    void decodeCacheReturnsCopies() throws Exception {
+        ProjectUser user = user();
+        BaseSecurityProjectUserService service = service(16);
+
+        for (String userInfo : new String[]{service.encodeCompactUserInfo(user), UserInfoCodec.encode(objectMapper, user)}) {
+            ProjectUser first = service.getUser(userInfo, ProjectUser.class);
+            ProjectUser second = service.getUser(userInfo, ProjectUser.class);
+
+            assertNotSame(first, second);
+            assertSameUser(user, second);
+        }
+    }
+}
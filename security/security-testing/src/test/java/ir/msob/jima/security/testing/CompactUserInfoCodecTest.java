@@ -0,0 +1,61 @@
+package ir.msob.jima.security.testing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ir.msob.jima.platform.api.security.UserInfoCodec;
+import ir.msob.jima.platform.testing.security.ProjectUser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactUserInfoCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    static ProjectUser user() {
+        return ProjectUser.builder()
+                .id("4b0e9c56-1f0b-4c43-9d6e-2a1c8f3e7d10")
+                .sessionId("b7f1d3a2-5c64-4e8f-9a0b-c1d2e3f4a5b6")
+                .username("alice")
+                .audience("web")
+                .roles(new TreeSet<>(List.of("admin", "user")))
+                .build();
+    }
+
+    static void assertSameUser(ProjectUser expected, ProjectUser actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getSessionId(), actual.getSessionId());
+        assertEquals(expected.getUsername(), actual.getUsername());
+        assertEquals(expected.getAudience(), actual.getAudience());
+        assertEquals(expected.getRoles(), actual.getRoles());
+    }
+
+    @Test
+    @DisplayName("A user survives the compact encoding unchanged")
+    void compactRoundTrip() throws Exception {
+        ProjectUser user = user();
+        CompactUserInfoCodec codec = CompactUserInfoCodec.of(objectMapper);
+
+        String userInfo = codec.encode(user);
+
+        assertTrue(CompactUserInfoCodec.isCompact(userInfo));
+        assertSameUser(user, codec.decode(userInfo, ProjectUser.class));
+    }
+
+    @Test
+    @DisplayName("JSON user-info blobs are not taken for compact ones")
+    void jsonIsNotCompact() throws Exception {
+        assertFalse(CompactUserInfoCodec.isCompact(UserInfoCodec.encode(objectMapper, user())));
+        assertFalse(CompactUserInfoCodec.isCompact(null));
+    }
+
+    @Test
+    @DisplayName("Codecs are shared per object mapper")
+    void codecIsSharedPerObjectMapper() {
+        assertSame(CompactUserInfoCodec.of(objectMapper), CompactUserInfoCodec.of(objectMapper));
+        assertNotSame(CompactUserInfoCodec.of(objectMapper), CompactUserInfoCodec.of(new ObjectMapper()));
+    }
+}